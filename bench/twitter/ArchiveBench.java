@@ -0,0 +1,66 @@
+package twitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares loading a tweet dump from JSON with TweetStreamReader against opening the same
+ * tweets as a TweetArchive, both to first tweet (cold start) and to a full scan.
+ */
+public class ArchiveBench {
+    
+    private static final int[] SIZES = {10_000, 100_000, 1_000_000};
+    
+    public static void main(String[] args) throws IOException {
+        final Path directory = Files.createTempDirectory("archive-bench");
+        for(int size : SIZES){
+            final List<Tweet> tweets = TweetGenerator.generate(size, Math.max(size / 10, 1), size);
+            final Path json = directory.resolve("tweets.json");
+            final Path archive = directory.resolve("tweets.twar");
+            try (Writer out = Files.newBufferedWriter(json, StandardCharsets.UTF_8)) {
+                TweetGenerator.writeJson(tweets, out);
+            }
+            TweetArchiveWriter.write(archive, tweets);
+            
+            Bench.report("parse JSON", size, Bench.time(2, 5, () -> readJson(json)));
+            Bench.report("open archive, first tweet", size, Bench.time(() -> firstTweet(archive)));
+            Bench.report("open archive, read every tweet", size, Bench.time(2, 5, () -> readArchive(archive)));
+            
+            Files.delete(json);
+            Files.delete(archive);
+        }
+        Files.delete(directory);
+    }
+    
+    private static List<Tweet> readJson(Path json) {
+        final List<Tweet> tweets = new ArrayList<Tweet>();
+        try (TweetStreamReader reader = new TweetStreamReader(Files.newBufferedReader(json, StandardCharsets.UTF_8))) {
+            reader.forEachRemaining(tweets::add);
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+        return tweets;
+    }
+    
+    private static Tweet firstTweet(Path path) {
+        try (TweetArchive archive = new TweetArchive(path)) {
+            return archive.get(0);
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+    }
+    
+    private static List<Tweet> readArchive(Path path) {
+        try (TweetArchive archive = new TweetArchive(path)) {
+            return new ArrayList<Tweet>(archive.asList());
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+    }
+}
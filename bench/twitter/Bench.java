@@ -0,0 +1,69 @@
+package twitter;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Minimal timing harness shared by the benchmarks in this folder.
+ * 
+ * Each measurement runs an operation for a number of warm-up iterations (so the JIT
+ * has compiled the hot paths), then times a number of measured iterations and reports
+ * the median. Results are written to a volatile sink so the work cannot be optimized away.
+ * 
+ * Run the benchmarks with assertions disabled, e.g.
+ *     java -cp bin:lib/javax.json-1.0.jar twitter.SocialNetworkBench
+ */
+class Bench {
+    
+    /** receives every result so that the JIT cannot eliminate the measured work */
+    static volatile Object sink;
+    
+    private static final int DEFAULT_WARMUPS = 5;
+    private static final int DEFAULT_ITERATIONS = 10;
+    
+    /**
+     * Time an operation with the default number of warm-up and measured iterations.
+     * 
+     * @param operation work to measure; its result is consumed by the harness
+     * @return median wall-clock time of one run of operation, in nanoseconds
+     */
+    static long time(Supplier<?> operation) {
+        return time(DEFAULT_WARMUPS, DEFAULT_ITERATIONS, operation);
+    }
+    
+    /**
+     * Time an operation.
+     * 
+     * @param warmups number of unmeasured runs, >= 0
+     * @param iterations number of measured runs, > 0
+     * @param operation work to measure; its result is consumed by the harness
+     * @return median wall-clock time of one run of operation, in nanoseconds
+     */
+    static long time(int warmups, int iterations, Supplier<?> operation) {
+        for(int i = 0; i < warmups; i++){
+            sink = operation.get();
+        }
+        
+        final long[] samples = new long[iterations];
+        for(int i = 0; i < iterations; i++){
+            final long start = System.nanoTime();
+            sink = operation.get();
+            samples[i] = System.nanoTime() - start;
+        }
+        
+        Arrays.sort(samples);
+        return samples[iterations / 2];
+    }
+    
+    /**
+     * Print one result row.
+     * 
+     * @param label name of the measured operation
+     * @param size input size the operation was run on
+     * @param nanos median time of one run, in nanoseconds
+     */
+    static void report(String label, int size, long nanos) {
+        System.out.printf("%-40s %10d %12.3f ms %10.1f ns/item%n",
+                label, size, nanos / 1e6, (double) nanos / Math.max(size, 1));
+    }
+}
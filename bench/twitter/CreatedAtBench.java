@@ -0,0 +1,58 @@
+package twitter;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Compares parsing created_at timestamps with a formatter built per call (as TweetReader
+ * used to), with a shared formatter, and with CreatedAtParser's fast path.
+ */
+public class CreatedAtBench {
+    
+    private static final int SIZE = 100_000;
+    
+    public static void main(String[] args) {
+        final Random random = new Random(SIZE);
+        final Instant start = Instant.parse("2016-02-17T10:00:00Z");
+        final List<String> timestamps = new ArrayList<String>(SIZE);
+        for(int i = 0; i < SIZE; i++){
+            timestamps.add(CreatedAtParser.FORMAT.format(start.plusSeconds(random.nextInt(86_400)).atOffset(ZoneOffset.UTC)));
+        }
+        
+        Bench.report("ofPattern per call + ZonedDateTime.parse", SIZE, Bench.time(() -> {
+            long sum = 0;
+            for(String text : timestamps){
+                sum += ZonedDateTime.parse(text, DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss Z yyyy", Locale.US))
+                        .toInstant().getEpochSecond();
+            }
+            return sum;
+        }));
+        Bench.report("shared formatter + ZonedDateTime.parse", SIZE, Bench.time(() -> {
+            long sum = 0;
+            for(String text : timestamps){
+                sum += ZonedDateTime.parse(text, CreatedAtParser.FORMAT).toInstant().getEpochSecond();
+            }
+            return sum;
+        }));
+        Bench.report("CreatedAtParser.parseEpochMillis", SIZE, Bench.time(() -> {
+            long sum = 0;
+            for(String text : timestamps){
+                sum += CreatedAtParser.parseEpochMillis(text);
+            }
+            return sum;
+        }));
+        Bench.report("CreatedAtParser.parse", SIZE, Bench.time(() -> {
+            long sum = 0;
+            for(String text : timestamps){
+                sum += CreatedAtParser.parse(text).getEpochSecond();
+            }
+            return sum;
+        }));
+    }
+}
@@ -0,0 +1,44 @@
+package twitter;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compares Extract.getMentionedUsers, which now uses MentionScanner, with the
+ * regular-expression implementation it replaced.
+ */
+public class ExtractBench {
+    
+    private static final int[] SIZES = {10_000, 100_000, 1_000_000};
+    
+    public static void main(String[] args) {
+        for(int size : SIZES){
+            final List<Tweet> tweets = TweetGenerator.generate(size, Math.max(size / 10, 1), size);
+            
+            Bench.report("getMentionedUsers (scanner)", size,
+                    Bench.time(() -> Extract.getMentionedUsers(tweets)));
+            Bench.report("getMentionedUsers (regex split)", size,
+                    Bench.time(() -> getMentionedUsersByRegex(tweets)));
+        }
+    }
+    
+    /*
+     * The previous implementation, kept as a reference point.
+     */
+    private static Set<String> getMentionedUsersByRegex(List<Tweet> tweets) {
+        Set<String> setOfMentions = new HashSet<String>();
+        
+        for(Tweet tweet : tweets){
+            String[] strings = tweet.getText().toLowerCase().split("[^a-z0-9_@]");
+            
+            for(String str : strings){
+                if(str.matches("@[a-z0-9_]+")){
+                    setOfMentions.add(str.substring(1));
+                }
+            }
+        }
+        
+        return setOfMentions;
+    }
+}
@@ -0,0 +1,123 @@
+package twitter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares answering a batch of queries with the Filter methods, which scan the whole
+ * corpus on every call, with answering them from the prebuilt indexes, and a combined
+ * author, timespan and word query with TweetIndex.search.
+ */
+public class FilterBench {
+    
+    private static final int SIZE = 100_000;
+    private static final int QUERIES = 100;
+    
+    private static final String[] WORDS = {"obama", "rivest", "hype", "java", "nothing"};
+    
+    public static void main(String[] args) {
+        final List<Tweet> tweets = TweetGenerator.generate(SIZE, SIZE / 10, SIZE);
+        final Random random = new Random(SIZE);
+        
+        final List<List<String>> wordQueries = new ArrayList<List<String>>();
+        for(int i = 0; i < QUERIES; i++){
+            wordQueries.add(Arrays.asList(WORDS[random.nextInt(WORDS.length)], "@user" + random.nextInt(SIZE / 10)));
+        }
+        
+        Bench.report("Filter.containing x" + QUERIES, SIZE, Bench.time(1, 3, () -> {
+            int found = 0;
+            for(List<String> words : wordQueries){
+                found += Filter.containing(tweets, words).size();
+            }
+            return found;
+        }));
+        
+        Bench.report("TweetIndex build", SIZE, Bench.time(1, 3, () -> new TweetIndex(tweets)));
+        
+        final TweetIndex index = new TweetIndex(tweets);
+        Bench.report("TweetIndex.containing x" + QUERIES, SIZE, Bench.time(() -> {
+            int found = 0;
+            for(List<String> words : wordQueries){
+                found += index.containing(words).size();
+            }
+            return found;
+        }));
+        
+        final List<String> users = new ArrayList<String>();
+        for(int i = 0; i < QUERIES; i++){
+            users.add("USER" + random.nextInt(SIZE / 10));
+        }
+        
+        Bench.report("Filter.writtenBy x" + QUERIES, SIZE, Bench.time(1, 3, () -> {
+            int found = 0;
+            for(String user : users){
+                found += Filter.writtenBy(tweets, user).size();
+            }
+            return found;
+        }));
+        
+        Bench.report("AuthorIndex build", SIZE, Bench.time(() -> new AuthorIndex(tweets)));
+        
+        final AuthorIndex authorIndex = new AuthorIndex(tweets);
+        Bench.report("AuthorIndex.writtenBy x" + QUERIES, SIZE, Bench.time(() -> {
+            int found = 0;
+            for(String user : users){
+                found += authorIndex.writtenBy(user).size();
+            }
+            return found;
+        }));
+        
+        //rolling 5-minute windows across the generated hour of tweets
+        final List<Timespan> windows = new ArrayList<Timespan>();
+        final Instant start = Extract.getTimespan(tweets).getStart();
+        for(int i = 0; i < QUERIES; i++){
+            final Instant from = start.plusSeconds(30L * i);
+            windows.add(new Timespan(from, from.plusSeconds(300)));
+        }
+        
+        Bench.report("Filter.inTimespan x" + QUERIES, SIZE, Bench.time(1, 3, () -> {
+            int found = 0;
+            for(Timespan window : windows){
+                found += Filter.inTimespan(tweets, window).size();
+            }
+            return found;
+        }));
+        
+        final TweetTimeline timeline = new TweetTimeline(tweets);
+        Bench.report("TweetTimeline.inTimespan x" + QUERIES, SIZE, Bench.time(() -> {
+            int found = 0;
+            for(Timespan window : windows){
+                found += timeline.inTimespan(window).size();
+            }
+            return found;
+        }));
+        
+        //one author, one window and one word per query
+        final List<TweetQuery> combined = new ArrayList<TweetQuery>();
+        for(int i = 0; i < QUERIES; i++){
+            combined.add(TweetQuery.and(TweetQuery.writtenBy(users.get(i)), TweetQuery.inTimespan(windows.get(i)),
+                    TweetQuery.word(WORDS[i % WORDS.length])));
+        }
+        
+        Bench.report("Filter author, window, word x" + QUERIES, SIZE, Bench.time(1, 3, () -> {
+            int found = 0;
+            for(int i = 0; i < QUERIES; i++){
+                final List<Tweet> byAuthor = Filter.writtenBy(tweets, users.get(i));
+                final List<Tweet> inWindow = Filter.inTimespan(byAuthor, windows.get(i));
+                found += Filter.containing(inWindow, Arrays.asList(WORDS[i % WORDS.length])).size();
+            }
+            return found;
+        }));
+        
+        Bench.report("TweetIndex.search combined x" + QUERIES, SIZE, Bench.time(() -> {
+            int found = 0;
+            for(TweetQuery query : combined){
+                found += index.search(query).size();
+            }
+            return found;
+        }));
+    }
+}
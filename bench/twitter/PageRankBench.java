@@ -0,0 +1,34 @@
+package twitter;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures PageRank on the follows graphs of generated corpora, on a single-thread pool
+ * and on the common pool, next to the in-degree ranking of CompactFollowsGraph. The size
+ * column is the number of edges, so ns/item is the cost per edge of the whole computation
+ * (transpose plus every iteration).
+ */
+public class PageRankBench {
+    
+    private static final int[] SIZES = {100_000, 400_000, 1_600_000};
+    
+    public static void main(String[] args) {
+        final ForkJoinPool single = new ForkJoinPool(1);
+        final ForkJoinPool common = ForkJoinPool.commonPool();
+        System.out.println("common pool parallelism " + common.getParallelism());
+        
+        for(int size : SIZES){
+            final List<Tweet> tweets = TweetGenerator.generate(size, size / 10, 0.4, 100, size);
+            final CompactFollowsGraph graph = CompactFollowsGraph.fromTweets(tweets);
+            final int edges = graph.edgeCount();
+            
+            Bench.report("in-degree influencers", edges, Bench.time(2, 5, () -> graph.influencers()));
+            Bench.report("PageRank scores, 1 thread", edges, Bench.time(2, 5, () -> PageRank.scores(graph, single)));
+            Bench.report("PageRank scores, common pool", edges, Bench.time(2, 5, () -> PageRank.scores(graph, common)));
+            Bench.report("PageRank topInfluencers k=10", edges,
+                    Bench.time(2, 5, () -> PageRank.topInfluencers(graph, 10, common)));
+        }
+        single.shutdown();
+    }
+}
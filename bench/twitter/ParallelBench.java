@@ -0,0 +1,35 @@
+package twitter;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures the ParallelAnalysis operations at several pool sizes, against the sequential
+ * operations they parallelize.
+ */
+public class ParallelBench {
+    
+    private static final int SIZE = 1_000_000;
+    private static final int[] THREADS = {1, 4, 16, 32};
+    
+    public static void main(String[] args) {
+        final List<Tweet> tweets = TweetGenerator.generate(SIZE, SIZE / 10, SIZE);
+        
+        Bench.report("getTimespan (sequential)", SIZE, Bench.time(1, 5, () -> Extract.getTimespan(tweets)));
+        Bench.report("getMentionedUsers (sequential)", SIZE, Bench.time(1, 5, () -> Extract.getMentionedUsers(tweets)));
+        Bench.report("guessFollowsGraph (sequential)", SIZE, Bench.time(1, 5, () -> SocialNetwork.guessFollowsGraph(tweets)));
+        
+        for(int threads : THREADS){
+            final ForkJoinPool pool = new ForkJoinPool(threads);
+            
+            Bench.report("getTimespan (" + threads + " threads)", SIZE,
+                    Bench.time(1, 5, () -> ParallelAnalysis.getTimespan(tweets, pool)));
+            Bench.report("getMentionedUsers (" + threads + " threads)", SIZE,
+                    Bench.time(1, 5, () -> ParallelAnalysis.getMentionedUsers(tweets, pool)));
+            Bench.report("guessFollowsGraph (" + threads + " threads)", SIZE,
+                    Bench.time(1, 5, () -> ParallelAnalysis.guessFollowsGraph(tweets, pool)));
+            
+            pool.shutdown();
+        }
+    }
+}
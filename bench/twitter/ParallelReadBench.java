@@ -0,0 +1,53 @@
+package twitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures ParallelTweetReader at several pool sizes on a local JSON array file, against
+ * a single TweetStreamReader over the same file.
+ */
+public class ParallelReadBench {
+    
+    private static final int SIZE = 500_000;
+    private static final int[] THREADS = {1, 2, 4, 8};
+    
+    public static void main(String[] args) throws IOException {
+        final Path file = Files.createTempFile("tweets", ".json");
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            TweetGenerator.writeJson(TweetGenerator.generate(SIZE, SIZE / 10, SIZE), out);
+        }
+        
+        Bench.report("TweetStreamReader (sequential)", SIZE, Bench.time(1, 3, () -> {
+            final List<Tweet> tweets = new ArrayList<Tweet>();
+            try (TweetStreamReader reader = new TweetStreamReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+                reader.forEachRemaining(tweets::add);
+            } catch (IOException ioe) {
+                throw new UncheckedIOException(ioe);
+            }
+            return tweets;
+        }));
+        
+        for(int threads : THREADS){
+            final ForkJoinPool pool = new ForkJoinPool(threads);
+            
+            Bench.report("ParallelTweetReader (" + threads + " threads)", SIZE, Bench.time(1, 3, () -> {
+                try {
+                    return ParallelTweetReader.read(file, pool);
+                } catch (IOException ioe) {
+                    throw new UncheckedIOException(ioe);
+                }
+            }));
+            
+            pool.shutdown();
+        }
+        Files.delete(file);
+    }
+}
@@ -0,0 +1,110 @@
+package twitter;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Measures how SocialNetwork.guessFollowsGraph scales with the number of tweets,
+ * against the previous per-author implementation that rescanned the tweet list
+ * with Filter.writtenBy for every new author, and compares the influencer rankings
+ * with the previous TreeMap-based sort. The int-keyed CompactFollowsGraph is measured
+ * alongside both, as are the WeightedFollowsGraph and the fixed-memory
+ * ApproximateInfluencers sketch.
+ * 
+ * The number of authors grows with the corpus (one author per ten tweets), which is the
+ * case that made the per-author rescan quadratic. The single-pass builder should show a
+ * roughly constant ns/item column.
+ */
+public class SocialNetworkBench {
+    
+    private static final int[] SIZES = {10_000, 20_000, 40_000, 80_000, 160_000, 320_000};
+    
+    /** the quadratic reference gets too slow to be worth measuring beyond this size */
+    private static final int MAX_RESCAN_SIZE = 40_000;
+    
+    public static void main(String[] args) {
+        for(int size : SIZES){
+            final List<Tweet> tweets = TweetGenerator.generate(size, size / 10, size);
+            
+            Bench.report("guessFollowsGraph (single pass)", size,
+                    Bench.time(() -> SocialNetwork.guessFollowsGraph(tweets)));
+            Bench.report("CompactFollowsGraph.fromTweets", size,
+                    Bench.time(() -> CompactFollowsGraph.fromTweets(tweets)));
+            Bench.report("WeightedFollowsGraph.addAll", size, Bench.time(() -> {
+                final WeightedFollowsGraph weighted = new WeightedFollowsGraph();
+                weighted.addAll(tweets);
+                return weighted;
+            }));
+            
+            if(size <= MAX_RESCAN_SIZE){
+                Bench.report("guessFollowsGraph (rescan per author)", size,
+                        Bench.time(1, 3, () -> guessFollowsGraphByRescan(tweets)));
+            }
+            
+            final Map<String, Set<String>> followsGraph = SocialNetwork.guessFollowsGraph(tweets);
+            Bench.report("influencers (counts, then sort)", size,
+                    Bench.time(() -> SocialNetwork.influencers(followsGraph)));
+            Bench.report("topInfluencers k=10 (bounded heap)", size,
+                    Bench.time(() -> SocialNetwork.topInfluencers(followsGraph, 10)));
+            final CompactFollowsGraph compact = CompactFollowsGraph.fromTweets(tweets);
+            Bench.report("influencers (CSR counting sort)", size,
+                    Bench.time(() -> compact.influencers()));
+            Bench.report("influencers (TreeMap lookups in sort)", size,
+                    Bench.time(() -> influencersByTreeMapSort(followsGraph)));
+            Bench.report("ApproximateInfluencers top 10 (1000 ctrs)", size, Bench.time(() -> {
+                final ApproximateInfluencers sketch = new ApproximateInfluencers(1000, size);
+                sketch.addAll(tweets);
+                return sketch.topInfluencers(10);
+            }));
+            Bench.report("guessFollowsGraph + topInfluencers k=10", size, Bench.time(() ->
+                    SocialNetwork.topInfluencers(SocialNetwork.guessFollowsGraph(tweets), 10)));
+        }
+    }
+    
+    /*
+     * The previous influencers implementation, kept as a reference point.
+     */
+    private static List<String> influencersByTreeMapSort(Map<String, Set<String>> followsGraph) {
+        Map<String,Integer> followerCount = new TreeMap<String,Integer>(String.CASE_INSENSITIVE_ORDER);
+        
+        for(String usr : followsGraph.keySet()){
+            followerCount.putIfAbsent(usr, 0);
+            for(String followedByUsr : followsGraph.get(usr)){
+                followerCount.put(followedByUsr, followerCount.getOrDefault(followedByUsr, 0) + 1);
+            }
+        }
+        
+        String[] users = new String[followerCount.size()];
+        followerCount.keySet().toArray(users);
+        Arrays.sort(users, (o1, o2) -> -Integer.compare(followerCount.get(o1), followerCount.get(o2)));
+        
+        return Arrays.asList(users);
+    }
+    
+    /*
+     * The previous implementation, kept as a reference point.
+     */
+    private static Map<String, Set<String>> guessFollowsGraphByRescan(List<Tweet> tweets) {
+        final Map<String,Set<String>> followsGraph = new TreeMap<String,Set<String>>(String.CASE_INSENSITIVE_ORDER);
+        
+        for(Tweet tweet : tweets){
+            final String author = tweet.getAuthor();
+            if(!followsGraph.containsKey(author)){
+                final Set<String> mentionedUsers = 
+                        Extract.getMentionedUsers(Filter.writtenBy(tweets, author));
+                
+                final Set<String> caseInsensitiveMentions = new TreeSet<String>(String.CASE_INSENSITIVE_ORDER);
+                caseInsensitiveMentions.addAll(mentionedUsers);
+                caseInsensitiveMentions.remove(author);
+                
+                followsGraph.put(author, caseInsensitiveMentions);
+            }
+        }
+        
+        return followsGraph;
+    }
+}
@@ -0,0 +1,49 @@
+package twitter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the heap held by a list of Tweet objects with that held by a TweetTable of the
+ * same tweets, and the cost of running Extract.getMentionedUsers on each.
+ */
+public class TableBench {
+    
+    private static final int SIZE = 1_000_000;
+    
+    public static void main(String[] args) {
+        final List<Tweet> generated = TweetGenerator.generate(SIZE, SIZE / 10, SIZE);
+        
+        //copy the tweets so that nothing else shares their strings
+        final long beforeList = usedHeap();
+        final List<Tweet> tweets = new ArrayList<Tweet>(SIZE);
+        for(Tweet tweet : generated){
+            final Instant timestamp = tweet.getTimestamp();
+            tweets.add(new Tweet(tweet.getId(), new String(tweet.getAuthor().toCharArray()),
+                    new String(tweet.getText().toCharArray()),
+                    Instant.ofEpochSecond(timestamp.getEpochSecond(), timestamp.getNano())));
+        }
+        final long listBytes = usedHeap() - beforeList;
+        
+        final long beforeTable = usedHeap();
+        final TweetTable table = new TweetTable(tweets);
+        final long tableBytes = usedHeap() - beforeTable;
+        
+        System.out.printf("%-40s %12d bytes/tweet%n", "List<Tweet>", listBytes / SIZE);
+        System.out.printf("%-40s %12d bytes/tweet%n", "TweetTable", tableBytes / SIZE);
+        
+        Bench.report("getMentionedUsers (List<Tweet>)", SIZE, Bench.time(2, 5, () -> Extract.getMentionedUsers(tweets)));
+        Bench.report("getMentionedUsers (TweetTable)", SIZE, Bench.time(2, 5, () -> Extract.getMentionedUsers(table.asList())));
+        Bench.report("writtenBy (Filter on List<Tweet>)", SIZE, Bench.time(2, 5, () -> Filter.writtenBy(tweets, "user7")));
+        Bench.report("writtenBy (TweetTable)", SIZE, Bench.time(2, 5, () -> table.writtenBy("user7")));
+    }
+    
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for(int i = 0; i < 3; i++){
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,55 @@
+package twitter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Compares answering "top mentions in the last 15 minutes" once per minute of a one-hour
+ * stream by recounting the window's tweets from a TweetTimeline, and by keeping a
+ * TrendingWindow up to date as tweets arrive.
+ */
+public class TrendingBench {
+    
+    private static final int SIZE = 200_000;
+    private static final Duration WINDOW = Duration.ofMinutes(15);
+    private static final Duration QUERY_INTERVAL = Duration.ofMinutes(1);
+    private static final int K = 10;
+    
+    public static void main(String[] args) {
+        final List<Tweet> stream = TweetGenerator.generate(SIZE, SIZE / 10, 6005);
+        stream.sort(Comparator.comparing(Tweet::getTimestamp));
+        
+        Bench.report("recount TweetTimeline window", SIZE, Bench.time(2, 5, () -> {
+            final TweetTimeline timeline = new TweetTimeline();
+            Instant nextQuery = stream.get(0).getTimestamp().plus(QUERY_INTERVAL);
+            List<String> top = null;
+            for(Tweet tweet : stream){
+                timeline.add(tweet);
+                if(!tweet.getTimestamp().isBefore(nextQuery)){
+                    final UsernameCounter counter = new UsernameCounter();
+                    for(Tweet recent : timeline.inTimespan(new Timespan(nextQuery.minus(WINDOW), nextQuery))){
+                        MentionScanner.forEachMention(recent.getText(), username -> counter.add(username, 1));
+                    }
+                    top = counter.top(K);
+                    nextQuery = nextQuery.plus(QUERY_INTERVAL);
+                }
+            }
+            return top;
+        }));
+        Bench.report("TrendingWindow, 1 s buckets", SIZE, Bench.time(2, 5, () -> {
+            final TrendingWindow window = new TrendingWindow(WINDOW, Duration.ofSeconds(1));
+            Instant nextQuery = stream.get(0).getTimestamp().plus(QUERY_INTERVAL);
+            List<String> top = null;
+            for(Tweet tweet : stream){
+                window.add(tweet);
+                if(!tweet.getTimestamp().isBefore(nextQuery)){
+                    top = window.topMentions(K);
+                    nextQuery = nextQuery.plus(QUERY_INTERVAL);
+                }
+            }
+            return top;
+        }));
+    }
+}
@@ -0,0 +1,122 @@
+package twitter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import javax.json.Json;
+import javax.json.stream.JsonGenerator;
+
+/**
+ * Generates synthetic tweets for the benchmarks.
+ * 
+ * The shape of the corpus is controlled by its size, the number of distinct authors, the
+ * fraction of words that are mentions, and the length of the text. Output is deterministic
+ * for a given seed so that runs can be compared.
+ */
+class TweetGenerator {
+    
+    private static final String[] WORDS = {
+        "the", "talk", "rivest", "hype", "today", "news", "obama", "game", "lol", "love",
+        "java", "code", "mit", "great", "new", "check", "this", "out", "now", "wow"
+    };
+    
+    private static final Instant START = Instant.parse("2016-02-17T10:00:00Z");
+    
+    /** maximum length of the text of a tweet */
+    static final int MAX_TEXT_LENGTH = 140;
+    
+    private static final double DEFAULT_MENTION_DENSITY = 0.25;
+    private static final int DEFAULT_TEXT_LENGTH = 60;
+    
+    private static final DateTimeFormatter CREATED_AT_FORMAT =
+            DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss Z yyyy", Locale.US).withZone(ZoneOffset.UTC);
+    
+    /**
+     * Generate a list of tweets with the default mention density and text length.
+     * 
+     * @param count number of tweets, >= 0
+     * @param authors number of distinct authors, > 0
+     * @param seed seed of the pseudo-random source
+     * @return as generate(count, authors, 0.25, 60, seed)
+     */
+    static List<Tweet> generate(int count, int authors, long seed) {
+        return generate(count, authors, DEFAULT_MENTION_DENSITY, DEFAULT_TEXT_LENGTH, seed);
+    }
+    
+    /**
+     * Generate a list of tweets.
+     * 
+     * @param count number of tweets, >= 0
+     * @param authors number of distinct authors, > 0; mentioned users are drawn from the same pool
+     * @param mentionDensity fraction of the words of a tweet that are @-mentions, in [0, 1]
+     * @param textLength average length of the text of a tweet, in (0, MAX_TEXT_LENGTH]
+     * @param seed seed of the pseudo-random source
+     * @return count tweets with distinct ids and increasing ids, written by up to authors
+     *         distinct users (in varying case), sent within one hour.
+     */
+    static List<Tweet> generate(int count, int authors, double mentionDensity, int textLength, long seed) {
+        final Random random = new Random(seed);
+        final List<Tweet> tweets = new ArrayList<Tweet>(count);
+        
+        for(int i = 0; i < count; i++){
+            final int author = random.nextInt(authors);
+            final int length = Math.min(MAX_TEXT_LENGTH, textLength / 2 + random.nextInt(textLength + 1));
+            final StringBuilder text = new StringBuilder();
+            
+            while(text.length() < length){
+                final String word = random.nextDouble() < mentionDensity
+                        ? "@" + username(random.nextInt(authors), random)
+                        : WORDS[random.nextInt(WORDS.length)];
+                if(text.length() + 1 + word.length() > MAX_TEXT_LENGTH){
+                    break;
+                }
+                if(text.length() > 0){
+                    text.append(' ');
+                }
+                text.append(word);
+            }
+            
+            tweets.add(new Tweet(i, username(author, random), text.toString(),
+                    START.plusSeconds(random.nextInt(3600))));
+        }
+        
+        return tweets;
+    }
+    
+    /**
+     * Write tweets in the JSON format TweetReader reads.
+     * 
+     * @param tweets tweets to write
+     * @param out destination; not closed
+     * @throws IOException if out cannot be written
+     */
+    static void writeJson(List<Tweet> tweets, Writer out) throws IOException {
+        final JsonGenerator json = Json.createGenerator(out);
+        json.writeStartArray();
+        for(Tweet tweet : tweets){
+            json.writeStartObject()
+                .write("id", tweet.getId())
+                .write("user.screen_name", tweet.getAuthor())
+                .write("text", tweet.getText())
+                .write("created_at", CREATED_AT_FORMAT.format(tweet.getTimestamp()))
+                .writeEnd();
+        }
+        json.writeEnd();
+        json.flush();
+    }
+    
+    /*
+     * Username of user number n, upper-cased at random to exercise case insensitivity.
+     */
+    private static String username(int n, Random random) {
+        final String name = "user" + n;
+        return random.nextInt(8) == 0 ? name.toUpperCase() : name;
+    }
+}
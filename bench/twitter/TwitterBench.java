@@ -0,0 +1,80 @@
+package twitter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Baseline benchmark of every public operation of the twitter package on one synthetic
+ * corpus.
+ * 
+ * Usage: TwitterBench [tweets [authors [mentionDensity [textLength]]]]
+ * with defaults 100000 tweets, tweets/10 authors, 0.25 mention density and 60 characters
+ * of text; see TweetGenerator for their meaning.
+ */
+public class TwitterBench {
+    
+    public static void main(String[] args) throws IOException {
+        final int size = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        final int authors = args.length > 1 ? Integer.parseInt(args[1]) : Math.max(size / 10, 1);
+        final double mentionDensity = args.length > 2 ? Double.parseDouble(args[2]) : 0.25;
+        final int textLength = args.length > 3 ? Integer.parseInt(args[3]) : 60;
+        
+        System.out.printf("%d tweets, %d authors, mention density %.2f, text length %d%n",
+                size, authors, mentionDensity, textLength);
+        final List<Tweet> tweets = TweetGenerator.generate(size, authors, mentionDensity, textLength, size);
+        
+        Bench.report("Extract.getTimespan", size, Bench.time(() -> Extract.getTimespan(tweets)));
+        Bench.report("Extract.getMentionedUsers", size, Bench.time(() -> Extract.getMentionedUsers(tweets)));
+        
+        Bench.report("Filter.writtenBy", size, Bench.time(() -> Filter.writtenBy(tweets, "USER1")));
+        final Instant start = Extract.getTimespan(tweets).getStart();
+        final Timespan window = new Timespan(start, start.plusSeconds(300));
+        Bench.report("Filter.inTimespan (5 minutes)", size, Bench.time(() -> Filter.inTimespan(tweets, window)));
+        final List<String> words = Arrays.asList("rivest", "@user1");
+        Bench.report("Filter.containing (2 words)", size, Bench.time(() -> Filter.containing(tweets, words)));
+        
+        Bench.report("SocialNetwork.guessFollowsGraph", size, Bench.time(() -> SocialNetwork.guessFollowsGraph(tweets)));
+        final Map<String, Set<String>> followsGraph = SocialNetwork.guessFollowsGraph(tweets);
+        Bench.report("SocialNetwork.influencers", size, Bench.time(() -> SocialNetwork.influencers(followsGraph)));
+        Bench.report("SocialNetwork.topInfluencers (10)", size,
+                Bench.time(() -> SocialNetwork.topInfluencers(followsGraph, 10)));
+        
+        Bench.report("Main report (separate passes)", size, Bench.time(() -> {
+            final Timespan span = Extract.getTimespan(tweets);
+            final Set<String> mentioned = Extract.getMentionedUsers(tweets);
+            final Map<String, Set<String>> graph = SocialNetwork.guessFollowsGraph(tweets);
+            return Arrays.asList(span, mentioned, SocialNetwork.topInfluencers(graph, 10));
+        }));
+        Bench.report("Main report (TweetSummary)", size, Bench.time(() -> new TweetSummary(tweets).getTopInfluencers(10)));
+        
+        final File json = File.createTempFile("tweets", ".json");
+        json.deleteOnExit();
+        try (Writer out = Files.newBufferedWriter(json.toPath(), StandardCharsets.UTF_8)) {
+            TweetGenerator.writeJson(tweets, out);
+        }
+        final URL url = json.toURI().toURL();
+        Bench.report("TweetReader.readTweetsFromWeb (file)", size, Bench.time(1, 5, () -> {
+            try {
+                return TweetReader.readTweetsFromWeb(url);
+            } catch (IOException ioe) {
+                throw new RuntimeException(ioe);
+            }
+        }));
+        Bench.report("TweetStreamReader (file)", size, Bench.time(1, 5, () -> {
+            try (TweetStreamReader reader = TweetStreamReader.fromWeb(url)) {
+                return reader.stream().count();
+            } catch (IOException ioe) {
+                throw new RuntimeException(ioe);
+            }
+        }));
+    }
+}
@@ -0,0 +1,336 @@
+package twitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Mutable approximate influencer ranking in fixed memory, for tweet streams whose follows
+ * graph and follower histogram are too large to keep.
+ *
+ * A user's follower count is the number of distinct authors that mention them, as in
+ * SocialNetwork.guessFollowsGraph and influencers. Each mention found by MentionScanner
+ * is an edge (author, mentioned user); edges already seen are dropped by a pair of Bloom
+ * filters, and each new edge adds one to the mentioned user in a Space-Saving sketch of a
+ * fixed number of counters. When every counter is taken, a user not being counted replaces
+ * the user with the smallest count and inherits that count as its error.
+ *
+ * The edge filters never saturate on an unbounded stream: each one holds at most the
+ * expected number of edges, and when the newer one is full, the older one is cleared and
+ * becomes the newer. An edge is remembered until two such rotations pass without it being
+ * seen, so memory stays fixed and an edge repeated after long enough is counted again
+ * rather than every new edge being dropped.
+ *
+ * Error bounds, for E distinct edges counted and m counters:
+ *  - every estimated count is at least the user's true count among the counted edges, and
+ *    at most E / m more;
+ *  - every user whose true count exceeds E / m is being counted;
+ *  - the filters wrongly drop a new edge with probability at most about 2%, so true counts
+ *    may be slightly undercounted;
+ *  - an edge may be counted again only if at least expectedEdges other distinct edges
+ *    have been seen since it was last seen (so never while getRotationCount() < 2), so
+ *    counts may include followers who mention the same user far apart more than once.
+ *
+ * Usernames are compared case-insensitively and reported in lower case.
+ */
+public class ApproximateInfluencers {
+
+    private static final double EDGE_FALSE_POSITIVE_RATE = 0.01;
+
+    /** largest number of counters a sketch may have */
+    public static final int MAX_COUNTERS = 1 << 24;
+
+    private static final int EMPTY = 0;
+
+    private final long edgesPerFilter;
+    private BloomFilter recentEdges;
+    private BloomFilter olderEdges;
+    private long recentEdgeCount;
+    private long rotations;
+    private final String[] names;
+    private final long[] counts;
+    private final long[] errors;
+    private final int[] slots;
+    private final int[] table;
+    private int size;
+    private long edgeCount;
+    /* Rep invariant:
+     *    names, counts, errors and slots have the same length m >= 1, and 0 <= size <= m
+     *    [0, size) is a min-heap on counts; names[0..size) are distinct lower-case usernames
+     *    0 <= errors[i] < counts[i] for 0 <= i < size
+     *    table.length is a power of two >= 2m; table[slots[i]] == i + 1 for 0 <= i < size,
+     *    found by linear probing from the hash of names[i]; every other slot is EMPTY
+     *    the sum of counts[0..size) - errors[0..size) is at most edgeCount
+     *    0 <= recentEdgeCount < edgesPerFilter is the number of keys added to recentEdges
+     *    since it was last cleared
+     * Abstraction function:
+     *    represents the estimated follower count counts[i] of names[i], which overestimates
+     *    the true count by at most errors[i], for 0 <= i < size; every other user has an
+     *    estimated count of 0 and a true count of at most the smallest counts[i] when
+     *    size == m, or of 0 otherwise; an edge is remembered as seen if it is in
+     *    recentEdges or olderEdges
+     */
+
+    /**
+     * Make an empty sketch.
+     *
+     * @param counters number of users counted at once, in [1, MAX_COUNTERS]; estimated
+     *                 counts are within E / counters of the truth, for E distinct edges
+     *                 counted
+     * @param expectedEdges number of distinct (author, mentioned user) pairs each of the two
+     *                      edge filters holds, >= 1; they take about 9.6 bits per edge each
+     */
+    public ApproximateInfluencers(int counters, long expectedEdges) {
+        if(counters < 1 || counters > MAX_COUNTERS){
+            throw new IllegalArgumentException("requires 1 <= counters <= MAX_COUNTERS");
+        }
+        this.edgesPerFilter = expectedEdges;
+        this.recentEdges = new BloomFilter(expectedEdges, EDGE_FALSE_POSITIVE_RATE);
+        this.olderEdges = new BloomFilter(expectedEdges, EDGE_FALSE_POSITIVE_RATE);
+        this.names = new String[counters];
+        this.counts = new long[counters];
+        this.errors = new long[counters];
+        this.slots = new int[counters];
+        this.table = new int[Integer.highestOneBit(counters) * 4];
+    }
+
+    /**
+     * Add the evidence of one tweet: each user it mentions, other than its author, gains
+     * the author as a follower.
+     *
+     * @param tweet tweet
+     */
+    public void add(Tweet tweet) {
+        final String author = TwitterUtility.normalizeUsername(tweet.getAuthor());
+        final long authorHash = BloomFilter.hash(author);
+        MentionScanner.forEachMention(tweet.getText(), mentionedUser -> {
+            if(!mentionedUser.equals(author) && isNewEdge(authorHash * 31 + BloomFilter.hash(mentionedUser))){
+                edgeCount++;
+                increment(mentionedUser);
+            }
+        });
+    }
+
+    /**
+     * Add the evidence of several tweets, as if by add() on each in order.
+     *
+     * @param tweets tweets, not modified by this method
+     */
+    public void addAll(List<Tweet> tweets) {
+        for(Tweet tweet : tweets){
+            add(tweet);
+        }
+    }
+
+    /**
+     * @param k number of usernames wanted, >= 0
+     * @return the at most k counted usernames with the greatest estimated follower counts,
+     *         in descending order of estimate; equal estimates are in alphabetical order
+     */
+    public List<String> topInfluencers(int k) {
+        if(k < 0){
+            throw new IllegalArgumentException("requires k >= 0");
+        }
+        final Integer[] order = new Integer[size];
+        for(int i = 0; i < size; i++){
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingLong(i -> -counts[i]).thenComparing(i -> names[i]));
+
+        final List<String> result = new ArrayList<String>(Math.min(k, size));
+        for(int i = 0; i < Math.min(k, size); i++){
+            result.add(names[order[i]]);
+        }
+        return result;
+    }
+
+    /**
+     * @param username a valid Twitter username
+     * @return estimated number of distinct authors who mention username; 0 if it is not
+     *         being counted
+     */
+    public long estimateFollowerCount(String username) {
+        final int slot = slotOf(TwitterUtility.normalizeUsername(username));
+        return table[slot] == EMPTY ? 0 : counts[table[slot] - 1];
+    }
+
+    /**
+     * @param username a valid Twitter username
+     * @return a number of distinct authors who are certain to mention username among the
+     *         counted edges: its estimate less the count it inherited; 0 if it is not
+     *         being counted
+     */
+    public long guaranteedFollowerCount(String username) {
+        final int slot = slotOf(TwitterUtility.normalizeUsername(username));
+        if(table[slot] == EMPTY){
+            return 0;
+        }
+        final int i = table[slot] - 1;
+        return counts[i] - errors[i];
+    }
+
+    /**
+     * @return the largest amount by which any estimate can exceed the true count: the
+     *         smallest estimate if every counter is taken, else 0. Never more than
+     *         getEdgeCount() / counters.
+     */
+    public long getMaxError() {
+        return size == names.length ? counts[0] : 0;
+    }
+
+    /**
+     * @return number of distinct (author, mentioned user) edges counted so far
+     */
+    public long getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * @return number of times the older edge filter has been cleared to make room; while
+     *         0, no edge has been forgotten
+     */
+    public long getRotationCount() {
+        return rotations;
+    }
+
+    /*
+     * Remember an edge key in the recent filter, rotating the filters when it is full.
+     *
+     * @return true if the key is in neither filter, i.e. the edge is new or forgotten
+     */
+    private boolean isNewEdge(long key) {
+        if(!recentEdges.add(key)){
+            return false;
+        }
+        final boolean seenBefore = olderEdges.mightContain(key);
+        if(++recentEdgeCount == edgesPerFilter){
+            final BloomFilter cleared = olderEdges;
+            cleared.clear();
+            olderEdges = recentEdges;
+            recentEdges = cleared;
+            recentEdgeCount = 0;
+            rotations++;
+        }
+        return !seenBefore;
+    }
+
+    /*
+     * Add one to the count of username, replacing the least counted user if username is
+     * not being counted and every counter is taken.
+     */
+    private void increment(String username) {
+        final int slot = slotOf(username);
+        if(table[slot] != EMPTY){
+            final int i = table[slot] - 1;
+            counts[i]++;
+            siftDown(i);
+            return;
+        }
+
+        if(size < names.length){
+            place(size, username, 1, 0, slot);
+            siftUp(size++);
+            return;
+        }
+
+        final long minimum = counts[0];
+        remove(slots[0]);
+        place(0, username, minimum + 1, minimum, slotOf(username));
+        siftDown(0);
+    }
+
+    /*
+     * Put an entry at heap position i, indexed from the empty table slot.
+     */
+    private void place(int i, String username, long count, long error, int slot) {
+        names[i] = username;
+        counts[i] = count;
+        errors[i] = error;
+        slots[i] = slot;
+        table[slot] = i + 1;
+    }
+
+    /*
+     * @return the slot of table holding username, or the empty slot where it belongs
+     */
+    private int slotOf(String username) {
+        final int mask = table.length - 1;
+        int slot = UsernameDictionary.mix(username.hashCode()) & mask;
+        while(table[slot] != EMPTY && !names[table[slot] - 1].equals(username)){
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /*
+     * Empty a slot of table, shifting back later entries of its probe run so that every
+     * entry stays reachable by linear probing.
+     */
+    private void remove(int slot) {
+        final int mask = table.length - 1;
+        int hole = slot;
+        int next = (slot + 1) & mask;
+        while(table[next] != EMPTY){
+            final int entry = table[next] - 1;
+            final int home = UsernameDictionary.mix(names[entry].hashCode()) & mask;
+            //the entry may move into the hole unless its home lies cyclically in (hole, next]
+            if(((next - home) & mask) >= ((next - hole) & mask)){
+                table[hole] = table[next];
+                slots[entry] = hole;
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table[hole] = EMPTY;
+    }
+
+    /*
+     * Min-heap on counts: restore order after counts[i] decreased or entry i was appended.
+     */
+    private void siftUp(int i) {
+        while(i > 0){
+            final int parent = (i - 1) / 2;
+            if(counts[parent] <= counts[i]){
+                return;
+            }
+            swap(parent, i);
+            i = parent;
+        }
+    }
+
+    /*
+     * Min-heap on counts: restore order after counts[i] increased.
+     */
+    private void siftDown(int i) {
+        while(true){
+            final int left = 2 * i + 1;
+            if(left >= size){
+                return;
+            }
+            final int smallest = left + 1 < size && counts[left + 1] < counts[left] ? left + 1 : left;
+            if(counts[i] <= counts[smallest]){
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        final String name = names[i];
+        final long count = counts[i];
+        final long error = errors[i];
+        final int slot = slots[i];
+        names[i] = names[j];
+        counts[i] = counts[j];
+        errors[i] = errors[j];
+        slots[i] = slots[j];
+        names[j] = name;
+        counts[j] = count;
+        errors[j] = error;
+        slots[j] = slot;
+        table[slots[i]] = i + 1;
+        table[slots[j]] = j + 1;
+    }
+}
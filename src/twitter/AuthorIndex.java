@@ -0,0 +1,107 @@
+package twitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable index of a list of tweets by author, for answering many writtenBy queries
+ * against the same corpus.
+ *
+ * Every author's username is normalized once, when the index is built, and each author's
+ * tweets are stored as one contiguous group of a single array. A lookup normalizes the
+ * queried username once and returns a view of its group, so it costs O(length of the
+ * username) regardless of the size of the corpus.
+ */
+public class AuthorIndex {
+
+    private final List<Tweet> grouped;
+    private final Map<String, Integer> authorIds;
+    private final List<String> authors;
+    private final int[] offsets;
+    /* Rep invariant:
+     *    offsets.length == authors.size() + 1, offsets[0] == 0, offsets is non-decreasing,
+     *    offsets[authors.size()] == grouped.size()
+     *    authorIds maps normalizeUsername(authors.get(i)) to i, and has no other keys
+     *    grouped.subList(offsets[i], offsets[i+1]) holds the tweets written by authors.get(i)
+     * Abstraction function:
+     *    represents the indexed tweets, grouped by case-insensitive author; authors.get(i)
+     *    is the spelling of the i-th distinct author as it first appeared in the input
+     */
+
+    /**
+     * Build an index.
+     *
+     * @param tweets a list of tweets with distinct ids, not modified by this method
+     */
+    public AuthorIndex(List<Tweet> tweets) {
+        final Map<String, Integer> ids = new HashMap<String, Integer>();
+        final List<String> names = new ArrayList<String>();
+        final int[] authorOf = new int[tweets.size()];
+        int[] counts = new int[16];
+
+        //first pass: give every distinct author an id and count its tweets
+        int i = 0;
+        for(Tweet tweet : tweets){
+            final String author = tweet.getAuthor();
+            final String key = TwitterUtility.normalizeUsername(author);
+            Integer id = ids.get(key);
+            if(id == null){
+                id = names.size();
+                ids.put(key, id);
+                names.add(author);
+                if(id == counts.length){
+                    counts = Arrays.copyOf(counts, id * 2);
+                }
+            }
+            authorOf[i++] = id;
+            counts[id]++;
+        }
+
+        //second pass: lay the groups out one after another, keeping input order in each
+        final int[] starts = new int[names.size() + 1];
+        for(int a = 0; a < names.size(); a++){
+            starts[a + 1] = starts[a] + counts[a];
+        }
+        final int[] next = Arrays.copyOf(starts, names.size());
+        final Tweet[] slots = new Tweet[tweets.size()];
+        i = 0;
+        for(Tweet tweet : tweets){
+            slots[next[authorOf[i++]]++] = tweet;
+        }
+
+        this.grouped = Collections.unmodifiableList(Arrays.asList(slots));
+        this.authorIds = ids;
+        this.authors = Collections.unmodifiableList(names);
+        this.offsets = starts;
+    }
+
+    /**
+     * @return the distinct authors of the indexed tweets, each spelled as in its first
+     *         tweet, in order of first appearance; unmodifiable
+     */
+    public List<String> getAuthors() {
+        return authors;
+    }
+
+    /**
+     * Find tweets written by a particular user.
+     *
+     * @param username
+     *            Twitter username, required to be a valid Twitter username as
+     *            defined by Tweet.getAuthor()'s spec.
+     * @return unmodifiable list of all and only the indexed tweets whose author is
+     *         username (compared without regard to case), in the order they were indexed.
+     *         These are the tweets Filter.writtenBy finds on the indexed list.
+     */
+    public List<Tweet> writtenBy(String username) {
+        final Integer id = authorIds.get(TwitterUtility.normalizeUsername(username));
+        if(id == null){
+            return Collections.emptyList();
+        }
+        return grouped.subList(offsets[id], offsets[id + 1]);
+    }
+}
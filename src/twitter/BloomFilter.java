@@ -0,0 +1,112 @@
+package twitter;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size Bloom filter over 64-bit keys: a set that answers membership with no false
+ * negatives and a bounded rate of false positives, in far less memory than the keys.
+ *
+ * The bit positions of a key are derived from two halves of a mixed 64-bit hash by double
+ * hashing, so adding or testing a key costs one hash and a few bit operations.
+ */
+class BloomFilter {
+
+    private final long[] words;
+    private final long bitCount;
+    private final int hashCount;
+    /* Rep invariant:
+     *    bitCount == 64 * words.length, and hashCount >= 1
+     * Abstraction function:
+     *    represents a superset of the keys added so far, holding every key whose
+     *    hashCount bit positions are all set in words
+     */
+
+    /**
+     * Make an empty filter sized for a number of keys and a false-positive rate.
+     *
+     * @param expectedKeys number of distinct keys expected to be added, > 0
+     * @param falsePositiveRate wanted probability, once expectedKeys keys have been
+     *                          added, that a key never added is reported present; in (0, 1)
+     */
+    BloomFilter(long expectedKeys, double falsePositiveRate) {
+        if(expectedKeys <= 0 || !(falsePositiveRate > 0 && falsePositiveRate < 1)){
+            throw new IllegalArgumentException("requires expectedKeys > 0 and 0 < falsePositiveRate < 1");
+        }
+        final double ln2 = Math.log(2);
+        final double bits = Math.ceil(-expectedKeys * Math.log(falsePositiveRate) / (ln2 * ln2));
+        if(bits > 64.0 * Integer.MAX_VALUE){
+            throw new IllegalArgumentException("filter too large");
+        }
+        this.words = new long[(int) Math.max(1, (bits + 63) / 64)];
+        this.bitCount = 64L * words.length;
+        this.hashCount = (int) Math.max(1, Math.round(bitCount / (double) expectedKeys * ln2));
+    }
+
+    /**
+     * Add a key.
+     *
+     * @param key key
+     * @return true if the key was certainly not in the filter before, false if it may have been
+     */
+    boolean add(long key) {
+        final long hash = mix(key);
+        final long step = mix(hash) | 1;
+        boolean added = false;
+        for(int i = 0; i < hashCount; i++){
+            final long bit = Math.floorMod(hash + i * step, bitCount);
+            final int word = (int) (bit >>> 6);
+            final long mask = 1L << bit;
+            if((words[word] & mask) == 0){
+                words[word] |= mask;
+                added = true;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * @param key key
+     * @return false if the key was certainly never added, true if it may have been
+     */
+    boolean mightContain(long key) {
+        final long hash = mix(key);
+        final long step = mix(hash) | 1;
+        for(int i = 0; i < hashCount; i++){
+            final long bit = Math.floorMod(hash + i * step, bitCount);
+            if((words[(int) (bit >>> 6)] & 1L << bit) == 0){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Remove every key.
+     */
+    void clear() {
+        Arrays.fill(words, 0L);
+    }
+
+    /**
+     * @param key 64-bit value
+     * @return a 64-bit hash of key whose bits all depend on every bit of key
+     */
+    static long mix(long key) {
+        //the finalizer of SplitMix64
+        long h = (key ^ (key >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+    /**
+     * @param text string
+     * @return a 64-bit hash of text (FNV-1a, then mixed)
+     */
+    static long hash(String text) {
+        long h = 0xCBF29CE484222325L;
+        for(int i = 0; i < text.length(); i++){
+            h = (h ^ text.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(h);
+    }
+}
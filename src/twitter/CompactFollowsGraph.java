@@ -0,0 +1,263 @@
+package twitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Immutable follows graph over int user ids, in compressed sparse row form.
+ *
+ * Usernames are interned once into a UsernameDictionary; after that, the graph is two int
+ * arrays: the users followed by user u are targets[offsets[u] .. offsets[u + 1]), sorted
+ * by id. Building the graph sorts packed (follower, followed) pairs as longs, and ranking
+ * influencers is a counting sort on in-degrees, so neither touches a String beyond the
+ * first lookup of each username; names are only produced for the results.
+ */
+public class CompactFollowsGraph {
+
+    private final UsernameDictionary users;
+    private final BitSet authors;
+    private final int[] offsets;
+    private final int[] targets;
+    /* Rep invariant:
+     *    offsets.length == users.size() + 1, offsets[0] == 0, offsets is non-decreasing,
+     *    and offsets[users.size()] == targets.length
+     *    for each u, targets[offsets[u] .. offsets[u + 1]) is strictly ascending and
+     *    does not contain u
+     *    a user u with offsets[u] < offsets[u + 1] is in authors
+     * Abstraction function:
+     *    represents the social network in which users.name(u) follows users.name(v) for
+     *    each v in targets[offsets[u] .. offsets[u + 1]), and whose keys (the users with
+     *    evidence, even if they follow no one) are the users in authors
+     */
+
+    private CompactFollowsGraph(UsernameDictionary users, BitSet authors, long[] edges, int edgeCount) {
+        this.users = users;
+        this.authors = authors;
+
+        //sorting packed pairs groups edges by follower and orders each group by followed
+        Arrays.sort(edges, 0, edgeCount);
+        this.offsets = new int[users.size() + 1];
+        final int[] followed = new int[edgeCount];
+        int size = 0;
+        for(int i = 0; i < edgeCount; i++){
+            if(i > 0 && edges[i] == edges[i - 1]){
+                continue;
+            }
+            offsets[(int) (edges[i] >>> 32) + 1]++;
+            followed[size++] = (int) edges[i];
+        }
+        for(int u = 0; u < users.size(); u++){
+            offsets[u + 1] += offsets[u];
+        }
+        this.targets = size == edgeCount ? followed : Arrays.copyOf(followed, size);
+    }
+
+    /**
+     * Guess who might follow whom from evidence found in tweets, as
+     * SocialNetwork.guessFollowsGraph does.
+     *
+     * @param tweets a list of tweets providing the evidence, not modified by this method.
+     * @return the social network SocialNetwork.guessFollowsGraph(tweets) represents
+     */
+    public static CompactFollowsGraph fromTweets(List<Tweet> tweets) {
+        final UsernameDictionary users = new UsernameDictionary();
+        final BitSet authors = new BitSet();
+        final EdgeList edges = new EdgeList();
+
+        for(Tweet tweet : tweets){
+            final int author = users.intern(tweet.getAuthor());
+            authors.set(author);
+            MentionScanner.forEachMention(tweet.getText(), mention -> {
+                final int followed = users.intern(mention);
+                if(followed != author){
+                    edges.add(author, followed);
+                }
+            });
+        }
+
+        return new CompactFollowsGraph(users, authors, edges.edges, edges.size);
+    }
+
+    /**
+     * Convert a social network from its map form.
+     *
+     * @param followsGraph a social network (as defined in SocialNetwork.guessFollowsGraph),
+     *                     not modified by this method; users following themselves are ignored
+     * @return the same social network
+     */
+    public static CompactFollowsGraph fromMap(Map<String, Set<String>> followsGraph) {
+        final UsernameDictionary users = new UsernameDictionary();
+        final BitSet authors = new BitSet();
+        final EdgeList edges = new EdgeList();
+
+        for(Map.Entry<String, Set<String>> entry : followsGraph.entrySet()){
+            final int follower = users.intern(entry.getKey());
+            authors.set(follower);
+            for(String followed : entry.getValue()){
+                final int id = users.intern(followed);
+                if(id != follower){
+                    edges.add(follower, id);
+                }
+            }
+        }
+
+        return new CompactFollowsGraph(users, authors, edges.edges, edges.size);
+    }
+
+    /**
+     * @return number of users in the graph, including those who are only followed
+     */
+    public int userCount() {
+        return users.size();
+    }
+
+    /**
+     * @return number of (follower, followed) pairs in the graph
+     */
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * @param username a valid Twitter username
+     * @return the id of username in [0, userCount()), or UsernameDictionary.ABSENT if it is
+     *         not in the graph
+     */
+    public int idOf(String username) {
+        return users.idOf(username);
+    }
+
+    /**
+     * @param id user id in [0, userCount())
+     * @return the username with that id, spelled as when first seen
+     */
+    public String name(int id) {
+        return users.name(id);
+    }
+
+    /**
+     * @param id user id in [0, userCount())
+     * @return ids of the users that user follows, in ascending order
+     */
+    public int[] following(int id) {
+        checkId(id);
+        return Arrays.copyOfRange(targets, offsets[id], offsets[id + 1]);
+    }
+
+    /**
+     * @return the number of followers of each user, indexed by user id
+     */
+    public int[] followerCounts() {
+        final int[] counts = new int[users.size()];
+        for(int target : targets){
+            counts[target]++;
+        }
+        return counts;
+    }
+
+    /**
+     * Find the people in a social network who have the greatest influence, as
+     * SocialNetwork.influencers does.
+     *
+     * @return a list of all distinct usernames in the graph, in descending order of
+     *         follower count; users with equal counts are in order of first appearance
+     */
+    public List<String> influencers() {
+        return topInfluencers(users.size());
+    }
+
+    /**
+     * @param k number of usernames wanted, >= 0
+     * @return the first min(k, userCount()) usernames of influencers()
+     */
+    public List<String> topInfluencers(int k) {
+        if(k < 0){
+            throw new IllegalArgumentException("requires k >= 0");
+        }
+        final int[] counts = followerCounts();
+
+        //counting sort on follower count, descending and stable in id
+        int maxCount = 0;
+        for(int count : counts){
+            maxCount = Math.max(maxCount, count);
+        }
+        final int[] starts = new int[maxCount + 2];
+        for(int count : counts){
+            starts[maxCount - count + 1]++;
+        }
+        for(int i = 1; i < starts.length; i++){
+            starts[i] += starts[i - 1];
+        }
+        final int[] order = new int[counts.length];
+        for(int id = 0; id < counts.length; id++){
+            order[starts[maxCount - counts[id]]++] = id;
+        }
+
+        final int n = Math.min(k, order.length);
+        final List<String> result = new ArrayList<String>(n);
+        for(int i = 0; i < n; i++){
+            result.add(users.name(order[i]));
+        }
+        return result;
+    }
+
+    /**
+     * @return the graph in the map form SocialNetwork.guessFollowsGraph returns: a
+     *         case-insensitive map from each user with evidence to the users they follow
+     */
+    public Map<String, Set<String>> toMap() {
+        final SortedMap<String, Set<String>> graph = new TreeMap<String, Set<String>>(String.CASE_INSENSITIVE_ORDER);
+        for(int u = authors.nextSetBit(0); u >= 0; u = authors.nextSetBit(u + 1)){
+            final Set<String> followed = new TreeSet<String>(String.CASE_INSENSITIVE_ORDER);
+            for(int i = offsets[u]; i < offsets[u + 1]; i++){
+                followed.add(users.name(targets[i]));
+            }
+            graph.put(users.name(u), followed);
+        }
+        return graph;
+    }
+
+    /**
+     * @return offsets of the rows of the graph: the users followed by user u are at
+     *         indices offsets[u] .. offsets[u + 1] of targets(); must not be modified
+     */
+    int[] offsets() {
+        return offsets;
+    }
+
+    /**
+     * @return targets of the rows of the graph, as described by offsets(); must not be
+     *         modified
+     */
+    int[] targets() {
+        return targets;
+    }
+
+    private void checkId(int id) {
+        if(id < 0 || id >= users.size()){
+            throw new IndexOutOfBoundsException("no user with id " + id);
+        }
+    }
+
+    /*
+     * Growable array of (follower, followed) pairs packed into longs.
+     */
+    private static class EdgeList {
+        private long[] edges = new long[16];
+        private int size;
+
+        void add(int follower, int followed) {
+            if(size == edges.length){
+                edges = Arrays.copyOf(edges, size * 2);
+            }
+            edges[size++] = (long) follower << 32 | followed;
+        }
+    }
+}
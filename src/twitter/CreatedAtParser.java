@@ -0,0 +1,151 @@
+package twitter;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Parser for the "created_at" timestamps of Twitter's JSON, which always have the fixed
+ * layout "EEE MMM dd HH:mm:ss Z yyyy" in English, e.g. "Wed Feb 17 10:00:00 +0000 2016".
+ *
+ * Text in exactly that layout is decoded field by field, straight to seconds from the
+ * epoch, without building a formatter, a parsed field map or a ZonedDateTime. Anything
+ * else (other lengths or separators, out-of-range fields, a day of the week that does not
+ * match the date) falls back to the general DateTimeFormatter path, so the results and
+ * the errors are those of ZonedDateTime.parse with that pattern.
+ */
+class CreatedAtParser {
+
+    /** the layout of created_at, for the general path */
+    static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss Z yyyy", Locale.US);
+
+    private static final String DAYS = "MonTueWedThuFriSatSun";
+    private static final String MONTHS = "JanFebMarAprMayJunJulAugSepOctNovDec";
+    private static final int LENGTH = "Wed Feb 17 10:00:00 +0000 2016".length();
+
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    /**
+     * @param text a timestamp in the created_at layout
+     * @return the instant text represents
+     * @throws java.time.format.DateTimeParseException if text is not a valid timestamp
+     *         in that layout
+     */
+    static Instant parse(String text) {
+        final long seconds = fastEpochSecond(text);
+        return seconds == Long.MIN_VALUE ? ZonedDateTime.parse(text, FORMAT).toInstant() : Instant.ofEpochSecond(seconds);
+    }
+
+    /**
+     * @param text a timestamp in the created_at layout
+     * @return milliseconds from the epoch to the instant text represents
+     * @throws java.time.format.DateTimeParseException if text is not a valid timestamp
+     *         in that layout
+     */
+    static long parseEpochMillis(String text) {
+        final long seconds = fastEpochSecond(text);
+        return seconds == Long.MIN_VALUE ? ZonedDateTime.parse(text, FORMAT).toInstant().toEpochMilli() : seconds * 1000;
+    }
+
+    /*
+     * @return seconds from the epoch to the instant text represents, or Long.MIN_VALUE if
+     *         text is not in the exact layout with every field in range
+     */
+    private static long fastEpochSecond(String text) {
+        if(text.length() != LENGTH || text.charAt(3) != ' ' || text.charAt(7) != ' ' || text.charAt(10) != ' '
+                || text.charAt(13) != ':' || text.charAt(16) != ':' || text.charAt(19) != ' ' || text.charAt(25) != ' '){
+            return Long.MIN_VALUE;
+        }
+
+        final int dayOfWeek = nameIndex(DAYS, text, 0);
+        final int month = nameIndex(MONTHS, text, 4) + 1;
+        final int day = digits(text, 8, 2);
+        final int hour = digits(text, 11, 2);
+        final int minute = digits(text, 14, 2);
+        final int second = digits(text, 17, 2);
+        final int offsetHours = digits(text, 21, 2);
+        final int offsetMinutes = digits(text, 23, 2);
+        final int year = digits(text, 26, 4);
+        final char sign = text.charAt(20);
+
+        if(dayOfWeek < 0 || month < 1 || year < 1 || day < 1 || day > lengthOfMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59
+                || offsetHours < 0 || offsetHours > 18 || offsetMinutes < 0 || offsetMinutes > 59
+                || (sign != '+' && sign != '-')){
+            return Long.MIN_VALUE;
+        }
+
+        final long epochDay = epochDay(year, month, day);
+        if(Math.floorMod(epochDay + 3, 7) != dayOfWeek){
+            //1970-01-01 was a Thursday; a mismatched day name is left to the general path to reject
+            return Long.MIN_VALUE;
+        }
+        final int offset = (sign == '+' ? 1 : -1) * (offsetHours * 3600 + offsetMinutes * 60);
+        if(Math.abs(offset) > 18 * 3600){
+            return Long.MIN_VALUE;
+        }
+        return epochDay * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second - offset;
+    }
+
+    /*
+     * @return index / 3 of the three-letter name at text[from..from+3) in names, or -1
+     */
+    private static int nameIndex(String names, String text, int from) {
+        for(int i = 0; i < names.length(); i += 3){
+            if(names.regionMatches(i, text, from, 3)){
+                return i / 3;
+            }
+        }
+        return -1;
+    }
+
+    /*
+     * @return the value of the decimal digits text[from..from+count), or -1 if any of
+     *         them is not an ASCII digit
+     */
+    private static int digits(String text, int from, int count) {
+        int value = 0;
+        for(int i = from; i < from + count; i++){
+            final char c = text.charAt(i);
+            if(c < '0' || c > '9'){
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch(month){
+        case 2:
+            return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+        case 4:
+        case 6:
+        case 9:
+        case 11:
+            return 30;
+        default:
+            return 31;
+        }
+    }
+
+    /*
+     * @return days from 1970-01-01 to the given date of the proleptic Gregorian calendar,
+     *         computed as LocalDate.toEpochDay does
+     */
+    private static long epochDay(int year, int month, int day) {
+        final long y = year;
+        long total = 365 * y;
+        total += (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if(month > 2){
+            total--;
+            if(!(year % 4 == 0 && (year % 100 != 0 || year % 400 == 0))){
+                total--;
+            }
+        }
+        return total - 719_528;
+    }
+}
@@ -0,0 +1,105 @@
+package twitter;
+
+import java.util.List;
+
+/**
+ * Mutable estimates of the number of distinct authors, distinct mentioned users and
+ * distinct follows edges in a set of tweets, for dashboards that need the counts but not
+ * the sets.
+ *
+ * Each count is a HyperLogLog sketch over normalized usernames (or author, mentioned-user
+ * pairs), so memory is fixed whatever the number of tweets, and the counts of several
+ * shards or time buckets roll up exactly by merge(). The counted edges are those of
+ * SocialNetwork.guessFollowsGraph: an author mentioning someone other than themselves.
+ */
+public class DistinctCounts {
+
+    private final HyperLogLog authors;
+    private final HyperLogLog mentionedUsers;
+    private final HyperLogLog edges;
+    /* Rep invariant:
+     *    authors, mentionedUsers and edges have the same precision
+     * Abstraction function:
+     *    represents the sets of normalized authors, of normalized mentioned users, and of
+     *    (author, mentioned user) edges of the tweets added so far, as sketched by authors,
+     *    mentionedUsers and edges respectively
+     */
+
+    /**
+     * Make empty counts.
+     *
+     * @param precision precision of each sketch, in [HyperLogLog.MIN_PRECISION,
+     *                  HyperLogLog.MAX_PRECISION]; each count has a relative standard error
+     *                  of about 1.04 / sqrt(2^precision) and takes 2^precision bytes
+     */
+    public DistinctCounts(int precision) {
+        this.authors = new HyperLogLog(precision);
+        this.mentionedUsers = new HyperLogLog(precision);
+        this.edges = new HyperLogLog(precision);
+    }
+
+    /**
+     * Count the author, mentions and edges of one tweet.
+     *
+     * @param tweet tweet
+     */
+    public void add(Tweet tweet) {
+        final String author = TwitterUtility.normalizeUsername(tweet.getAuthor());
+        final long authorHash = HyperLogLog.hash(author);
+        authors.add(authorHash);
+        MentionScanner.forEachMention(tweet.getText(), mentionedUser -> {
+            final long mentionHash = HyperLogLog.hash(mentionedUser);
+            mentionedUsers.add(mentionHash);
+            if(!mentionedUser.equals(author)){
+                edges.add(BloomFilter.mix(authorHash * 31 + mentionHash));
+            }
+        });
+    }
+
+    /**
+     * Count several tweets, as if by add() on each in order.
+     *
+     * @param tweets tweets, not modified by this method
+     */
+    public void addAll(List<Tweet> tweets) {
+        for(Tweet tweet : tweets){
+            add(tweet);
+        }
+    }
+
+    /**
+     * Add the counts of other tweets to these, e.g. of another shard or time bucket.
+     * Tweets counted by both are counted once.
+     *
+     * @param that counts made with the same precision; not modified
+     */
+    public void merge(DistinctCounts that) {
+        authors.merge(that.authors);
+        mentionedUsers.merge(that.mentionedUsers);
+        edges.merge(that.edges);
+    }
+
+    /**
+     * @return estimated number of distinct authors (case-insensitively) of the tweets counted
+     */
+    public long getAuthorCount() {
+        return authors.estimate();
+    }
+
+    /**
+     * @return estimated number of distinct users (case-insensitively) mentioned in the
+     *         tweets counted; estimates Extract.getMentionedUsers(tweets).size()
+     */
+    public long getMentionedUserCount() {
+        return mentionedUsers.estimate();
+    }
+
+    /**
+     * @return estimated number of distinct (author, mentioned user) pairs in the tweets
+     *         counted, excluding self-mentions; estimates the total size of the followed
+     *         sets of SocialNetwork.guessFollowsGraph(tweets)
+     */
+    public long getEdgeCount() {
+        return edges.estimate();
+    }
+}
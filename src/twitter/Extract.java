@@ -60,13 +60,7 @@ public class Extract {
         Set<String> setOfMentions = new HashSet<String>();
         
         for(Tweet tweet : tweets){
-            String[] strings = tweet.getText().toLowerCase().split("[^a-z0-9_@]");
-            
-            for(String str : strings){
-                if(str.matches("@[a-z0-9_]+")){
-                    setOfMentions.add(str.substring(1));
-                }
-            }
+            MentionScanner.forEachMention(tweet.getText(), setOfMentions::add);
         }
         
         return setOfMentions;
@@ -33,7 +33,8 @@ public class Filter {
         List<Tweet> result = new ArrayList<Tweet>();
         
         for(Tweet tweet : tweets){
-            if(tweet.getAuthor().toLowerCase().equals(username.toLowerCase())){
+            //usernames are ASCII, so this is the same as comparing lower-case copies, without making them
+            if(tweet.getAuthor().equalsIgnoreCase(username)){
                 result.add(tweet);
             }
         }
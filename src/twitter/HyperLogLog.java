@@ -0,0 +1,146 @@
+package twitter;
+
+/**
+ * Mutable HyperLogLog sketch: estimates the number of distinct values added, in fixed
+ * memory of one byte per register, with a relative standard error of about
+ * 1.04 / sqrt(2^precision).
+ *
+ * Values are added as 64-bit hashes. The top precision bits of a hash choose a register,
+ * and the register keeps the largest position of the first 1 bit seen among the
+ * remaining bits. Sketches of the same precision merge by taking the larger register, so
+ * the sketch of a union is the merge of the sketches of its parts, e.g. of several shards
+ * or time buckets, and no set of values is ever kept.
+ */
+public class HyperLogLog {
+
+    /** smallest supported precision */
+    public static final int MIN_PRECISION = 4;
+
+    /** largest supported precision */
+    public static final int MAX_PRECISION = 18;
+
+    private final int precision;
+    private final byte[] registers;
+    /* Rep invariant:
+     *    MIN_PRECISION <= precision <= MAX_PRECISION
+     *    registers.length == 2^precision
+     *    0 <= registers[j] <= 64 - precision + 1
+     * Abstraction function:
+     *    represents a multiset of hashes added so far, summarized by registers[j], the
+     *    largest rank of the hashes whose top precision bits are j (0 if there are none)
+     */
+
+    /**
+     * Make an empty sketch.
+     *
+     * @param precision number of index bits, in [MIN_PRECISION, MAX_PRECISION]; the sketch
+     *                  takes 2^precision bytes
+     */
+    public HyperLogLog(int precision) {
+        if(precision < MIN_PRECISION || precision > MAX_PRECISION){
+            throw new IllegalArgumentException("requires " + MIN_PRECISION + " <= precision <= " + MAX_PRECISION);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * Add a value by its hash.
+     *
+     * @param hash 64-bit hash of the value, with all bits uniformly distributed, e.g. from
+     *             hash(String); equal values must have equal hashes
+     */
+    public void add(long hash) {
+        final int index = (int) (hash >>> (64 - precision));
+        //rank of the first 1 bit in the remaining bits, capped when they are all 0
+        final int rank = Math.min(Long.numberOfLeadingZeros(hash << precision), 64 - precision) + 1;
+        if(rank > registers[index]){
+            registers[index] = (byte) rank;
+        }
+    }
+
+    /**
+     * Add every value of another sketch to this one.
+     *
+     * @param that sketch with the same precision; not modified
+     */
+    public void merge(HyperLogLog that) {
+        if(that.precision != precision){
+            throw new IllegalArgumentException("requires equal precisions");
+        }
+        for(int j = 0; j < registers.length; j++){
+            if(that.registers[j] > registers[j]){
+                registers[j] = that.registers[j];
+            }
+        }
+    }
+
+    /**
+     * @return estimated number of distinct values added; exact 0 if none were
+     */
+    public long estimate() {
+        final int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for(byte register : registers){
+            sum += Math.scalb(1.0, -register);
+            if(register == 0){
+                zeros++;
+            }
+        }
+
+        final double estimate = alpha(m) * m * m / sum;
+        if(estimate <= 2.5 * m && zeros > 0){
+            //small range: linear counting on the empty registers is more accurate
+            return Math.round(m * Math.log((double) m / zeros));
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * @return the precision this sketch was made with
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * @return the relative standard error of estimate(), 1.04 / sqrt(2^precision)
+     */
+    public double getStandardError() {
+        return 1.04 / Math.sqrt(registers.length);
+    }
+
+    /**
+     * @return a new sketch with the same precision and values as this one
+     */
+    public HyperLogLog copy() {
+        final HyperLogLog copy = new HyperLogLog(precision);
+        System.arraycopy(registers, 0, copy.registers, 0, registers.length);
+        return copy;
+    }
+
+    /**
+     * @param text string
+     * @return a 64-bit hash of text suitable for add()
+     */
+    public static long hash(String text) {
+        return BloomFilter.hash(text);
+    }
+
+    /*
+     * @return the bias correction constant for m registers
+     */
+    private static double alpha(int m) {
+        switch(m){
+        case 16:
+            return 0.673;
+        case 32:
+            return 0.697;
+        case 64:
+            return 0.709;
+        default:
+            return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+}
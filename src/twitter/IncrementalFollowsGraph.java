@@ -0,0 +1,110 @@
+package twitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Mutable follows graph that absorbs tweets as they arrive, for services that poll for
+ * new tweets and re-rank influencers after every batch.
+ *
+ * Adding a tweet touches only the mention set of its author, and follower counts are kept
+ * up to date in place as new edges appear, so neither the graph nor the counts are ever
+ * recomputed over the full history.
+ */
+public class IncrementalFollowsGraph {
+
+    private final Map<String, Set<String>> followsGraph =
+            new TreeMap<String, Set<String>>(String.CASE_INSENSITIVE_ORDER);
+    private final UsernameCounter followerCount = new UsernameCounter();
+    /* Rep invariant:
+     *    followsGraph == SocialNetwork.guessFollowsGraph(h), where h is the list of tweets added so far
+     *    followerCount counts every username of followsGraph (key or followed) once per
+     *    distinct user that follows it, and has no other usernames
+     * Abstraction function:
+     *    represents the social network inferred from every tweet added so far
+     */
+
+    /**
+     * Make an empty graph.
+     */
+    public IncrementalFollowsGraph() {
+    }
+
+    /**
+     * Add the evidence of one tweet.
+     *
+     * @param tweet a tweet whose id differs from those of the tweets added so far
+     */
+    public void add(Tweet tweet) {
+        final String author = tweet.getAuthor();
+
+        final Set<String> mentions = followsGraph.computeIfAbsent(author, key -> {
+            followerCount.add(key, 0);
+            return new TreeSet<String>(String.CASE_INSENSITIVE_ORDER);
+        });
+
+        MentionScanner.forEachMention(tweet.getText(), mentionedUser -> {
+            if(!mentionedUser.equalsIgnoreCase(author) && mentions.add(mentionedUser)){
+                followerCount.add(mentionedUser, 1);
+            }
+        });
+    }
+
+    /**
+     * Add the evidence of several tweets, as if by add() on each in order.
+     *
+     * @param tweets tweets whose ids differ from each other and from those added so far,
+     *               not modified by this method
+     */
+    public void addAll(List<Tweet> tweets) {
+        for(Tweet tweet : tweets){
+            add(tweet);
+        }
+    }
+
+    /**
+     * @return a copy of the social network inferred so far, equal to (and keyed by the
+     *         same spellings as) SocialNetwork.guessFollowsGraph over every tweet added,
+     *         in order. Not affected by later additions.
+     */
+    public Map<String, Set<String>> snapshot() {
+        final Map<String, Set<String>> copy = new TreeMap<String, Set<String>>(String.CASE_INSENSITIVE_ORDER);
+        for(Map.Entry<String, Set<String>> entry : followsGraph.entrySet()){
+            final Set<String> mentions = new TreeSet<String>(String.CASE_INSENSITIVE_ORDER);
+            mentions.addAll(entry.getValue());
+            copy.put(entry.getKey(), mentions);
+        }
+        return copy;
+    }
+
+    /**
+     * @param username a valid Twitter username
+     * @return number of distinct users that follow username in the graph
+     */
+    public int followerCount(String username) {
+        return followerCount.get(username);
+    }
+
+    /**
+     * @return every distinct username of the graph, in descending order of follower count.
+     *         Has the same usernames (compared case-insensitively) with the same counts as
+     *         SocialNetwork.influencers(snapshot()), but may differ from it in ties and
+     *         spellings: usernames with equal counts are in order of first appearance in
+     *         the tweets added, as author or mention, and each is spelled as it first
+     *         appeared, which is lower case for a mention.
+     */
+    public List<String> influencers() {
+        return followerCount.sortedByCount();
+    }
+
+    /**
+     * @param k number of usernames wanted, >= 0
+     * @return the first min(k, number of usernames) usernames of influencers()
+     */
+    public List<String> topInfluencers(int k) {
+        return followerCount.top(k);
+    }
+}
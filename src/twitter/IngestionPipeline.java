@@ -0,0 +1,396 @@
+package twitter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Long-running ingestion of tweets from a polled server, for running the analyses as a
+ * service rather than once.
+ *
+ * The pipeline has four stages, each on its own thread: fetch (poll the server and read
+ * the response body), parse (turn a body into tweets), dedupe (drop tweets whose id has
+ * been seen recently, since consecutive polls overlap), and analyze (hand each batch of new
+ * tweets to the caller). Stages are connected by bounded queues: when a later stage falls
+ * behind, the queue in front of it fills up and the earlier stages block, so a slow
+ * analysis throttles polling instead of buffering without limit. Fetching and parsing
+ * overlap with analysis of earlier batches.
+ *
+ * Failures to fetch or parse one poll are reported to an error handler, and the pipeline
+ * carries on with the next poll; an exception thrown by the error handler itself is
+ * dropped, so it cannot stop a stage. Every poll has a connect and read timeout, so a
+ * server that accepts a connection and then stalls fails that poll rather than blocking
+ * the fetch stage forever.
+ */
+public class IngestionPipeline implements Closeable {
+
+    /** number of recently seen tweet ids remembered for deduplication */
+    private static final int REMEMBERED_IDS = 1_000_000;
+
+    /** connect and read timeout of each poll, unless given */
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+
+    /** longest time close() waits for the stages to stop */
+    private static final long CLOSE_TIMEOUT_MILLIS = 5_000;
+
+    private final URL source;
+    private final long pollIntervalMillis;
+    private final int timeoutMillis;
+    private final Consumer<List<Tweet>> analyzer;
+    private final Consumer<Exception> errorHandler;
+
+    private final BlockingQueue<byte[]> bodies;
+    private final BlockingQueue<List<Tweet>> parsed;
+    private final BlockingQueue<List<Tweet>> fresh;
+    private final RecentIds seenIds = new RecentIds(REMEMBERED_IDS);
+
+    private final AtomicLong fetches = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final List<Thread> threads = new ArrayList<Thread>();
+    private volatile boolean running;
+    private volatile URLConnection fetching;
+    /* Rep invariant:
+     *    seenIds is only accessed by the dedupe thread
+     *    running iff start() has been called and close() has not
+     *    fetching is the connection of the poll in progress, if any
+     */
+
+    /**
+     * Make a pipeline with the default timeout; it does nothing until started.
+     *
+     * @param source URL of a server that produces a JSON array of tweets, in the format
+     *               TweetReader reads
+     * @param pollInterval time between the starts of consecutive polls, > 0
+     * @param queueCapacity capacity of each queue between stages, > 0
+     * @param analyzer called on the analyze thread with each batch of tweets not seen
+     *                 before, in the order they were fetched; may be slow
+     * @param errorHandler called with each failure to fetch or parse a poll, and with
+     *                     each exception thrown by analyzer; exceptions it throws are
+     *                     ignored
+     */
+    public IngestionPipeline(URL source, Duration pollInterval, int queueCapacity,
+            Consumer<List<Tweet>> analyzer, Consumer<Exception> errorHandler) {
+        this(source, pollInterval, DEFAULT_TIMEOUT, queueCapacity, analyzer, errorHandler);
+    }
+
+    /**
+     * Make a pipeline; it does nothing until started.
+     *
+     * @param source URL of a server that produces a JSON array of tweets, in the format
+     *               TweetReader reads
+     * @param pollInterval time between the starts of consecutive polls, > 0
+     * @param timeout longest wait to connect for a poll, and then for each read of its
+     *                response, at least one millisecond and at most Integer.MAX_VALUE
+     *                milliseconds
+     * @param queueCapacity capacity of each queue between stages, > 0
+     * @param analyzer called on the analyze thread with each batch of tweets not seen
+     *                 before, in the order they were fetched; may be slow
+     * @param errorHandler called with each failure to fetch or parse a poll, and with
+     *                     each exception thrown by analyzer; exceptions it throws are
+     *                     ignored
+     */
+    public IngestionPipeline(URL source, Duration pollInterval, Duration timeout, int queueCapacity,
+            Consumer<List<Tweet>> analyzer, Consumer<Exception> errorHandler) {
+        if(pollInterval.isNegative() || pollInterval.isZero()){
+            throw new IllegalArgumentException("requires pollInterval > 0");
+        }
+        if(timeout.toMillis() < 1 || timeout.toMillis() > Integer.MAX_VALUE){
+            throw new IllegalArgumentException("requires 1 ms <= timeout <= Integer.MAX_VALUE ms");
+        }
+        this.source = source;
+        this.pollIntervalMillis = pollInterval.toMillis();
+        this.timeoutMillis = (int) timeout.toMillis();
+        this.analyzer = analyzer;
+        this.errorHandler = errorHandler;
+        this.bodies = new ArrayBlockingQueue<byte[]>(queueCapacity);
+        this.parsed = new ArrayBlockingQueue<List<Tweet>>(queueCapacity);
+        this.fresh = new ArrayBlockingQueue<List<Tweet>>(queueCapacity);
+    }
+
+    /**
+     * Start polling and processing. Has no effect if the pipeline is running.
+     */
+    public synchronized void start() {
+        if(running){
+            return;
+        }
+        running = true;
+
+        startStage("tweet-fetch", this::fetch);
+        startStage("tweet-parse", () -> parsed.put(parse(bodies.take())));
+        startStage("tweet-dedupe", () -> fresh.put(dedupe(parsed.take())));
+        startStage("tweet-analyze", () -> {
+            final List<Tweet> batch = fresh.take();
+            if(!batch.isEmpty()){
+                try {
+                    analyzer.accept(batch);
+                } catch (RuntimeException re) {
+                    report(re);
+                }
+            }
+        });
+    }
+
+    /**
+     * Stop every stage and wait a few seconds at most for them to finish. A poll in
+     * progress is aborted. Batches still queued are dropped; a stage that does not stop in
+     * time, e.g. in a slow analyzer call, is left to finish on its own daemon thread.
+     */
+    @Override public synchronized void close() {
+        running = false;
+        for(Thread thread : threads){
+            thread.interrupt();
+        }
+        //an interrupt does not wake a thread blocked in socket I/O
+        final URLConnection connection = fetching;
+        if(connection instanceof HttpURLConnection){
+            ((HttpURLConnection) connection).disconnect();
+        }
+
+        final long deadline = System.currentTimeMillis() + CLOSE_TIMEOUT_MILLIS;
+        for(Thread thread : threads){
+            try {
+                thread.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        threads.clear();
+    }
+
+    /**
+     * @return number of polls whose response has been read so far
+     */
+    public long getFetchCount() {
+        return fetches.get();
+    }
+
+    /**
+     * @return number of tweets dropped so far because their id had already been seen
+     */
+    public long getDuplicateCount() {
+        return duplicates.get();
+    }
+
+    /*
+     * One step of a stage; interrupted when the pipeline closes.
+     */
+    private interface Step {
+        void run() throws InterruptedException;
+    }
+
+    /*
+     * Run step repeatedly on a new daemon thread until the pipeline closes.
+     */
+    private void startStage(String name, Step step) {
+        final Thread thread = new Thread(() -> {
+            try {
+                while(running){
+                    step.run();
+                }
+            } catch (InterruptedException ie) {
+                //closing
+            }
+        }, name);
+        thread.setDaemon(true);
+        threads.add(thread);
+        thread.start();
+    }
+
+    /*
+     * Fetch stage: read one response body, then wait out the rest of the poll interval.
+     */
+    private void fetch() throws InterruptedException {
+        final long started = System.currentTimeMillis();
+        try {
+            final byte[] body = readFully();
+            fetches.incrementAndGet();
+            bodies.put(body);
+        } catch (IOException | RuntimeException e) {
+            if(running){
+                report(e);
+            }
+        }
+
+        final long remaining = pollIntervalMillis - (System.currentTimeMillis() - started);
+        if(remaining > 0){
+            Thread.sleep(remaining);
+        }
+    }
+
+    /*
+     * Parse stage: the tweets in a response body, or none if it is malformed.
+     */
+    private List<Tweet> parse(byte[] body) {
+        final List<Tweet> tweets = new ArrayList<Tweet>();
+        try (TweetStreamReader reader = new TweetStreamReader(
+                new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8))) {
+            reader.forEachRemaining(tweets::add);
+        } catch (RuntimeException re) {
+            report(re);
+            return new ArrayList<Tweet>();
+        }
+        return tweets;
+    }
+
+    /*
+     * Dedupe stage: the tweets of batch whose ids have not been seen recently, in order.
+     */
+    private List<Tweet> dedupe(List<Tweet> batch) {
+        final List<Tweet> result = new ArrayList<Tweet>(batch.size());
+        for(Tweet tweet : batch){
+            if(seenIds.add(tweet.getId())){
+                result.add(tweet);
+            }else{
+                duplicates.incrementAndGet();
+            }
+        }
+        return result;
+    }
+
+    /*
+     * Pass a failure to the error handler, on the calling stage's thread; if the handler
+     * throws, the stage carries on regardless.
+     */
+    private void report(Exception e) {
+        try {
+            errorHandler.accept(e);
+        } catch (RuntimeException re) {
+            //the handler's own failure has nowhere to go
+        }
+    }
+
+    /*
+     * @return the response body of one poll of source, read with the timeouts set
+     */
+    private byte[] readFully() throws IOException {
+        final URLConnection connection = source.openConnection();
+        connection.setConnectTimeout(timeoutMillis);
+        connection.setReadTimeout(timeoutMillis);
+        fetching = connection;
+        if(!running){
+            throw new IOException("pipeline closed");
+        }
+        try (InputStream in = connection.getInputStream()) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            int read;
+            while((read = in.read(buffer)) != -1){
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } finally {
+            fetching = null;
+        }
+    }
+
+    /*
+     * Set of the most recently added distinct tweet ids, up to a fixed number, without
+     * boxing: a ring of ids in the order they were added, indexed by an open-addressing
+     * table of ring positions. Adding an id to a full set forgets the oldest one.
+     */
+    static class RecentIds {
+        private final long[] ring;
+        private final int[] table;
+        private int next;
+        private int size;
+        /* Rep invariant:
+         *    0 <= size <= ring.length, 0 <= next < ring.length
+         *    table.length is a power of two >= 2 * ring.length
+         *    the ids at ring positions (next - size + i) mod ring.length, 0 <= i < size, are
+         *    distinct; table[slot] == position + 1 for each such position, found by linear
+         *    probing from the hash of its id; every other slot of table is 0
+         * Abstraction function:
+         *    represents the set of the ids at those ring positions, oldest first
+         */
+
+        /*
+         * Make an empty set that remembers capacity ids, capacity in [1, 2^29].
+         */
+        RecentIds(int capacity) {
+            this.ring = new long[capacity];
+            this.table = new int[Integer.highestOneBit(capacity) * 4];
+        }
+
+        /*
+         * Add an id, forgetting the oldest id if the set is full.
+         *
+         * @return true iff id was not in the set
+         */
+        boolean add(long id) {
+            int slot = slotOf(id);
+            if(table[slot] != 0){
+                return false;
+            }
+            if(size == ring.length){
+                //when full, the oldest id is at the position about to be reused
+                remove(slotOf(ring[next]));
+                size--;
+                slot = slotOf(id);
+            }
+            ring[next] = id;
+            table[slot] = next + 1;
+            next = (next + 1) % ring.length;
+            size++;
+            return true;
+        }
+
+        /*
+         * @return number of ids in the set
+         */
+        int size() {
+            return size;
+        }
+
+        private int home(long id) {
+            return (int) BloomFilter.mix(id) & (table.length - 1);
+        }
+
+        /*
+         * @return the slot of table holding id, or the empty slot where it belongs
+         */
+        private int slotOf(long id) {
+            final int mask = table.length - 1;
+            int slot = home(id);
+            while(table[slot] != 0 && ring[table[slot] - 1] != id){
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        /*
+         * Empty a slot of table, shifting back later entries of its probe run so that every
+         * entry stays reachable by linear probing.
+         */
+        private void remove(int slot) {
+            final int mask = table.length - 1;
+            int hole = slot;
+            int probe = (slot + 1) & mask;
+            while(table[probe] != 0){
+                final int home = home(ring[table[probe] - 1]);
+                //the entry may move into the hole unless its home lies cyclically in (hole, probe]
+                if(((probe - home) & mask) >= ((probe - hole) & mask)){
+                    table[hole] = table[probe];
+                    hole = probe;
+                }
+                probe = (probe + 1) & mask;
+            }
+            table[hole] = 0;
+        }
+    }
+}
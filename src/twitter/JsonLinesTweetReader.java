@@ -0,0 +1,311 @@
+package twitter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.json.Json;
+import javax.json.JsonException;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+
+/**
+ * Reads tweets one at a time from newline-delimited JSON (JSONL): one tweet object per
+ * line, in the format TweetReader reads for the elements of its array.
+ *
+ * Lines are parsed one at a time, and a line longer than MAX_LINE_LENGTH bytes is
+ * discarded up to its newline without being kept, so memory use is bounded whatever the
+ * input. A line that is too long or is not a well-formed tweet is skipped and counted
+ * instead of ending the read; blank lines are ignored.
+ *
+ * A file can be read from any byte offset, e.g. to resume from getPosition() or to split
+ * it between workers: the reader for a range [start, end) returns the tweets on the lines
+ * that start in that range, so readers for adjacent ranges, cut anywhere, together return
+ * every line exactly once.
+ *
+ * Not thread safe.
+ */
+public class JsonLinesTweetReader implements Iterator<Tweet>, Closeable {
+
+    /** longest line, in bytes without its line end, that is parsed rather than skipped */
+    public static final int MAX_LINE_LENGTH = 1 << 20;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final InputStream in;
+    private final long end;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int bufferPosition;
+    private int bufferLimit;
+    private byte[] line = new byte[256];
+    private int lineLength;
+    private boolean lineTooLong;
+    private long position;
+    private long nextTweetEnd;
+    private long resumePosition;
+    private long skipped;
+    private Tweet nextTweet;
+    private boolean finished;
+    /* Rep invariant:
+     *    0 <= bufferPosition <= bufferLimit <= buffer.length
+     *    lineLength <= MAX_LINE_LENGTH, and lineLength == 0 if lineTooLong
+     *    position is the offset of buffer[bufferPosition] in the input
+     *    nextTweet != null implies nextTweetEnd is the offset just after its line
+     *    finished implies nextTweet == null
+     */
+
+    /**
+     * Make a reader over a whole stream of bytes.
+     *
+     * @param in source of UTF-8 JSON lines; closed when this reader is closed
+     */
+    public JsonLinesTweetReader(InputStream in) {
+        this(in, 0, Long.MAX_VALUE);
+    }
+
+    private JsonLinesTweetReader(InputStream in, long start, long end) {
+        this.in = in;
+        this.position = start;
+        this.resumePosition = start;
+        this.end = end;
+    }
+
+    /**
+     * Open a whole file.
+     *
+     * @param file file of UTF-8 JSON lines
+     * @return a reader over every line of file
+     * @throws IOException if the file cannot be opened
+     */
+    public static JsonLinesTweetReader open(Path file) throws IOException {
+        return open(file, 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * Open the lines of a file that start in a range of byte offsets.
+     *
+     * @param file file of UTF-8 JSON lines
+     * @param start first offset of the range, >= 0
+     * @param end offset just after the range, >= start; may exceed the size of the file
+     * @return a reader over the lines of file whose first byte is at an offset in
+     *         [start, end)
+     * @throws IOException if the file cannot be opened or read
+     */
+    public static JsonLinesTweetReader open(Path file, long start, long end) throws IOException {
+        if(start < 0 || end < start){
+            throw new IllegalArgumentException("requires 0 <= start <= end");
+        }
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            if(start == 0){
+                return new JsonLinesTweetReader(Channels.newInputStream(channel), 0, end);
+            }
+            //the line that holds byte start - 1 belongs to the previous range
+            channel.position(start - 1);
+            final JsonLinesTweetReader reader = new JsonLinesTweetReader(Channels.newInputStream(channel), start - 1, end);
+            reader.readLine();
+            reader.resumePosition = reader.position;
+            return reader;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return a sequential stream over the remaining tweets, in input order. Closing the
+     *         stream closes this reader.
+     */
+    public Stream<Tweet> stream() {
+        final Spliterator<Tweet> spliterator =
+                Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                close();
+            } catch (IOException ioe) {
+                throw new UncheckedIOException(ioe);
+            }
+        });
+    }
+
+    /**
+     * @return true iff there is another well-formed tweet in the input
+     * @throws UncheckedIOException if the input cannot be read
+     */
+    @Override public boolean hasNext() {
+        while(nextTweet == null && !finished){
+            try {
+                if(position >= end || !readLine()){
+                    finished = true;
+                    break;
+                }
+            } catch (IOException ioe) {
+                throw new UncheckedIOException(ioe);
+            }
+            if(lineTooLong){
+                skipped++;
+                continue;
+            }
+            if(isBlank()){
+                continue;
+            }
+            try {
+                nextTweet = parseLine(new String(line, 0, lineLength, StandardCharsets.UTF_8));
+                nextTweetEnd = position;
+            } catch (JsonException je) {
+                skipped++;
+            }
+        }
+        return nextTweet != null;
+    }
+
+    /**
+     * @return the next well-formed tweet in the input
+     * @throws NoSuchElementException if there are no more tweets
+     * @throws UncheckedIOException if the input cannot be read
+     */
+    @Override public Tweet next() {
+        if(!hasNext()){
+            throw new NoSuchElementException();
+        }
+        final Tweet tweet = nextTweet;
+        nextTweet = null;
+        resumePosition = nextTweetEnd;
+        return tweet;
+    }
+
+    /**
+     * @return number of nonblank lines skipped so far because they are longer than
+     *         MAX_LINE_LENGTH or are not a well-formed tweet
+     */
+    public long getSkippedCount() {
+        return skipped;
+    }
+
+    /**
+     * @return offset in the input just after the line of the last tweet returned by
+     *         next() (or the start of the range, if none has been returned); reading the
+     *         same file from this offset continues with the tweets not returned yet
+     */
+    public long getPosition() {
+        return resumePosition;
+    }
+
+    /**
+     * Release the underlying stream.
+     *
+     * @throws IOException if the stream cannot be closed
+     */
+    @Override public void close() throws IOException {
+        finished = true;
+        nextTweet = null;
+        in.close();
+    }
+
+    /**
+     * @return the tweet on a line of JSON
+     * @throws JsonException if the line is not one well-formed tweet object
+     */
+    static Tweet parseLine(String line) {
+        try (JsonParser parser = Json.createParser(new StringReader(line))) {
+            if(!parser.hasNext() || parser.next() != Event.START_OBJECT){
+                throw new JsonException("expected a tweet object on the line: " + line);
+            }
+            final Tweet tweet = TweetStreamReader.readTweet(parser);
+            if(parser.hasNext()){
+                throw new JsonException("unexpected content after the tweet on the line: " + line);
+            }
+            return tweet;
+        }
+    }
+
+    /*
+     * Read the bytes up to the next newline (or the end of input) into line, without the
+     * newline or a carriage return before it, and advance past the newline. If there are
+     * more than MAX_LINE_LENGTH of them, keep none and set lineTooLong instead.
+     *
+     * @return false iff the input had already ended
+     */
+    private boolean readLine() throws IOException {
+        lineLength = 0;
+        lineTooLong = false;
+        boolean any = false;
+        while(true){
+            if(bufferPosition == bufferLimit){
+                final int read = in.read(buffer);
+                if(read <= 0){
+                    checkLength();
+                    return any;
+                }
+                bufferPosition = 0;
+                bufferLimit = read;
+            }
+            any = true;
+
+            int newline = bufferPosition;
+            while(newline < bufferLimit && buffer[newline] != '\n'){
+                newline++;
+            }
+            append(bufferPosition, newline - bufferPosition);
+            position += newline - bufferPosition;
+            bufferPosition = newline;
+            if(newline < bufferLimit){
+                bufferPosition++;
+                position++;
+                if(lineLength > 0 && line[lineLength - 1] == '\r'){
+                    lineLength--;
+                }
+                checkLength();
+                return true;
+            }
+        }
+    }
+
+    private void append(int from, int count) {
+        if(lineTooLong){
+            return;
+        }
+        //one byte of slack for a carriage return that readLine strips
+        if(lineLength + count > MAX_LINE_LENGTH + 1){
+            lineTooLong = true;
+            lineLength = 0;
+            return;
+        }
+        if(lineLength + count > line.length){
+            line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + count));
+        }
+        System.arraycopy(buffer, from, line, lineLength, count);
+        lineLength += count;
+    }
+
+    private void checkLength() {
+        if(lineLength > MAX_LINE_LENGTH){
+            lineTooLong = true;
+            lineLength = 0;
+        }
+    }
+
+    private boolean isBlank() {
+        for(int i = 0; i < lineLength; i++){
+            final byte b = line[i];
+            if(b != ' ' && b != '\t' && b != '\r'){
+                return false;
+            }
+        }
+        return true;
+    }
+}
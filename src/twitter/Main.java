@@ -6,6 +6,7 @@ package twitter;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -24,6 +25,11 @@ public class Main {
      */
     public static final URL SAMPLE_SERVER = makeURLAssertWellFormatted("http://courses.csail.mit.edu/6.005/ps1_tweets/tweetPoll.py");
     
+    /**
+     * Time between polls of SAMPLE_SERVER when running as a service.
+     */
+    public static final Duration POLL_INTERVAL = Duration.ofSeconds(5);
+    
     private static URL makeURLAssertWellFormatted(String urlString) {
         try {
             return new URL(urlString);
@@ -36,7 +42,8 @@ public class Main {
      * Main method of the program. Fetches a sample of tweets and prints some
      * facts about it.
      * 
-     * @param args command-line arguments (not used)
+     * @param args command-line arguments: none, or "--poll" to keep polling the sample
+     *             server and print the top influencers after every batch of new tweets
      */
     public static void main(String[] args) {
         try {
@@ -44,6 +51,11 @@ public class Main {
             throw new Error("Always run main and tests with assertions enabled");
         } catch (AssertionError ae) { }
         
+        if (args.length > 0 && args[0].equals("--poll")) {
+            poll();
+            return;
+        }
+        
         final List<Tweet> tweets;
         try {
             tweets = TweetReader.readTweetsFromWeb(SAMPLE_SERVER);
@@ -54,22 +66,47 @@ public class Main {
         // display some characteristics about the tweets
         System.err.println("fetched " + tweets.size() + " tweets");
         
-        final Timespan span = Extract.getTimespan(tweets);
+        // walk the tweets once for every fact reported below
+        final TweetSummary summary = new TweetSummary(tweets);
+        
+        final Timespan span = summary.getTimespan();
         System.err.println("ranging from " + span.getStart() + " to " + span.getEnd());
         
-        final Set<String> mentionedUsers = Extract.getMentionedUsers(tweets);
+        final Set<String> mentionedUsers = summary.getMentionedUsers();
         System.err.println("covers " + mentionedUsers.size() + " Twitter users");
         
         // infer the follows graph
-        final Map<String, Set<String>> followsGraph = SocialNetwork.guessFollowsGraph(tweets);
+        final Map<String, Set<String>> followsGraph = summary.getFollowsGraph();
         System.err.println("follows graph has " + followsGraph.size() + " nodes");
         
         // print the top-N influencers
         final int count = 10;
-        final List<String> influencers = SocialNetwork.influencers(followsGraph);
-        for (String username : influencers.subList(0, Math.min(count, influencers.size()))) {
+        final List<String> influencers = summary.getTopInfluencers(count);
+        for (String username : influencers) {
             System.out.println(username);
         }
     }
     
+    /*
+     * Poll the sample server until the process is killed, folding each batch of new
+     * tweets into one follows graph.
+     */
+    private static void poll() {
+        final IncrementalFollowsGraph followsGraph = new IncrementalFollowsGraph();
+        final IngestionPipeline pipeline = new IngestionPipeline(SAMPLE_SERVER, POLL_INTERVAL, 4,
+                batch -> {
+                    followsGraph.addAll(batch);
+                    System.err.println("fetched " + batch.size() + " new tweets");
+                    System.out.println(followsGraph.topInfluencers(10));
+                },
+                error -> System.err.println("poll failed: " + error));
+        
+        pipeline.start();
+        try {
+            Thread.currentThread().join();
+        } catch (InterruptedException ie) {
+            pipeline.close();
+        }
+    }
+    
 }
@@ -0,0 +1,129 @@
+package twitter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only view of a whole file through memory mapping, addressed by long offsets.
+ *
+ * A single MappedByteBuffer is limited to 2 GB, so the file is mapped as consecutive
+ * segments; values that straddle two segments are assembled byte by byte. Multi-byte
+ * values are big-endian. Pages are loaded by the operating system on first access, so
+ * opening costs the same whatever the size of the file.
+ */
+class MappedFile implements Closeable {
+
+    /** default segment size: 1 GB */
+    static final int DEFAULT_SEGMENT_SIZE = 1 << 30;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final int segmentSize;
+    private final long size;
+    /* Rep invariant:
+     *    segments[i] maps bytes [i * segmentSize, min(size, (i + 1) * segmentSize)) of the file
+     */
+
+    /**
+     * Map a file.
+     *
+     * @param path file to map
+     * @param segmentSize size of each mapped segment, > 0
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    MappedFile(Path path, int segmentSize) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.segmentSize = segmentSize;
+        try {
+            this.size = channel.size();
+            this.segments = new MappedByteBuffer[(int) ((size + segmentSize - 1) / segmentSize)];
+            for(int i = 0; i < segments.length; i++){
+                final long start = (long) i * segmentSize;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(segmentSize, size - start));
+            }
+        } catch (IOException ioe) {
+            channel.close();
+            throw ioe;
+        }
+    }
+
+    /**
+     * @return size of the file in bytes
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * @param position offset in the file, with position + 4 <= size()
+     * @return the int stored at position
+     */
+    int getInt(long position) {
+        final MappedByteBuffer segment = segments[(int) (position / segmentSize)];
+        final int offset = (int) (position % segmentSize);
+        if(offset + Integer.BYTES <= segment.limit()){
+            return segment.getInt(offset);
+        }
+        return (int) getBytesAsLong(position, Integer.BYTES);
+    }
+
+    /**
+     * @param position offset in the file, with position + 8 <= size()
+     * @return the long stored at position
+     */
+    long getLong(long position) {
+        final MappedByteBuffer segment = segments[(int) (position / segmentSize)];
+        final int offset = (int) (position % segmentSize);
+        if(offset + Long.BYTES <= segment.limit()){
+            return segment.getLong(offset);
+        }
+        return getBytesAsLong(position, Long.BYTES);
+    }
+
+    /**
+     * Copy bytes out of the file.
+     *
+     * @param position offset in the file, with position + length <= size()
+     * @param destination array to copy into, from index 0
+     * @param length number of bytes, <= destination.length
+     */
+    void getBytes(long position, byte[] destination, int length) {
+        int copied = 0;
+        while(copied < length){
+            final long at = position + copied;
+            final MappedByteBuffer segment = segments[(int) (at / segmentSize)];
+            final int offset = (int) (at % segmentSize);
+            final int chunk = Math.min(length - copied, segment.limit() - offset);
+            final ByteBuffer view = segment.duplicate();
+            view.position(offset);
+            view.get(destination, copied, chunk);
+            copied += chunk;
+        }
+    }
+
+    /**
+     * Close the file. Mapped pages are released when the buffers are garbage-collected.
+     */
+    @Override public void close() throws IOException {
+        channel.close();
+    }
+
+    /*
+     * Big-endian value of the bytes [position, position + count), for values that
+     * straddle segments.
+     */
+    private long getBytesAsLong(long position, int count) {
+        final byte[] bytes = new byte[count];
+        getBytes(position, bytes, count);
+        long value = 0;
+        for(byte b : bytes){
+            value = value << 8 | (b & 0xFF);
+        }
+        return value;
+    }
+}
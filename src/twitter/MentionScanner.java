@@ -0,0 +1,122 @@
+package twitter;
+
+import java.util.function.Consumer;
+
+/**
+ * Finds username-mentions (and hashtags) in tweet text with a single hand-written pass
+ * over its characters, without regular expressions or intermediate strings and arrays.
+ *
+ * A mention is recognized exactly as Extract.getMentionedUsers has always done it:
+ * the text is lower-cased, cut into maximal runs of the characters a-z, 0-9, "_" and "@",
+ * and every run of the form "@" followed by one or more of a-z, 0-9, "_" is a mention.
+ * Lower-casing follows String.toLowerCase() in a non-Turkic locale, including the two
+ * non-ASCII characters that lower-case into the username alphabet (KELVIN SIGN becomes
+ * "k", and LATIN CAPITAL LETTER I WITH DOT ABOVE becomes "i" followed by a combining
+ * dot, which ends the run).
+ *
+ * A hashtag is recognized the same way with "#" in place of "@": every maximal run of
+ * a-z, 0-9, "_" and "#" of the form "#" followed by one or more of a-z, 0-9, "_".
+ */
+public class MentionScanner {
+
+    private static final char KELVIN_SIGN = '\u212A';
+    private static final char CAPITAL_I_WITH_DOT = '\u0130';
+
+    /**
+     * Report every username-mention in a piece of text.
+     *
+     * @param text text of a tweet
+     * @param action called once per mention occurrence, in order of appearance, with the
+     *               lower-case username (without the "@"). A username mentioned several
+     *               times is reported several times.
+     */
+    public static void forEachMention(String text, Consumer<? super String> action) {
+        forEachTagged(text, '@', action);
+    }
+
+    /**
+     * Report every hashtag in a piece of text.
+     *
+     * @param text text of a tweet
+     * @param action called once per hashtag occurrence, in order of appearance, with the
+     *               lower-case tag (without the "#"). A tag used several times is
+     *               reported several times.
+     */
+    public static void forEachHashtag(String text, Consumer<? super String> action) {
+        forEachTagged(text, '#', action);
+    }
+
+    /*
+     * Report every run of the form sigil followed by one or more of a-z, 0-9, "_",
+     * where runs are cut as for mentions with sigil in place of "@".
+     */
+    private static void forEachTagged(String text, char sigil, Consumer<? super String> action) {
+        final int length = text.length();
+        int i = 0;
+
+        while(i < length){
+            char c = text.charAt(i);
+            if(fold(c, sigil) == 0){
+                i++;
+                continue;
+            }
+
+            //scan one maximal run [start, i)
+            final int start = i;
+            boolean tagged = c == sigil;
+            boolean alreadyLowerCase = true;
+            boolean endsRun = c == CAPITAL_I_WITH_DOT;
+            i++;
+
+            while(!endsRun && i < length){
+                c = text.charAt(i);
+                final char folded = fold(c, sigil);
+                if(folded == 0){
+                    break;
+                }
+                if(folded == sigil){
+                    tagged = false;
+                }else if(folded != c){
+                    alreadyLowerCase = false;
+                }
+                endsRun = c == CAPITAL_I_WITH_DOT;
+                i++;
+            }
+
+            if(tagged && i - start > 1){
+                action.accept(alreadyLowerCase ? text.substring(start + 1, i) : foldedRun(text, start + 1, i));
+            }
+        }
+    }
+
+    /*
+     * @return lower-case copy of text[from, to), where every character is in the run alphabet.
+     */
+    private static String foldedRun(String text, int from, int to) {
+        final char[] chars = new char[to - from];
+        for(int i = from; i < to; i++){
+            chars[i - from] = fold(text.charAt(i), '_');
+        }
+        return new String(chars);
+    }
+
+    /*
+     * @return the lower-case character c stands for if it belongs to a run
+     *         (a-z, 0-9, "_" or sigil after lower-casing), else 0.
+     */
+    private static char fold(char c, char sigil) {
+        if(c >= 'a' && c <= 'z' || c >= '0' && c <= '9' || c == '_' || c == sigil){
+            return c;
+        }
+        if(c >= 'A' && c <= 'Z'){
+            return (char) (c + ('a' - 'A'));
+        }
+        if(c == KELVIN_SIGN){
+            return 'k';
+        }
+        if(c == CAPITAL_I_WITH_DOT){
+            return 'i';
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,305 @@
+package twitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * PageRank influence scores over a CompactFollowsGraph, as an alternative to ranking by
+ * raw follower count: following someone passes on a share of the follower's own score,
+ * so followers whom nobody follows count for little, and a ring of users who follow each
+ * other cannot raise its members above the score the ring as a whole attracts.
+ *
+ * Scores are computed by power iteration. The graph's rows list whom each user follows;
+ * a transposed copy, listing each user's followers, is built once, so every iteration
+ * pulls score along incoming edges and each user's new score is written by exactly one
+ * thread. Users are cut into chunks of about equal work (users plus incoming edges), which
+ * run in parallel on a ForkJoinPool; the chunks and the order in which partial sums are
+ * combined depend only on the graph, so the scores do not depend on the number of
+ * threads. Users who follow no one spread their score evenly over everyone.
+ */
+public class PageRank {
+
+    /** probability of following an edge rather than jumping to a random user */
+    public static final double DEFAULT_DAMPING = 0.85;
+
+    /** iteration stops when the scores change by less than this in total (L1 norm) */
+    public static final double DEFAULT_TOLERANCE = 1e-6;
+
+    /** iteration stops after this many rounds even if the tolerance is not reached */
+    public static final int DEFAULT_MAX_ITERATIONS = 100;
+
+    /** number of users plus incoming edges handled by one parallel chunk */
+    private static final int CHUNK_WORK = 1 << 16;
+
+    /**
+     * Compute PageRank scores with the default damping, tolerance and iteration limit.
+     *
+     * @param graph follows graph
+     * @param pool pool to run the work on
+     * @return scores(graph, DEFAULT_DAMPING, DEFAULT_TOLERANCE, DEFAULT_MAX_ITERATIONS, pool)
+     */
+    public static double[] scores(CompactFollowsGraph graph, ForkJoinPool pool) {
+        return scores(graph, DEFAULT_DAMPING, DEFAULT_TOLERANCE, DEFAULT_MAX_ITERATIONS, pool);
+    }
+
+    /**
+     * Compute PageRank scores.
+     *
+     * @param graph follows graph
+     * @param damping probability of following an edge, in [0, 1)
+     * @param tolerance iteration stops once the sum over users of the change in score in
+     *                  one round is below this, > 0
+     * @param maxIterations iteration stops after this many rounds, >= 1
+     * @param pool pool to run the work on
+     * @return a new array of the score of each user, indexed by user id; scores are
+     *         positive and sum to 1 (up to rounding). Empty if the graph has no users.
+     */
+    public static double[] scores(CompactFollowsGraph graph, double damping, double tolerance,
+            int maxIterations, ForkJoinPool pool) {
+        if(!(damping >= 0 && damping < 1) || !(tolerance > 0) || maxIterations < 1){
+            throw new IllegalArgumentException("requires 0 <= damping < 1, tolerance > 0, maxIterations >= 1");
+        }
+        final int n = graph.userCount();
+        if(n == 0){
+            return new double[0];
+        }
+
+        final int[] offsets = graph.offsets();
+        final int[] targets = graph.targets();
+        final int[] inOffsets = new int[n + 1];
+        final int[] sources = transpose(offsets, targets, inOffsets);
+        final int[] bounds = chunkBounds(inOffsets);
+
+        double[] rank = new double[n];
+        double[] next = new double[n];
+        final double[] share = new double[n];
+        Arrays.fill(rank, 1.0 / n);
+
+        for(int iteration = 0; iteration < maxIterations; iteration++){
+            final double[] current = rank;
+            final double[] updated = next;
+
+            //each user's share per followed user; users who follow no one add to the dangling mass
+            final double dangling = sumOverChunks(pool, bounds, (from, to) -> {
+                double mass = 0;
+                for(int u = from; u < to; u++){
+                    final int outDegree = offsets[u + 1] - offsets[u];
+                    if(outDegree == 0){
+                        share[u] = 0;
+                        mass += current[u];
+                    }else{
+                        share[u] = current[u] / outDegree;
+                    }
+                }
+                return mass;
+            });
+
+            final double base = (1 - damping) / n + damping * dangling / n;
+            final double change = sumOverChunks(pool, bounds, (from, to) -> {
+                double delta = 0;
+                for(int v = from; v < to; v++){
+                    double pulled = 0;
+                    for(int i = inOffsets[v]; i < inOffsets[v + 1]; i++){
+                        pulled += share[sources[i]];
+                    }
+                    updated[v] = base + damping * pulled;
+                    delta += Math.abs(updated[v] - current[v]);
+                }
+                return delta;
+            });
+
+            next = current;
+            rank = updated;
+            if(change < tolerance){
+                break;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Rank users by PageRank score.
+     *
+     * @param graph follows graph
+     * @param k number of usernames wanted, >= 0
+     * @param pool pool to run the work on
+     * @return the min(k, graph.userCount()) usernames with the highest scores(graph, pool),
+     *         spelled as in graph, in descending order of score; equal scores are in order
+     *         of user id
+     */
+    public static List<String> topInfluencers(CompactFollowsGraph graph, int k, ForkJoinPool pool) {
+        if(k < 0){
+            throw new IllegalArgumentException("requires k >= 0");
+        }
+        final double[] scores = scores(graph, pool);
+
+        //min-heap of the best k seen so far, worst at the root
+        final int[] heap = new int[Math.min(k, scores.length)];
+        int heapSize = 0;
+        for(int id = 0; id < scores.length; id++){
+            if(heapSize < heap.length){
+                heap[heapSize] = id;
+                siftUp(heap, heapSize++, scores);
+            }else if(heapSize > 0 && ranksBefore(id, heap[0], scores)){
+                heap[0] = id;
+                siftDown(heap, heapSize, scores);
+            }
+        }
+
+        final String[] names = new String[heapSize];
+        while(heapSize > 0){
+            names[heapSize - 1] = graph.name(heap[0]);
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize, scores);
+        }
+        final List<String> result = new ArrayList<String>(names.length);
+        for(String name : names){
+            result.add(name);
+        }
+        return result;
+    }
+
+    /*
+     * Build the transpose of the rows offsets/targets: fills inOffsets and returns sources,
+     * where the users following v are sources[inOffsets[v] .. inOffsets[v + 1]), ascending.
+     */
+    private static int[] transpose(int[] offsets, int[] targets, int[] inOffsets) {
+        final int n = inOffsets.length - 1;
+        for(int target : targets){
+            inOffsets[target + 1]++;
+        }
+        for(int v = 0; v < n; v++){
+            inOffsets[v + 1] += inOffsets[v];
+        }
+
+        final int[] fill = Arrays.copyOf(inOffsets, n);
+        final int[] sources = new int[targets.length];
+        for(int u = 0; u < n; u++){
+            for(int i = offsets[u]; i < offsets[u + 1]; i++){
+                sources[fill[targets[i]]++] = u;
+            }
+        }
+        return sources;
+    }
+
+    /*
+     * @return ascending user ids 0 = b[0] < b[1] < ... < b[c] = n cutting the users into
+     *         ranges of about CHUNK_WORK users plus incoming edges (more for a user with
+     *         more followers than that)
+     */
+    private static int[] chunkBounds(int[] inOffsets) {
+        final int n = inOffsets.length - 1;
+        final List<Integer> bounds = new ArrayList<Integer>();
+        bounds.add(0);
+        long nextCut = CHUNK_WORK;
+        for(int v = 0; v < n; v++){
+            if((long) v + inOffsets[v] >= nextCut){
+                bounds.add(v);
+                nextCut = (long) v + inOffsets[v] + CHUNK_WORK;
+            }
+        }
+        bounds.add(n);
+
+        final int[] result = new int[bounds.size()];
+        for(int i = 0; i < result.length; i++){
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /*
+     * Work on the users [from, to), returning a partial sum.
+     */
+    private interface RangeSum {
+        double apply(int from, int to);
+    }
+
+    /*
+     * Run operation on every chunk of bounds in pool, and add up the results in a fixed
+     * order that depends only on bounds.
+     */
+    private static double sumOverChunks(ForkJoinPool pool, int[] bounds, RangeSum operation) {
+        return pool.invoke(new ChunkTask(bounds, 0, bounds.length - 1, operation));
+    }
+
+    /*
+     * Computes the sum of operation over chunks [from, to) of bounds.
+     */
+    private static class ChunkTask extends RecursiveTask<Double> {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] bounds;
+        private final int from;
+        private final int to;
+        private final RangeSum operation;
+
+        ChunkTask(int[] bounds, int from, int to, RangeSum operation) {
+            this.bounds = bounds;
+            this.from = from;
+            this.to = to;
+            this.operation = operation;
+        }
+
+        @Override protected Double compute() {
+            if(to - from == 1){
+                return operation.apply(bounds[from], bounds[to]);
+            }
+
+            final int mid = (from + to) >>> 1;
+            final ChunkTask left = new ChunkTask(bounds, from, mid, operation);
+            final ChunkTask right = new ChunkTask(bounds, mid, to, operation);
+            left.fork();
+            final double rightResult = right.compute();
+            return left.join() + rightResult;
+        }
+    }
+
+    /*
+     * @return true if user a ranks before user b: higher score, or equal score and lower id
+     */
+    private static boolean ranksBefore(int a, int b, double[] scores) {
+        return scores[a] > scores[b] || scores[a] == scores[b] && a < b;
+    }
+
+    /*
+     * Heap with the lowest-ranked user on top: restore order after heap[i] was set.
+     */
+    private static void siftUp(int[] heap, int i, double[] scores) {
+        while(i > 0){
+            final int parent = (i - 1) / 2;
+            if(!ranksBefore(heap[parent], heap[i], scores)){
+                return;
+            }
+            swap(heap, parent, i);
+            i = parent;
+        }
+    }
+
+    /*
+     * Heap with the lowest-ranked user on top: restore order after heap[0] was replaced.
+     */
+    private static void siftDown(int[] heap, int heapSize, double[] scores) {
+        int i = 0;
+        while(true){
+            final int left = 2 * i + 1;
+            if(left >= heapSize){
+                return;
+            }
+            final int worst = left + 1 < heapSize && ranksBefore(heap[left], heap[left + 1], scores) ? left + 1 : left;
+            if(!ranksBefore(heap[i], heap[worst], scores)){
+                return;
+            }
+            swap(heap, i, worst);
+            i = worst;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        final int tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+    }
+}
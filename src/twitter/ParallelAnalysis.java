@@ -0,0 +1,146 @@
+package twitter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * Parallel versions of the Extract and SocialNetwork operations, for large tweet lists.
+ *
+ * Each operation splits the list into contiguous shards on a ForkJoinPool, runs the
+ * sequential operation on every shard, and merges the partial results pairwise, left
+ * shard first. Every method returns the same result as its sequential counterpart.
+ */
+public class ParallelAnalysis {
+
+    /** shards smaller than this are not split further */
+    private static final int MIN_SHARD_SIZE = 1024;
+
+    /** number of shards per worker thread, so that uneven shards still balance */
+    private static final int SHARDS_PER_THREAD = 4;
+
+    /**
+     * Get the time period spanned by tweets, as Extract.getTimespan does.
+     *
+     * @param tweets list of tweets with distinct ids, not modified by this method.
+     * @param pool pool to run the work on
+     * @return a minimum-length time interval that contains the timestamp of
+     *         every tweet in the list.
+     */
+    public static Timespan getTimespan(List<Tweet> tweets, ForkJoinPool pool) {
+        final Instant[] bounds = run(tweets, pool, shard -> {
+            Instant earliest = Instant.MAX;
+            Instant latest = Instant.MIN;
+            for(Tweet tweet : shard){
+                final Instant timeStamp = tweet.getTimestamp();
+                latest = timeStamp.isAfter(latest) ? timeStamp : latest;
+                earliest = timeStamp.isBefore(earliest) ? timeStamp : earliest;
+            }
+            return new Instant[] {earliest, latest};
+        }, (left, right) -> new Instant[] {
+            left[0].isAfter(right[0]) ? right[0] : left[0],
+            left[1].isBefore(right[1]) ? right[1] : left[1]
+        });
+
+        return new Timespan(bounds[0], bounds[1]);
+    }
+
+    /**
+     * Get usernames mentioned in a list of tweets, as Extract.getMentionedUsers does.
+     *
+     * @param tweets list of tweets with distinct ids, not modified by this method.
+     * @param pool pool to run the work on
+     * @return the set of usernames who are mentioned in the text of the tweets,
+     *         as specified by Extract.getMentionedUsers.
+     */
+    public static Set<String> getMentionedUsers(List<Tweet> tweets, ForkJoinPool pool) {
+        return run(tweets, pool, Extract::getMentionedUsers, (left, right) -> {
+            //fold the smaller set into the larger one
+            if(left.size() < right.size()){
+                right.addAll(left);
+                return right;
+            }
+            left.addAll(right);
+            return left;
+        });
+    }
+
+    /**
+     * Guess who might follow whom, as SocialNetwork.guessFollowsGraph does.
+     *
+     * @param tweets a list of tweets providing the evidence, not modified by this method.
+     * @param pool pool to run the work on
+     * @return a social network equal to SocialNetwork.guessFollowsGraph(tweets), keyed by
+     *         the same spellings.
+     */
+    public static Map<String, Set<String>> guessFollowsGraph(List<Tweet> tweets, ForkJoinPool pool) {
+        return run(tweets, pool, SocialNetwork::guessFollowsGraph, (left, right) -> {
+            //merging into the left shard keeps the first spelling of every author
+            for(Map.Entry<String, Set<String>> entry : right.entrySet()){
+                final Set<String> mentions = left.get(entry.getKey());
+                if(mentions == null){
+                    left.put(entry.getKey(), entry.getValue());
+                }else{
+                    mentions.addAll(entry.getValue());
+                }
+            }
+            return left;
+        });
+    }
+
+    /*
+     * Run operation on the shards of tweets in pool and merge the results in list order.
+     */
+    private static <R> R run(List<Tweet> tweets, ForkJoinPool pool,
+            Function<List<Tweet>, R> operation, BinaryOperator<R> merge) {
+        final List<Tweet> shardable = tweets instanceof RandomAccess ? tweets : new ArrayList<Tweet>(tweets);
+        final int shardSize = Math.max(MIN_SHARD_SIZE,
+                shardable.size() / (pool.getParallelism() * SHARDS_PER_THREAD));
+
+        return pool.invoke(new ShardTask<R>(shardable, 0, shardable.size(), shardSize, operation, merge));
+    }
+
+    /*
+     * Computes the merged result of operation over tweets[from, to).
+     */
+    private static class ShardTask<R> extends RecursiveTask<R> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Tweet> tweets;
+        private final int from;
+        private final int to;
+        private final int shardSize;
+        private final Function<List<Tweet>, R> operation;
+        private final BinaryOperator<R> merge;
+
+        ShardTask(List<Tweet> tweets, int from, int to, int shardSize,
+                Function<List<Tweet>, R> operation, BinaryOperator<R> merge) {
+            this.tweets = tweets;
+            this.from = from;
+            this.to = to;
+            this.shardSize = shardSize;
+            this.operation = operation;
+            this.merge = merge;
+        }
+
+        @Override protected R compute() {
+            if(to - from <= shardSize){
+                return operation.apply(tweets.subList(from, to));
+            }
+
+            final int mid = (from + to) >>> 1;
+            final ShardTask<R> left = new ShardTask<R>(tweets, from, mid, shardSize, operation, merge);
+            final ShardTask<R> right = new ShardTask<R>(tweets, mid, to, shardSize, operation, merge);
+            left.fork();
+            final R rightResult = right.compute();
+            return merge.apply(left.join(), rightResult);
+        }
+    }
+}
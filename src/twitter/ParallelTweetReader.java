@@ -0,0 +1,500 @@
+package twitter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import javax.json.JsonException;
+
+/**
+ * Reads a large local file of tweets on several threads.
+ *
+ * The file is either a JSON array of tweets, in the format TweetReader reads, or
+ * newline-delimited JSON (JSONL): one tweet object per line. It is cut into byte ranges
+ * that end on record boundaries, each range is parsed by TweetStreamReader.readTweet on a
+ * worker thread, and the per-range lists are merged back in file order or, if asked, in
+ * the order of a comparator.
+ *
+ * Finding boundaries is cheap: for JSONL, a boundary is the first newline after each
+ * nominal cut. For an array, the ranges between nominal cuts are scanned in parallel,
+ * tracking nesting depth and string state without decoding any values; since a range may
+ * start inside a string, each is scanned from both states. Chaining these summaries from
+ * the start of the file gives the state at every cut, and a second parallel scan from
+ * each cut finds the next comma that separates top-level elements, usually within a
+ * tweet's length. Cuts are moved past any backslashes before them, so a range never starts
+ * in the middle of an escape. UTF-8 continuation bytes are never quotes, backslashes or
+ * brackets, so bytes can be scanned without decoding.
+ */
+public class ParallelTweetReader {
+
+    /** ranges smaller than this are not split further */
+    private static final long MIN_CHUNK_SIZE = 1 << 20;
+
+    /** number of ranges per worker thread, so that uneven ranges still balance */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private static final int SCAN_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Read every tweet of a file, in file order.
+     *
+     * @param file a JSON array of tweets, or one tweet object per line
+     * @param pool pool to run the work on
+     * @return the tweets of the file, in the order they appear in it
+     * @throws IOException if the file cannot be read
+     * @throws JsonException if the file is not a well-formed array or JSONL file of tweets
+     */
+    public static List<Tweet> read(Path file, ForkJoinPool pool) throws IOException {
+        return read(file, null, pool);
+    }
+
+    /**
+     * Read every tweet of a file, sorted.
+     *
+     * @param file a JSON array of tweets, or one tweet object per line
+     * @param order order of the result, e.g. by id or by timestamp; null for file order
+     * @param pool pool to run the work on
+     * @return the tweets of the file, sorted stably by order
+     * @throws IOException if the file cannot be read
+     * @throws JsonException if the file is not a well-formed array or JSONL file of tweets
+     */
+    public static List<Tweet> read(Path file, Comparator<? super Tweet> order, ForkJoinPool pool) throws IOException {
+        final int chunks = (int) Math.max(1, Math.min(pool.getParallelism() * CHUNKS_PER_THREAD,
+                Files.size(file) / MIN_CHUNK_SIZE));
+        return read(file, order, pool, chunks);
+    }
+
+    /**
+     * Read every tweet of a file, as read(file, order, pool) does, cutting it into a given
+     * number of ranges.
+     *
+     * @param chunks number of ranges wanted, > 0; fewer are used if the file has fewer
+     *               records
+     */
+    static List<Tweet> read(Path file, Comparator<? super Tweet> order, ForkJoinPool pool, int chunks)
+            throws IOException {
+        final long[] bounds;
+        final boolean array;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final int first = firstByte(channel);
+            if(first < 0){
+                return new ArrayList<Tweet>();
+            }
+            array = first == '[';
+            if(!array && first != '{'){
+                throw new JsonException("expected a JSON array or JSON lines of tweets");
+            }
+            bounds = array ? arrayBounds(channel, chunks, pool) : lineBounds(channel, chunks);
+        }
+
+        final List<Future<List<Tweet>>> futures = new ArrayList<Future<List<Tweet>>>();
+        for(int i = 0; i + 1 < bounds.length; i++){
+            final int chunk = i;
+            futures.add(pool.submit(() -> {
+                final List<Tweet> tweets = array
+                        ? readArrayChunk(file, bounds, chunk)
+                        : readLines(file, bounds[chunk], bounds[chunk + 1]);
+                if(order != null){
+                    tweets.sort(order);
+                }
+                return tweets;
+            }));
+        }
+
+        final List<List<Tweet>> results = new ArrayList<List<Tweet>>(futures.size());
+        for(Future<List<Tweet>> future : futures){
+            results.add(join(future));
+        }
+        return order == null ? concatenate(results) : merge(results, order);
+    }
+
+    /**
+     * Cut an array file into ranges ending on top-level commas, scanning it in parallel.
+     *
+     * @return offsets 0 = b[0] < b[1] < ... < b[n] = size, where each inner b[i] is the
+     *         offset of a comma that separates two tweets of the top-level array
+     */
+    static long[] arrayBounds(FileChannel channel, int chunks, ForkJoinPool pool) throws IOException {
+        final long size = channel.size();
+
+        //nominal cuts, each moved past any backslashes before it so it never follows an escape
+        final long[] cuts = new long[chunks + 1];
+        for(int i = 1; i < chunks; i++){
+            cuts[i] = skipBackslashes(channel, Math.max(size / chunks * i, cuts[i - 1]));
+        }
+        cuts[chunks] = size;
+
+        //each range but the last, scanned from outside and from inside a string
+        final List<Future<Scanner[]>> summaries = new ArrayList<Future<Scanner[]>>(chunks);
+        for(int i = 0; i + 1 < chunks; i++){
+            final int chunk = i;
+            summaries.add(pool.submit(() -> {
+                final Scanner[] scanners = {new Scanner(Scanner.OUTSIDE, 0), new Scanner(Scanner.INSIDE, 0)};
+                scan(channel, cuts[chunk], cuts[chunk + 1], scanners, false);
+                return scanners;
+            }));
+        }
+
+        //chain the summaries to find the actual state at each cut
+        final int[] states = new int[chunks];
+        final long[] depths = new long[chunks];
+        for(int i = 0; i + 1 < chunks; i++){
+            final Scanner end = join(summaries.get(i))[states[i] == Scanner.OUTSIDE ? 0 : 1];
+            states[i + 1] = end.state;
+            depths[i + 1] = depths[i] + end.depth;
+        }
+
+        //from each inner cut, the first separating comma before the next cut, if any
+        final List<Future<Long>> commas = new ArrayList<Future<Long>>(chunks);
+        for(int i = 1; i < chunks; i++){
+            final int chunk = i;
+            commas.add(pool.submit(() -> scan(channel, cuts[chunk], cuts[chunk + 1],
+                    new Scanner[] {new Scanner(states[chunk], depths[chunk])}, true)));
+        }
+
+        final List<Long> bounds = new ArrayList<Long>();
+        bounds.add(0L);
+        for(Future<Long> comma : commas){
+            final long offset = join(comma);
+            if(offset >= 0){
+                bounds.add(offset);
+            }
+        }
+        bounds.add(size);
+        return toArray(bounds);
+    }
+
+    /**
+     * Cut a JSONL file into ranges of whole lines.
+     *
+     * @return offsets 0 = b[0] < b[1] < ... < b[n] = size, where each inner b[i] is the
+     *         offset just after a newline
+     */
+    static long[] lineBounds(FileChannel channel, int chunks) throws IOException {
+        final long size = channel.size();
+        final List<Long> bounds = new ArrayList<Long>();
+        bounds.add(0L);
+
+        final ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        for(int i = 1; i < chunks; i++){
+            long position = Math.max(size / chunks * i, bounds.get(bounds.size() - 1));
+            long boundary = size;
+            search:
+            while(position < size){
+                buffer.clear();
+                final int read = channel.read(buffer, position);
+                if(read <= 0){
+                    break;
+                }
+                for(int j = 0; j < read; j++){
+                    if(buffer.get(j) == '\n'){
+                        boundary = position + j + 1;
+                        break search;
+                    }
+                }
+                position += read;
+            }
+            if(boundary >= size){
+                break;
+            }
+            if(boundary > bounds.get(bounds.size() - 1)){
+                bounds.add(boundary);
+            }
+        }
+
+        bounds.add(size);
+        return toArray(bounds);
+    }
+
+    /*
+     * Scanner of the bytes of a JSON array that tracks string state and nesting depth,
+     * without decoding any values.
+     */
+    private static class Scanner {
+        static final int OUTSIDE = 0;
+        static final int INSIDE = 1;
+        static final int ESCAPED = 2;
+
+        int state;
+        long depth;
+        /* Abstraction function:
+         *    represents a position in the file that is outside any string, inside one, or
+         *    inside one right after a backslash, according to state, with depth brackets
+         *    or braces open (relative to where the scan started)
+         */
+
+        Scanner(int state, long depth) {
+            this.state = state;
+            this.depth = depth;
+        }
+
+        /*
+         * Advance past one byte.
+         *
+         * @return true iff b is a comma between elements of the top-level array
+         */
+        boolean step(byte b) {
+            switch(state){
+            case INSIDE:
+                if(b == '\\'){
+                    state = ESCAPED;
+                }else if(b == '"'){
+                    state = OUTSIDE;
+                }
+                return false;
+            case ESCAPED:
+                state = INSIDE;
+                return false;
+            default:
+                if(b == '"'){
+                    state = INSIDE;
+                }else if(b == '{' || b == '['){
+                    depth++;
+                }else if(b == '}' || b == ']'){
+                    depth--;
+                }
+                return b == ',' && depth == 1;
+            }
+        }
+    }
+
+    /*
+     * Feed the bytes of [start, end) to every scanner, stopping early, if stopAtComma, at
+     * the first comma between top-level elements seen by scanners[0].
+     *
+     * @return offset of that comma, or -1 if stopAtComma is false or there is none
+     */
+    private static long scan(FileChannel channel, long start, long end, Scanner[] scanners, boolean stopAtComma)
+            throws IOException {
+        final byte[] bytes = new byte[SCAN_BUFFER_SIZE];
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long position = start;
+        while(position < end){
+            buffer.clear();
+            buffer.limit((int) Math.min(bytes.length, end - position));
+            final int read = channel.read(buffer, position);
+            if(read <= 0){
+                break;
+            }
+            for(int i = 0; i < read; i++){
+                final boolean comma = scanners[0].step(bytes[i]);
+                if(comma && stopAtComma){
+                    return position + i;
+                }
+                for(int j = 1; j < scanners.length; j++){
+                    scanners[j].step(bytes[i]);
+                }
+            }
+            position += read;
+        }
+        return -1;
+    }
+
+    /*
+     * @return the first offset >= cut that does not follow a backslash, or the size of the
+     *         file
+     */
+    private static long skipBackslashes(FileChannel channel, long cut) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(1);
+        long position = cut;
+        while(position > 0 && position < channel.size()){
+            buffer.clear();
+            if(channel.read(buffer, position - 1) <= 0 || buffer.get(0) != '\\'){
+                break;
+            }
+            position++;
+        }
+        return position;
+    }
+
+    /*
+     * Parse range chunk of an array file, made into an array of its own by adding the
+     * brackets the cut removed.
+     */
+    private static List<Tweet> readArrayChunk(Path file, long[] bounds, int chunk) throws IOException {
+        final boolean first = chunk == 0;
+        final boolean last = chunk == bounds.length - 2;
+        //inner ranges start at a separating comma, which the opening bracket replaces
+        final long start = first ? bounds[chunk] : bounds[chunk] + 1;
+
+        InputStream in = range(file, start, bounds[chunk + 1]);
+        if(!first){
+            in = new SequenceInputStream(new ByteArrayInputStream(new byte[] {'['}), in);
+        }
+        if(!last){
+            in = new SequenceInputStream(in, new ByteArrayInputStream(new byte[] {']'}));
+        }
+
+        final List<Tweet> tweets = new ArrayList<Tweet>();
+        try (TweetStreamReader reader = new TweetStreamReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            reader.forEachRemaining(tweets::add);
+        }
+        return tweets;
+    }
+
+    /*
+     * Parse the lines of a JSONL file in [start, end), skipping blank lines.
+     */
+    private static List<Tweet> readLines(Path file, long start, long end) throws IOException {
+        final List<Tweet> tweets = new ArrayList<Tweet>();
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(range(file, start, end), StandardCharsets.UTF_8))) {
+            String line;
+            while((line = lines.readLine()) != null){
+                if(!line.trim().isEmpty()){
+                    tweets.add(JsonLinesTweetReader.parseLine(line));
+                }
+            }
+        }
+        return tweets;
+    }
+
+    /*
+     * @return stream of the bytes of file in [start, end), on a channel of its own
+     */
+    private static InputStream range(Path file, long start, long end) throws IOException {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        channel.position(start);
+        final InputStream in = Channels.newInputStream(channel);
+        return new InputStream() {
+            private long remaining = end - start;
+
+            @Override public int read() throws IOException {
+                if(remaining <= 0){
+                    return -1;
+                }
+                final int b = in.read();
+                if(b >= 0){
+                    remaining--;
+                }
+                return b;
+            }
+
+            @Override public int read(byte[] b, int off, int len) throws IOException {
+                if(remaining <= 0){
+                    return -1;
+                }
+                final int read = in.read(b, off, (int) Math.min(len, remaining));
+                if(read > 0){
+                    remaining -= read;
+                }
+                return read;
+            }
+
+            @Override public void close() throws IOException {
+                in.close();
+            }
+        };
+    }
+
+    /*
+     * @return offset of the first byte that is not JSON whitespace, or -1 if there is none
+     */
+    private static int firstByte(FileChannel channel) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long position = 0;
+        int read;
+        while((read = channel.read(buffer, position)) > 0){
+            for(int i = 0; i < read; i++){
+                final byte b = buffer.get(i);
+                if(b != ' ' && b != '\t' && b != '\n' && b != '\r'){
+                    return b & 0xFF;
+                }
+            }
+            position += read;
+            buffer.clear();
+        }
+        return -1;
+    }
+
+    /*
+     * Wait for a task, rethrowing its failure as thrown by the worker.
+     */
+    private static <T> T join(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while reading tweets", ie);
+        } catch (ExecutionException ee) {
+            final Throwable cause = ee.getCause();
+            if(cause instanceof IOException){
+                throw (IOException) cause;
+            }
+            if(cause instanceof UncheckedIOException){
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if(cause instanceof RuntimeException){
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private static List<Tweet> concatenate(List<List<Tweet>> chunks) {
+        int total = 0;
+        for(List<Tweet> chunk : chunks){
+            total += chunk.size();
+        }
+        final List<Tweet> result = new ArrayList<Tweet>(total);
+        for(List<Tweet> chunk : chunks){
+            result.addAll(chunk);
+        }
+        return result;
+    }
+
+    /*
+     * k-way merge of sorted chunks; ties are taken from the earlier chunk first, so the
+     * merge is stable.
+     */
+    private static List<Tweet> merge(List<List<Tweet>> chunks, Comparator<? super Tweet> order) {
+        final int[] cursors = new int[chunks.size()];
+        final PriorityQueue<Integer> heads = new PriorityQueue<Integer>(Math.max(1, chunks.size()),
+                (a, b) -> {
+                    final int byOrder = order.compare(chunks.get(a).get(cursors[a]), chunks.get(b).get(cursors[b]));
+                    return byOrder != 0 ? byOrder : Integer.compare(a, b);
+                });
+        int total = 0;
+        for(int i = 0; i < chunks.size(); i++){
+            total += chunks.get(i).size();
+            if(!chunks.get(i).isEmpty()){
+                heads.add(i);
+            }
+        }
+
+        final List<Tweet> result = new ArrayList<Tweet>(total);
+        while(!heads.isEmpty()){
+            final int chunk = heads.poll();
+            result.add(chunks.get(chunk).get(cursors[chunk]++));
+            if(cursors[chunk] < chunks.get(chunk).size()){
+                heads.add(chunk);
+            }
+        }
+        return result;
+    }
+
+    private static long[] toArray(List<Long> values) {
+        final long[] result = new long[values.size()];
+        for(int i = 0; i < result.length; i++){
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,137 @@
+package twitter;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Operations on posting lists: strictly ascending arrays of tweet positions, as stored
+ * by TweetIndex. Posting lists passed to these methods are not modified.
+ */
+class Postings {
+
+    /** the empty posting list */
+    static final int[] EMPTY = new int[0];
+
+    /**
+     * @param lists posting lists
+     * @return a new posting list holding every position found in at least one of lists
+     */
+    static int[] union(List<int[]> lists) {
+        if(lists.isEmpty()){
+            return EMPTY;
+        }
+        if(lists.size() == 1){
+            return lists.get(0).clone();
+        }
+
+        int total = 0;
+        for(int[] list : lists){
+            total += list.length;
+        }
+
+        final int[] all = new int[total];
+        int size = 0;
+        for(int[] list : lists){
+            System.arraycopy(list, 0, all, size, list.length);
+            size += list.length;
+        }
+        Arrays.sort(all);
+
+        return distinct(all);
+    }
+
+    /**
+     * Intersect two posting lists. When one list is much shorter than the other, each of
+     * its positions is found in the longer list by galloping search, so the cost is
+     * O(m log(n / m)) rather than O(m + n).
+     *
+     * @param a posting list
+     * @param b posting list
+     * @return a new posting list holding every position found in both a and b
+     */
+    static int[] intersect(int[] a, int[] b) {
+        final int[] shorter = a.length <= b.length ? a : b;
+        final int[] longer = a.length <= b.length ? b : a;
+        final int[] result = new int[shorter.length];
+        int size = 0;
+        int from = 0;
+        for(int position : shorter){
+            from = gallop(longer, from, position);
+            if(from == longer.length){
+                break;
+            }
+            if(longer[from] == position){
+                result[size++] = position;
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    /**
+     * @param a posting list
+     * @param b posting list
+     * @return a new posting list holding every position found in a but not in b
+     */
+    static int[] difference(int[] a, int[] b) {
+        final int[] result = new int[a.length];
+        int size = 0;
+        int from = 0;
+        for(int position : a){
+            from = gallop(b, from, position);
+            if(from == b.length || b[from] != position){
+                result[size++] = position;
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    /**
+     * @param size number of positions, >= 0
+     * @return the posting list 0, 1, ..., size - 1
+     */
+    static int[] range(int size) {
+        final int[] all = new int[size];
+        for(int i = 0; i < size; i++){
+            all[i] = i;
+        }
+        return all;
+    }
+
+    /*
+     * @return least i >= from such that list[i] >= position, or list.length if there is
+     *         none; found by doubling the step from 'from', then binary search
+     */
+    private static int gallop(int[] list, int from, int position) {
+        int low = from;
+        int step = 1;
+        int high = from;
+        while(high < list.length && list[high] < position){
+            low = high + 1;
+            high = from + step;
+            step *= 2;
+        }
+        high = Math.min(high, list.length);
+        while(low < high){
+            final int mid = (low + high) >>> 1;
+            if(list[mid] < position){
+                low = mid + 1;
+            }else{
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /*
+     * @return sorted without its duplicate values
+     */
+    private static int[] distinct(int[] sorted) {
+        int size = 0;
+        for(int i = 0; i < sorted.length; i++){
+            if(size == 0 || sorted[size - 1] != sorted[i]){
+                sorted[size++] = sorted[i];
+            }
+        }
+        return size == sorted.length ? sorted : Arrays.copyOf(sorted, size);
+    }
+}
@@ -3,13 +3,12 @@
  */
 package twitter;
 
-import java.util.Arrays;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * SocialNetwork provides methods that operate on a social network.
@@ -48,20 +47,21 @@ public class SocialNetwork {
         //a map with case insensitive keys
         final Map<String,Set<String>> followsGraph = new TreeMap<String,Set<String>>(String.CASE_INSENSITIVE_ORDER);
         
+        //single pass: each tweet contributes its mentions to the set of its (case insensitive) author,
+        //so the cost is linear in the number of tweets rather than tweets x authors
         for(Tweet tweet : tweets){
             final String author = tweet.getAuthor();
-            if(!followsGraph.containsKey(author)){
-                final Set<String> mentionedUsers = 
-                        Extract.getMentionedUsers(Filter.writtenBy(tweets, author));
-                
-                //the set s stored in map for a given key must also have case insensitive property.
-                //That is, s.contains(x) iff. s.contains(x.toLowerCase()) for any string x
-                final Set<String> caseInsensitiveMentions = new TreeSet<String>(String.CASE_INSENSITIVE_ORDER);
-                caseInsensitiveMentions.addAll(mentionedUsers);
-                caseInsensitiveMentions.remove(author);
-                
-                followsGraph.put(author, caseInsensitiveMentions);
-            }
+            
+            //the set s stored in map for a given key must also have case insensitive property.
+            //That is, s.contains(x) iff. s.contains(x.toLowerCase()) for any string x
+            final Set<String> mentions = followsGraph.computeIfAbsent(author,
+                    key -> new TreeSet<String>(String.CASE_INSENSITIVE_ORDER));
+            
+            MentionScanner.forEachMention(tweet.getText(), mentionedUser -> {
+                if(!mentionedUser.equalsIgnoreCase(author)){
+                    mentions.add(mentionedUser);
+                }
+            });
         }
         
         return followsGraph;
@@ -77,36 +77,59 @@ public class SocialNetwork {
      *         descending order of follower count.
      */
     public static List<String> influencers(Map<String, Set<String>> followsGraph) {
-        //having a case insensitive frequency histogram simplifies the problem
-        Map<String,Integer> followerCount = new TreeMap<String,Integer>(String.CASE_INSENSITIVE_ORDER);
+        //the full ranking is a sort on counts computed once, rather than on map lookups per comparison
+        return countFollowers(followsGraph).sortedByCount();
+    }
+
+    /**
+     * Find the k people in a social network who have the most followers.
+     * 
+     * Selects with a bounded heap, so it costs O(U log k) for U distinct usernames rather
+     * than the O(U log U) of sorting everyone.
+     * 
+     * @param followsGraph
+     *            a social network (as defined above)
+     * @param k
+     *            number of usernames wanted, >= 0
+     * @return the min(k, U) distinct Twitter usernames in followsGraph with the most
+     *         followers, in descending order of follower count; ties are broken the same
+     *         way as in influencers(followsGraph), of which this list is a prefix.
+     */
+    public static List<String> topInfluencers(Map<String, Set<String>> followsGraph, int k) {
+        return countFollowers(followsGraph).top(k);
+    }
+
+    /**
+     * Find the people in a social network who have the greatest influence, in the sense
+     * of PageRank: a user is influential if they are followed by influential users, so
+     * users who only follow each other rank below users followed from across the network.
+     * 
+     * Runs PageRank's parallel power iteration on the common ForkJoinPool.
+     * 
+     * @param followsGraph
+     *            a social network (as defined above)
+     * @return a list of all distinct Twitter usernames in followsGraph, in
+     *         descending order of PageRank score.
+     */
+    public static List<String> pageRankInfluencers(Map<String, Set<String>> followsGraph) {
+        final CompactFollowsGraph graph = CompactFollowsGraph.fromMap(followsGraph);
+        return PageRank.topInfluencers(graph, graph.userCount(), ForkJoinPool.commonPool());
+    }
+
+    /*
+     * @return a counter in which every username of followsGraph (a key or a member of a
+     *         followed set) is counted once for each distinct user that follows it
+     */
+    private static UsernameCounter countFollowers(Map<String, Set<String>> followsGraph) {
+        final UsernameCounter followerCount = new UsernameCounter();
         
-        //construct a mapping in followerCount; such, every username in followerCount key set is
-        //associated with a number of times it appears in either the key set or the set associated
-        //with a key in followsGraph
-        for(String usr : followsGraph.keySet()){
-            followerCount.putIfAbsent(usr, 0);
-            for(String followedByUsr : followsGraph.get(usr)){
-                
-                followerCount.put(followedByUsr, 
-                        followerCount.getOrDefault(followedByUsr, 0) + 1);
-                
+        for(Map.Entry<String, Set<String>> entry : followsGraph.entrySet()){
+            followerCount.add(entry.getKey(), 0);
+            for(String followedByUsr : entry.getValue()){
+                followerCount.add(followedByUsr, 1);
             }
         }
         
-        String[] users = new String[followerCount.size()];
-        followerCount.keySet().toArray(users);
-        
-        Arrays.sort(users, new Comparator<String>(){
-            @Override
-            public int compare(String o1, String o2) {
-                
-                final Integer val1 = followerCount.get(o1);
-                final Integer val2 = followerCount.get(o2);
-                
-                return -Integer.compare(val1, val2);
-            }      
-        });
-        
-        return Arrays.asList(users);
+        return followerCount;
     }
 }
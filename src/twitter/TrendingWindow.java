@@ -0,0 +1,497 @@
+package twitter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Mutable sliding-window counts of mentions and hashtags over a stream of tweets, for
+ * answering "what is trending in the last few minutes" as tweets arrive.
+ *
+ * Time is cut into buckets of a fixed width, by tweet timestamp, and the window is the
+ * newest bucketCount buckets. Each bucket keeps its own primitive count map from term id
+ * to count, in a ring of bucketCount slots, and a running total over the whole window is
+ * kept beside them. Moving the window forward subtracts the expiring bucket's counts from
+ * the totals and reuses its slot, so each counted occurrence is added once and expired
+ * once, and the tweets themselves are never kept or rescanned.
+ *
+ * Mentions and hashtags are found by MentionScanner and counted once per occurrence,
+ * case-insensitively. A term is forgotten, and its id reused, when its last occurrence
+ * expires, so memory and the cost of a top-k query grow with the number of distinct terms
+ * in the window, not with the number ever seen.
+ *
+ * Not thread safe.
+ */
+public class TrendingWindow {
+
+    private final long bucketMillis;
+    private final int bucketCount;
+    private final Tally mentions;
+    private final Tally hashtags;
+    private long newestBucket = Long.MIN_VALUE;
+    private long lateCount;
+    /* Rep invariant:
+     *    bucketMillis > 0, bucketCount > 0
+     *    for each tally, the total of every term is the sum of its counts in the buckets of
+     *    the ring; the ring slot of bucket b is floorMod(b, bucketCount), and slots of
+     *    buckets outside (newestBucket - bucketCount, newestBucket] are empty
+     * Abstraction function:
+     *    represents the counts of mentions and hashtags in the tweets added so far whose
+     *    timestamps fall in buckets (newestBucket - bucketCount, newestBucket], where bucket
+     *    b covers epoch milliseconds [b * bucketMillis, (b + 1) * bucketMillis); no tweets
+     *    if newestBucket == Long.MIN_VALUE
+     */
+
+    /**
+     * Make an empty window.
+     *
+     * @param window length of the window; a positive whole multiple of bucketWidth
+     * @param bucketWidth resolution with which the window moves, at least one millisecond
+     */
+    public TrendingWindow(Duration window, Duration bucketWidth) {
+        final long bucketMillis = bucketWidth.toMillis();
+        if(bucketMillis <= 0){
+            throw new IllegalArgumentException("requires bucketWidth >= 1 ms");
+        }
+        final long windowMillis = window.toMillis();
+        if(windowMillis <= 0 || windowMillis % bucketMillis != 0 || windowMillis / bucketMillis > Integer.MAX_VALUE){
+            throw new IllegalArgumentException("requires window to be a positive multiple of bucketWidth");
+        }
+        this.bucketMillis = bucketMillis;
+        this.bucketCount = (int) (windowMillis / bucketMillis);
+        this.mentions = new Tally(bucketCount);
+        this.hashtags = new Tally(bucketCount);
+    }
+
+    /**
+     * Count the mentions and hashtags of a tweet. If the tweet is newer than the window,
+     * the window first moves forward to end with the tweet's bucket.
+     *
+     * @param tweet tweet to count
+     * @return true if the tweet was counted, false if it is older than the window
+     */
+    public boolean add(Tweet tweet) {
+        final long bucket = bucketOf(tweet.getTimestamp());
+        advance(bucket);
+        if(bucket <= newestBucket - bucketCount){
+            lateCount++;
+            return false;
+        }
+
+        final int slot = (int) Math.floorMod(bucket, (long) bucketCount);
+        MentionScanner.forEachMention(tweet.getText(), username -> mentions.add(slot, username));
+        MentionScanner.forEachHashtag(tweet.getText(), tag -> hashtags.add(slot, tag));
+        return true;
+    }
+
+    /**
+     * Move the window forward to end with the bucket holding a point in time, expiring
+     * the buckets that fall out of it, e.g. on a timer while the stream is quiet. Has no
+     * effect if the window already ends at or after that bucket.
+     *
+     * @param now date/time
+     */
+    public void advanceTo(Instant now) {
+        advance(bucketOf(now));
+    }
+
+    /**
+     * @param k number of usernames wanted, >= 0
+     * @return the at most k usernames mentioned most often in the window, lower-case, in
+     *         descending order of count; usernames with equal counts are in the order
+     *         they entered the window (a username whose occurrences all expired enters
+     *         anew when it next appears)
+     */
+    public List<String> topMentions(int k) {
+        return mentions.top(k);
+    }
+
+    /**
+     * @param k number of hashtags wanted, >= 0
+     * @return the at most k hashtags used most often in the window, lower-case and without
+     *         the "#", in descending order of count; hashtags with equal counts are in the
+     *         order they entered the window, as for topMentions()
+     */
+    public List<String> topHashtags(int k) {
+        return hashtags.top(k);
+    }
+
+    /**
+     * @param username a valid Twitter username
+     * @return number of times username is mentioned in the window, case-insensitively
+     */
+    public int getMentionCount(String username) {
+        return mentions.get(username);
+    }
+
+    /**
+     * @param hashtag a hashtag without the "#"
+     * @return number of times hashtag is used in the window, case-insensitively
+     */
+    public int getHashtagCount(String hashtag) {
+        return hashtags.get(hashtag);
+    }
+
+    /**
+     * @return number of tweets not counted by add() because they were older than the window
+     */
+    public long getLateCount() {
+        return lateCount;
+    }
+
+    /*
+     * @return number of distinct mentions and hashtags the window holds counts for
+     */
+    int trackedTermCount() {
+        return mentions.size() + hashtags.size();
+    }
+
+    /*
+     * @return the bucket holding instant
+     */
+    private long bucketOf(Instant instant) {
+        return Math.floorDiv(TweetTimeline.epochMillis(instant), bucketMillis);
+    }
+
+    /*
+     * Move the window forward to end with bucket, emptying the slots it reuses.
+     */
+    private void advance(long bucket) {
+        if(newestBucket != Long.MIN_VALUE && bucket <= newestBucket){
+            return;
+        }
+        //at most one pass over the ring, however far the window jumps
+        final long expired = newestBucket == Long.MIN_VALUE ? 0 : Math.min(bucket - newestBucket, bucketCount);
+        for(long b = bucket - expired + 1; b <= bucket; b++){
+            final int slot = (int) Math.floorMod(b, (long) bucketCount);
+            mentions.expire(slot);
+            hashtags.expire(slot);
+        }
+        newestBucket = bucket;
+    }
+
+    /*
+     * Window totals of one kind of term, with the per-bucket counts that make them up.
+     * Terms are interned to ids through an open-addressing table; a term whose total
+     * drops to 0 is removed from the table and its id is reused, so the table holds only
+     * the terms in the window.
+     */
+    private static class Tally {
+        private static final int INITIAL_CAPACITY = 16;
+
+        final CountMap[] buckets;
+        private int[] table = new int[INITIAL_CAPACITY * 2];
+        private String[] terms = new String[INITIAL_CAPACITY];
+        private int[] totals = new int[INITIAL_CAPACITY];
+        private long[] entered = new long[INITIAL_CAPACITY];
+        private int[] slots = new int[INITIAL_CAPACITY];
+        private int[] freeIds = new int[INITIAL_CAPACITY];
+        private int freeCount;
+        private int idLimit;
+        private int size;
+        private long sequence;
+        /* Rep invariant:
+         *    table.length == 2 * terms.length is a power of two, and terms, totals,
+         *    entered, slots and freeIds have the same length
+         *    the ids in use are those of [0, idLimit) not in freeIds[0..freeCount), and
+         *    there are size of them; terms[id] == null iff id is not in use
+         *    for each id in use: terms[id] is lower-case, totals[id] > 0, and
+         *    table[slots[id]] == id + 1, found by linear probing from the hash of
+         *    terms[id]; every other slot of table is 0
+         *    entered[id] < sequence for each id in use, and the entered values are distinct
+         *    the counts of an id in the buckets add up to totals[id]
+         * Abstraction function:
+         *    represents the count totals[id] of terms[id] in the window, for each id in
+         *    use, entered[id] telling the order in which the terms entered the window;
+         *    every other term has a count of 0
+         */
+
+        Tally(int bucketCount) {
+            this.buckets = new CountMap[bucketCount];
+            for(int i = 0; i < bucketCount; i++){
+                buckets[i] = new CountMap();
+            }
+        }
+
+        void add(int slot, String term) {
+            int tableSlot = slotOf(term);
+            if(table[tableSlot] == 0){
+                if(freeCount == 0 && idLimit == terms.length){
+                    grow();
+                    tableSlot = slotOf(term);
+                }
+                final int id = freeCount > 0 ? freeIds[--freeCount] : idLimit++;
+                terms[id] = term;
+                entered[id] = sequence++;
+                slots[id] = tableSlot;
+                table[tableSlot] = id + 1;
+                size++;
+            }
+            final int id = table[tableSlot] - 1;
+            totals[id]++;
+            buckets[slot].add(id, 1);
+        }
+
+        /*
+         * Subtract the counts of a bucket from the totals, forgetting the terms whose
+         * totals reach 0, and empty the bucket.
+         */
+        void expire(int slot) {
+            final CountMap bucket = buckets[slot];
+            for(int i = 0; i < bucket.size(); i++){
+                final int id = bucket.id(i);
+                totals[id] -= bucket.count(i);
+                if(totals[id] == 0){
+                    remove(id);
+                }
+            }
+            bucket.clear();
+        }
+
+        /*
+         * @return the count of term in the window, case-insensitively
+         */
+        int get(String term) {
+            final int tableSlot = slotOf(TwitterUtility.normalizeUsername(term));
+            return table[tableSlot] == 0 ? 0 : totals[table[tableSlot] - 1];
+        }
+
+        /*
+         * @return number of terms in the window
+         */
+        int size() {
+            return size;
+        }
+
+        /*
+         * @return the first min(k, terms in the window) terms by descending total; equal
+         *         totals in the order the terms entered the window
+         */
+        List<String> top(int k) {
+            if(k < 0){
+                throw new IllegalArgumentException("requires k >= 0");
+            }
+            //min-heap of the best k seen so far, worst at the root
+            final int[] heap = new int[Math.min(k, size)];
+            int heapSize = 0;
+            for(int id = 0; id < idLimit; id++){
+                if(terms[id] == null){
+                    continue;
+                }
+                if(heapSize < heap.length){
+                    heap[heapSize] = id;
+                    siftUp(heap, heapSize++);
+                }else if(heapSize > 0 && ranksBefore(id, heap[0])){
+                    heap[0] = id;
+                    siftDown(heap, heapSize);
+                }
+            }
+
+            final String[] names = new String[heapSize];
+            while(heapSize > 0){
+                names[heapSize - 1] = terms[heap[0]];
+                heap[0] = heap[--heapSize];
+                siftDown(heap, heapSize);
+            }
+            return Arrays.asList(names);
+        }
+
+        /*
+         * @return the slot of table holding term, or the empty slot where it belongs
+         */
+        private int slotOf(String term) {
+            final int mask = table.length - 1;
+            int tableSlot = UsernameDictionary.mix(term.hashCode()) & mask;
+            while(table[tableSlot] != 0 && !terms[table[tableSlot] - 1].equals(term)){
+                tableSlot = (tableSlot + 1) & mask;
+            }
+            return tableSlot;
+        }
+
+        /*
+         * Forget the term with an id, shifting back later entries of its probe run so that
+         * every entry stays reachable by linear probing, and free the id.
+         */
+        private void remove(int id) {
+            final int mask = table.length - 1;
+            int hole = slots[id];
+            int next = (hole + 1) & mask;
+            while(table[next] != 0){
+                final int entry = table[next] - 1;
+                final int home = UsernameDictionary.mix(terms[entry].hashCode()) & mask;
+                //the entry may move into the hole unless its home lies cyclically in (hole, next]
+                if(((next - home) & mask) >= ((next - hole) & mask)){
+                    table[hole] = table[next];
+                    slots[entry] = hole;
+                    hole = next;
+                }
+                next = (next + 1) & mask;
+            }
+            table[hole] = 0;
+            terms[id] = null;
+            freeIds[freeCount++] = id;
+            size--;
+        }
+
+        /*
+         * Double the capacity and rehash. Called only when every id is in use.
+         */
+        private void grow() {
+            final int capacity = terms.length * 2;
+            terms = Arrays.copyOf(terms, capacity);
+            totals = Arrays.copyOf(totals, capacity);
+            entered = Arrays.copyOf(entered, capacity);
+            slots = Arrays.copyOf(slots, capacity);
+            freeIds = new int[capacity];
+            table = new int[capacity * 2];
+            final int mask = table.length - 1;
+            for(int id = 0; id < idLimit; id++){
+                int tableSlot = UsernameDictionary.mix(terms[id].hashCode()) & mask;
+                while(table[tableSlot] != 0){
+                    tableSlot = (tableSlot + 1) & mask;
+                }
+                table[tableSlot] = id + 1;
+                slots[id] = tableSlot;
+            }
+        }
+
+        /*
+         * @return true if term a ranks before term b: higher total, or equal total and
+         *         entered the window earlier
+         */
+        private boolean ranksBefore(int a, int b) {
+            return totals[a] > totals[b] || totals[a] == totals[b] && entered[a] < entered[b];
+        }
+
+        /*
+         * Heap with the lowest-ranked term on top: restore order after heap[i] was set.
+         */
+        private void siftUp(int[] heap, int i) {
+            while(i > 0){
+                final int parent = (i - 1) / 2;
+                if(!ranksBefore(heap[parent], heap[i])){
+                    return;
+                }
+                swap(heap, parent, i);
+                i = parent;
+            }
+        }
+
+        /*
+         * Heap with the lowest-ranked term on top: restore order after heap[0] was replaced.
+         */
+        private void siftDown(int[] heap, int heapSize) {
+            int i = 0;
+            while(true){
+                final int left = 2 * i + 1;
+                if(left >= heapSize){
+                    return;
+                }
+                final int worst = left + 1 < heapSize && ranksBefore(heap[left], heap[left + 1]) ? left + 1 : left;
+                if(!ranksBefore(heap[i], heap[worst])){
+                    return;
+                }
+                swap(heap, i, worst);
+                i = worst;
+            }
+        }
+
+        private static void swap(int[] heap, int i, int j) {
+            final int tmp = heap[i];
+            heap[i] = heap[j];
+            heap[j] = tmp;
+        }
+    }
+
+    /*
+     * Mutable map from id to count, as parallel int arrays indexed through an
+     * open-addressing table, that can be emptied in time proportional to its size.
+     */
+    private static class CountMap {
+        private static final int INITIAL_CAPACITY = 8;
+
+        private int[] table = new int[INITIAL_CAPACITY * 2];
+        private int[] ids = new int[INITIAL_CAPACITY];
+        private int[] counts = new int[INITIAL_CAPACITY];
+        private int[] slots = new int[INITIAL_CAPACITY];
+        private int size;
+        /* Rep invariant:
+         *    table.length is a power of two, and size <= table.length / 2
+         *    table[slots[i]] == i + 1 for 0 <= i < size, found by linear probing from the
+         *    hash of ids[i]; every other slot of table is 0
+         *    the ids are distinct
+         * Abstraction function:
+         *    represents the map from ids[i] to counts[i], for 0 <= i < size
+         */
+
+        void add(int id, int delta) {
+            final int mask = table.length - 1;
+            int slot = UsernameDictionary.mix(id) & mask;
+            while(table[slot] != 0){
+                final int entry = table[slot] - 1;
+                if(ids[entry] == id){
+                    counts[entry] += delta;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            if(size == ids.length){
+                grow();
+                add(id, delta);
+                return;
+            }
+            ids[size] = id;
+            counts[size] = delta;
+            slots[size] = slot;
+            table[slot] = ++size;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /*
+         * @return the id of the i-th entry, 0 <= i < size()
+         */
+        int id(int i) {
+            return ids[i];
+        }
+
+        /*
+         * @return the count of the i-th entry, 0 <= i < size()
+         */
+        int count(int i) {
+            return counts[i];
+        }
+
+        /*
+         * Empty this map.
+         */
+        void clear() {
+            for(int i = 0; i < size; i++){
+                table[slots[i]] = 0;
+            }
+            size = 0;
+        }
+
+        /*
+         * Double the capacity and rehash.
+         */
+        private void grow() {
+            final int[] oldIds = ids;
+            final int[] oldCounts = counts;
+            final int oldSize = size;
+
+            table = new int[table.length * 2];
+            ids = new int[ids.length * 2];
+            counts = new int[counts.length * 2];
+            slots = new int[slots.length * 2];
+            size = 0;
+            for(int i = 0; i < oldSize; i++){
+                add(oldIds[i], oldCounts[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package twitter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Read-only, memory-mapped view of a binary tweet archive written by TweetArchiveWriter.
+ *
+ * Opening an archive maps the file and reads its header; nothing else is read or parsed
+ * until a tweet is asked for, so opening costs the same whatever the size of the archive.
+ * Ids and timestamps can be read straight from the mapped records; a Tweet object is only
+ * built (decoding its text) when get() is called.
+ *
+ * File layout, all integers big-endian:
+ *   header:  int magic, int version, long tweet count, long author count, 8 bytes reserved
+ *   records: one per tweet, 32 bytes each:
+ *            long id, long timestamp (epoch millis), long text offset, int text length, int author id
+ *   authors: one per distinct author, 12 bytes each: long name offset, int name length
+ *   heap:    UTF-8 bytes of author names and texts; offsets above are relative to its start
+ */
+public class TweetArchive implements Closeable {
+
+    static final int MAGIC = 0x54574152; // "TWAR"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int RECORD_SIZE = 32;
+    static final int AUTHOR_SIZE = 12;
+
+    private final MappedFile file;
+    private final long count;
+    private final long authorsOffset;
+    private final long heapOffset;
+    private final String[] authors;
+    /* Rep invariant:
+     *    file holds a well-formed archive of count tweets
+     *    authors[i] is null or the decoded name of author i
+     */
+
+    /**
+     * Open an archive.
+     *
+     * @param path archive file
+     * @throws IOException if the file cannot be read or is not a tweet archive
+     */
+    public TweetArchive(Path path) throws IOException {
+        this(path, MappedFile.DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Open an archive, mapping it in segments of a given size.
+     */
+    TweetArchive(Path path, int segmentSize) throws IOException {
+        this.file = new MappedFile(path, segmentSize);
+        try {
+            if(file.size() < HEADER_SIZE || file.getInt(0) != MAGIC){
+                throw new IOException(path + " is not a tweet archive");
+            }
+            if(file.getInt(4) != VERSION){
+                throw new IOException(path + " has unsupported archive version " + file.getInt(4));
+            }
+            this.count = file.getLong(8);
+            final long authorCount = file.getLong(16);
+            if(count < 0 || count > Integer.MAX_VALUE || authorCount < 0 || authorCount > Integer.MAX_VALUE){
+                throw new IOException(path + " has a corrupt header");
+            }
+            this.authorsOffset = HEADER_SIZE + count * RECORD_SIZE;
+            this.heapOffset = authorsOffset + authorCount * AUTHOR_SIZE;
+            if(heapOffset > file.size()){
+                throw new IOException(path + " is truncated");
+            }
+            this.authors = new String[(int) authorCount];
+        } catch (IOException ioe) {
+            file.close();
+            throw ioe;
+        }
+    }
+
+    /**
+     * @return number of tweets in the archive
+     */
+    public int size() {
+        return (int) count;
+    }
+
+    /**
+     * @param index index in [0, size())
+     * @return id of the tweet at index, read without building the tweet
+     */
+    public long getId(int index) {
+        return file.getLong(record(index));
+    }
+
+    /**
+     * @param index index in [0, size())
+     * @return timestamp of the tweet at index in milliseconds from the epoch, read
+     *         without building the tweet
+     */
+    public long getEpochMillis(int index) {
+        return file.getLong(record(index) + 8);
+    }
+
+    /**
+     * @param index index in [0, size())
+     * @return the tweet at index, as written (timestamp truncated to the millisecond)
+     */
+    public Tweet get(int index) {
+        final long record = record(index);
+        final String text = string(file.getLong(record + 16), file.getInt(record + 24));
+        return new Tweet(file.getLong(record), author(file.getInt(record + 28)), text,
+                Instant.ofEpochMilli(file.getLong(record + 8)));
+    }
+
+    /**
+     * @return unmodifiable random-access list view of the archive, so that the Extract,
+     *         Filter and SocialNetwork operations can run on it directly; each get()
+     *         builds its tweet on demand
+     */
+    public List<Tweet> asList() {
+        return new TweetList();
+    }
+
+    /**
+     * Close the archive. Tweets already built remain valid.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override public void close() throws IOException {
+        file.close();
+    }
+
+    /**
+     * @return the header of an archive with the given numbers of tweets and authors
+     */
+    static ByteBuffer header(long count, int authorCount) {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putLong(count).putLong(authorCount);
+        header.rewind();
+        return header;
+    }
+
+    private long record(int index) {
+        if(index < 0 || index >= count){
+            throw new IndexOutOfBoundsException("no tweet at index " + index);
+        }
+        return HEADER_SIZE + (long) index * RECORD_SIZE;
+    }
+
+    /*
+     * Name of author id, decoded once and then cached. Races are benign: every thread
+     * decodes the same value.
+     */
+    private String author(int id) {
+        String name = authors[id];
+        if(name == null){
+            final long entry = authorsOffset + (long) id * AUTHOR_SIZE;
+            name = string(file.getLong(entry), file.getInt(entry + 8));
+            authors[id] = name;
+        }
+        return name;
+    }
+
+    private String string(long offset, int length) {
+        final byte[] bytes = new byte[length];
+        file.getBytes(heapOffset + offset, bytes, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /*
+     * List view of the archive.
+     */
+    private class TweetList extends AbstractList<Tweet> implements RandomAccess {
+        @Override public Tweet get(int index) {
+            return TweetArchive.this.get(index);
+        }
+
+        @Override public int size() {
+            return TweetArchive.this.size();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package twitter;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes tweets, one at a time, to a file in the binary format read by TweetArchive.
+ *
+ * Fixed-size tweet records go straight to the archive; author names and texts go to a
+ * temporary string heap that is appended when the writer is closed, followed by the
+ * header. Memory use is bounded by the number of distinct authors, not of tweets.
+ */
+public class TweetArchiveWriter implements Closeable {
+
+    private final Path path;
+    private final Path heapPath;
+    private final DataOutputStream records;
+    private final DataOutputStream heap;
+    private final Map<String, Integer> authorIds = new HashMap<String, Integer>();
+    private final List<long[]> authorStrings = new ArrayList<long[]>();
+    private long count;
+    private long heapSize;
+    private boolean closed;
+    /* Rep invariant:
+     *    records has received TweetArchive.HEADER_SIZE placeholder bytes and count records
+     *    heap has received heapSize bytes
+     *    authorStrings.get(id) is {offset, length} in heap of the author with id authorIds[author]
+     */
+
+    /**
+     * Create (or truncate) an archive file.
+     *
+     * @param path file to write
+     * @throws IOException if the file cannot be created
+     */
+    public TweetArchiveWriter(Path path) throws IOException {
+        this.path = path;
+        this.heapPath = Files.createTempFile(path.toAbsolutePath().getParent(), "tweets", ".heap");
+        this.records = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+        this.heap = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(heapPath)));
+        records.write(new byte[TweetArchive.HEADER_SIZE]);
+    }
+
+    /**
+     * Write a whole list of tweets to a new archive.
+     *
+     * @param path file to write
+     * @param tweets tweets to write, in order; not modified by this method
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path path, Iterable<Tweet> tweets) throws IOException {
+        try (TweetArchiveWriter writer = new TweetArchiveWriter(path)) {
+            writer.writeAll(tweets.iterator());
+        }
+    }
+
+    /**
+     * Append a tweet to the archive.
+     *
+     * @param tweet tweet whose timestamp, in milliseconds from the epoch, fits in a long;
+     *              it is stored truncated to the millisecond
+     * @throws IOException if the archive cannot be written
+     */
+    public void write(Tweet tweet) throws IOException {
+        if(closed){
+            throw new IllegalStateException("writer is closed");
+        }
+        final long millis;
+        try {
+            millis = tweet.getTimestamp().toEpochMilli();
+        } catch (ArithmeticException ae) {
+            throw new IllegalArgumentException("timestamp out of range: " + tweet, ae);
+        }
+
+        Integer authorId = authorIds.get(tweet.getAuthor());
+        if(authorId == null){
+            authorId = authorStrings.size();
+            authorIds.put(tweet.getAuthor(), authorId);
+            authorStrings.add(appendString(tweet.getAuthor()));
+        }
+        final long[] text = appendString(tweet.getText());
+
+        records.writeLong(tweet.getId());
+        records.writeLong(millis);
+        records.writeLong(text[0]);
+        records.writeInt((int) text[1]);
+        records.writeInt(authorId);
+        count++;
+    }
+
+    /**
+     * Append tweets to the archive, in order.
+     *
+     * @param tweets tweets, as accepted by write(Tweet)
+     * @throws IOException if the archive cannot be written
+     */
+    public void writeAll(Iterator<Tweet> tweets) throws IOException {
+        while(tweets.hasNext()){
+            write(tweets.next());
+        }
+    }
+
+    /**
+     * Finish the archive: append the author table and the string heap and write the header.
+     *
+     * @throws IOException if the archive cannot be written
+     */
+    @Override public void close() throws IOException {
+        if(closed){
+            return;
+        }
+        closed = true;
+
+        try {
+            for(long[] author : authorStrings){
+                records.writeLong(author[0]);
+                records.writeInt((int) author[1]);
+            }
+            heap.close();
+            try (InputStream in = Files.newInputStream(heapPath)) {
+                final byte[] buffer = new byte[1 << 16];
+                int read;
+                while((read = in.read(buffer)) != -1){
+                    records.write(buffer, 0, read);
+                }
+            }
+            records.close();
+
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.write(TweetArchive.header(count, authorStrings.size()), 0);
+            }
+        } finally {
+            heap.close();
+            records.close();
+            Files.deleteIfExists(heapPath);
+        }
+    }
+
+    /*
+     * Append the UTF-8 bytes of s to the heap.
+     *
+     * @return {offset, length} of the bytes in the heap
+     */
+    private long[] appendString(String s) throws IOException {
+        final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        final long[] location = {heapSize, bytes.length};
+        heap.write(bytes);
+        heapSize += bytes.length;
+        return location;
+    }
+}
@@ -0,0 +1,285 @@
+package twitter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Immutable inverted index over a list of tweets, for answering many word queries
+ * against the same corpus.
+ *
+ * Each tweet is tokenized once, when the index is built, exactly as Filter.containing
+ * tokenizes it: the text is cut into nonempty words bounded by space characters and the
+ * ends of the string, and words are compared without regard to case. Every lower-case word
+ * maps to a posting list, the ascending positions of the tweets (in the indexed list) that
+ * contain it. Authors get posting lists too, and positions are also kept in timestamp
+ * order, so that search() can combine word, author and timespan constraints.
+ */
+public class TweetIndex {
+
+    private final List<Tweet> tweets;
+    private final Map<String, int[]> postings;
+    private final Map<String, int[]> authorPostings;
+    private final int[] byTimestamp;
+    /* Rep invariant:
+     *    every key of postings is a nonempty lower-case word
+     *    every key of authorPostings is a normalized username
+     *    every posting list is nonempty, strictly ascending, and holds positions in [0, tweets.size())
+     *    tweets.get(i)'s text contains word w iff i is in postings.get(w)
+     *    tweets.get(i) was written by a iff i is in authorPostings.get(normalizeUsername(a))
+     *    byTimestamp is a permutation of the positions, sorted by timestamp
+     * Abstraction function:
+     *    represents the list of tweets, indexed by the words of their text
+     */
+
+    /**
+     * Build an index.
+     *
+     * @param tweets a list of tweets with distinct ids, not modified by this method.
+     *               The index keeps its own copy of the list.
+     */
+    public TweetIndex(List<Tweet> tweets) {
+        this.tweets = Collections.unmodifiableList(new ArrayList<Tweet>(tweets));
+
+        final Map<String, PostingListBuilder> builders = new HashMap<String, PostingListBuilder>();
+        for(int i = 0; i < this.tweets.size(); i++){
+            final int position = i;
+            forEachWord(this.tweets.get(i).getText(), word ->
+                builders.computeIfAbsent(word, key -> new PostingListBuilder()).add(position));
+        }
+
+        this.postings = build(builders);
+
+        final Map<String, PostingListBuilder> authorBuilders = new HashMap<String, PostingListBuilder>();
+        for(int i = 0; i < this.tweets.size(); i++){
+            authorBuilders.computeIfAbsent(TwitterUtility.normalizeUsername(this.tweets.get(i).getAuthor()),
+                    key -> new PostingListBuilder()).add(i);
+        }
+        this.authorPostings = build(authorBuilders);
+
+        final Integer[] order = new Integer[this.tweets.size()];
+        for(int i = 0; i < order.length; i++){
+            order[i] = i;
+        }
+        Arrays.sort(order, (i, j) -> this.tweets.get(i).getTimestamp().compareTo(this.tweets.get(j).getTimestamp()));
+        this.byTimestamp = new int[order.length];
+        for(int i = 0; i < order.length; i++){
+            byTimestamp[i] = order[i];
+        }
+    }
+
+    /**
+     * @return the indexed tweets, in the order the index was built from; unmodifiable
+     */
+    public List<Tweet> getTweets() {
+        return tweets;
+    }
+
+    /**
+     * Find indexed tweets that contain certain words.
+     *
+     * @param words
+     *            a list of words to search for in the tweets.
+     *            A word is a nonempty sequence of nonspace characters.
+     * @return the same tweets, in the same order, as
+     *         Filter.containing(getTweets(), words)
+     */
+    public List<Tweet> containing(List<String> words) {
+        final List<int[]> lists = new ArrayList<int[]>(words.size());
+        for(String word : words){
+            final int[] list = postings(word);
+            if(list.length > 0){
+                lists.add(list);
+            }
+        }
+
+        return tweetsAt(Postings.union(lists));
+    }
+
+    /**
+     * Find indexed tweets that match a query. Constraints are combined on posting lists,
+     * rarest first, so no constraint costs a pass over the whole corpus.
+     *
+     * @param query query
+     * @return all and only the indexed tweets t for which query.matches(t), in the order
+     *         the index was built from
+     */
+    public List<Tweet> search(TweetQuery query) {
+        return tweetsAt(query.evaluate(this));
+    }
+
+    /**
+     * @return number of indexed tweets
+     */
+    int size() {
+        return tweets.size();
+    }
+
+    /**
+     * @param position position in [0, size())
+     * @return the indexed tweet at position
+     */
+    Tweet tweetAt(int position) {
+        return tweets.get(position);
+    }
+
+    /**
+     * @param word a nonempty sequence of nonspace characters
+     * @return ascending positions of the indexed tweets that contain word, compared
+     *         without regard to case. Must not be modified by the caller.
+     */
+    int[] postings(String word) {
+        final int[] list = postings.get(word.toLowerCase());
+        return list == null ? Postings.EMPTY : list;
+    }
+
+    /**
+     * @param username a valid Twitter username
+     * @return ascending positions of the indexed tweets written by username, compared
+     *         without regard to case. Must not be modified by the caller.
+     */
+    int[] authorPostings(String username) {
+        final int[] list = authorPostings.get(TwitterUtility.normalizeUsername(username));
+        return list == null ? Postings.EMPTY : list;
+    }
+
+    /**
+     * @param timespan timespan
+     * @return number of indexed tweets sent during timespan, found in O(log size()) time
+     */
+    int countInTimespan(Timespan timespan) {
+        return Math.max(0, upperBound(timespan.getEnd()) - lowerBound(timespan.getStart()));
+    }
+
+    /**
+     * @param timespan timespan
+     * @return ascending positions of the indexed tweets sent during timespan
+     */
+    int[] timespanPostings(Timespan timespan) {
+        final int from = lowerBound(timespan.getStart());
+        final int to = Math.max(from, upperBound(timespan.getEnd()));
+        final int[] list = Arrays.copyOfRange(byTimestamp, from, to);
+        Arrays.sort(list);
+        return list;
+    }
+
+    /**
+     * @param positions ascending positions of indexed tweets
+     * @return the tweets at those positions, in the same order
+     */
+    List<Tweet> tweetsAt(int[] positions) {
+        final List<Tweet> result = new ArrayList<Tweet>(positions.length);
+        for(int position : positions){
+            result.add(tweets.get(position));
+        }
+        return result;
+    }
+
+    /**
+     * Split text into words as Filter.containing does.
+     *
+     * @param text text of a tweet
+     * @param action called once per word occurrence, in order, with the lower-case word.
+     *               A word is a nonempty sequence of characters other than the space
+     *               characters matched by the regular expression \s.
+     */
+    static void forEachWord(String text, Consumer<? super String> action) {
+        final int length = text.length();
+        int i = 0;
+
+        while(i < length){
+            while(i < length && isSpace(text.charAt(i))){
+                i++;
+            }
+            final int start = i;
+            while(i < length && !isSpace(text.charAt(i))){
+                i++;
+            }
+            if(i > start){
+                action.accept(text.substring(start, i).toLowerCase());
+            }
+        }
+    }
+
+    /*
+     * @return number of indexed tweets sent strictly before instant
+     */
+    private int lowerBound(Instant instant) {
+        int low = 0;
+        int high = byTimestamp.length;
+        while(low < high){
+            final int mid = (low + high) >>> 1;
+            if(tweets.get(byTimestamp[mid]).getTimestamp().isBefore(instant)){
+                low = mid + 1;
+            }else{
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /*
+     * @return number of indexed tweets sent no later than instant
+     */
+    private int upperBound(Instant instant) {
+        int low = 0;
+        int high = byTimestamp.length;
+        while(low < high){
+            final int mid = (low + high) >>> 1;
+            if(tweets.get(byTimestamp[mid]).getTimestamp().isAfter(instant)){
+                high = mid;
+            }else{
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /*
+     * @return the posting lists of the builders, under the same keys
+     */
+    private static Map<String, int[]> build(Map<String, PostingListBuilder> builders) {
+        final Map<String, int[]> lists = new HashMap<String, int[]>(builders.size() * 4 / 3 + 1);
+        for(Map.Entry<String, PostingListBuilder> entry : builders.entrySet()){
+            lists.put(entry.getKey(), entry.getValue().build());
+        }
+        return lists;
+    }
+
+    /**
+     * @param c character
+     * @return true iff c is matched by the regular expression \s, the spaces that separate
+     *         words in forEachWord
+     */
+    static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /*
+     * Growable posting list. Positions are added in ascending order; a position added
+     * twice in a row (a word repeated within one tweet) is kept once.
+     */
+    private static class PostingListBuilder {
+        private int[] positions = new int[2];
+        private int size;
+
+        void add(int position) {
+            if(size > 0 && positions[size - 1] == position){
+                return;
+            }
+            if(size == positions.length){
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+        }
+
+        int[] build() {
+            return Arrays.copyOf(positions, size);
+        }
+    }
+}
@@ -0,0 +1,631 @@
+package twitter;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable query over tweets, combining word, phrase, author and timespan constraints
+ * with AND, OR and NOT.
+ *
+ * A query can be checked against one tweet with matches(), or run against a TweetIndex
+ * with TweetIndex.search(). The index evaluates it with a simple cost-based plan: every
+ * constraint can estimate, from the index, how many tweets it matches; the children of an
+ * AND are applied rarest first, each one either intersecting its posting list with the
+ * candidates so far or, when its own list would be much longer than the candidates,
+ * checking the candidates one by one. A query that combines writtenBy, inTimespan and
+ * containing constraints therefore costs about as much as its most selective constraint.
+ *
+ * Words are compared as Filter.containing compares them: a tweet contains a word if one
+ * of the whitespace-separated words of its text equals it, ignoring case. A phrase matches
+ * a tweet whose text has its words consecutively. Authors are compared ignoring case.
+ * Here, as in query text, a space is one of the six characters matched by the regular
+ * expression \s; other characters, such as U+2003 EM SPACE, are part of a word.
+ */
+public abstract class TweetQuery {
+
+    /** when a child's estimate exceeds this many times the candidates, check per tweet */
+    private static final int PROBE_RATIO = 16;
+
+    /* Datatype definition:
+     *    TweetQuery = Word(word) + Phrase(words) + Author(username) + During(timespan)
+     *               + And(children) + Or(children) + Not(child)
+     */
+
+    private TweetQuery() {
+    }
+
+    /**
+     * @param word a nonempty sequence of nonspace characters
+     * @return query matching the tweets that contain word, as Filter.containing does
+     */
+    public static TweetQuery word(String word) {
+        checkWord(word);
+        return new Word(word.toLowerCase());
+    }
+
+    /**
+     * @param words nonempty list of nonempty sequences of nonspace characters
+     * @return query matching the tweets whose text contains the words consecutively
+     */
+    public static TweetQuery phrase(List<String> words) {
+        if(words.isEmpty()){
+            throw new IllegalArgumentException("phrase requires at least one word");
+        }
+        if(words.size() == 1){
+            return word(words.get(0));
+        }
+        final List<String> lower = new ArrayList<String>(words.size());
+        for(String word : words){
+            checkWord(word);
+            lower.add(word.toLowerCase());
+        }
+        return new Phrase(lower);
+    }
+
+    /**
+     * @param username a valid Twitter username
+     * @return query matching the tweets written by username, as Filter.writtenBy does
+     */
+    public static TweetQuery writtenBy(String username) {
+        return new Author(username);
+    }
+
+    /**
+     * @param timespan timespan
+     * @return query matching the tweets sent during timespan, as Filter.inTimespan does
+     */
+    public static TweetQuery inTimespan(Timespan timespan) {
+        return new During(timespan);
+    }
+
+    /**
+     * @param queries nonempty list of queries
+     * @return query matching the tweets that all of queries match
+     */
+    public static TweetQuery and(TweetQuery... queries) {
+        return queries.length == 1 ? queries[0] : new And(checkChildren(queries));
+    }
+
+    /**
+     * @param queries nonempty list of queries
+     * @return query matching the tweets that any of queries match
+     */
+    public static TweetQuery or(TweetQuery... queries) {
+        return queries.length == 1 ? queries[0] : new Or(checkChildren(queries));
+    }
+
+    /**
+     * @param query query
+     * @return query matching the tweets that query does not match
+     */
+    public static TweetQuery not(TweetQuery query) {
+        return new Not(query);
+    }
+
+    /**
+     * Parse a query from text.
+     *
+     * Grammar, with NOT binding tighter than AND, and AND tighter than OR:
+     *   query   ::= and ("OR" and)*
+     *   and     ::= unary (["AND"] unary)*          adjacent terms are ANDed
+     *   unary   ::= "NOT" unary | "-" unary | "(" query ")" | term
+     *   term    ::= '"' word+ '"'                   a phrase
+     *             | "from:" username                writtenBy
+     *             | "since:" instant | "until:" instant
+     *                                               inTimespan, endpoints included,
+     *                                               instants in ISO-8601 form
+     *             | word                            any other nonspace characters
+     * Words cannot contain parentheses or double quotes; build such queries with word().
+     *
+     * @param text query text
+     * @return the query text represents
+     * @throws IllegalArgumentException if text is not a well-formed query
+     */
+    public static TweetQuery parse(String text) {
+        return new Parser(text).parse();
+    }
+
+    /**
+     * @param tweet tweet
+     * @return true iff tweet satisfies this query
+     */
+    public abstract boolean matches(Tweet tweet);
+
+    /**
+     * @param index index
+     * @return an upper bound on the number of indexed tweets this query matches, found in
+     *         O(log n) time per constraint
+     */
+    abstract int estimate(TweetIndex index);
+
+    /**
+     * @param index index
+     * @return ascending positions of the indexed tweets this query matches
+     */
+    abstract int[] evaluate(TweetIndex index);
+
+    /**
+     * @param index index
+     * @param position position of an indexed tweet
+     * @return true iff the indexed tweet at position satisfies this query
+     */
+    boolean matches(TweetIndex index, int position) {
+        return matches(index.tweetAt(position));
+    }
+
+    /*
+     * Keep the candidates that query matches, by intersection or by checking each one,
+     * whichever is cheaper.
+     */
+    private static int[] restrict(int[] candidates, TweetQuery query, TweetIndex index) {
+        if(query.estimate(index) > (long) candidates.length * PROBE_RATIO){
+            return probe(candidates, query, index, true);
+        }
+        return Postings.intersect(candidates, query.evaluate(index));
+    }
+
+    /*
+     * @return the candidates for which query.matches() is expected
+     */
+    private static int[] probe(int[] candidates, TweetQuery query, TweetIndex index, boolean expected) {
+        final int[] result = new int[candidates.length];
+        int size = 0;
+        for(int position : candidates){
+            if(query.matches(index, position) == expected){
+                result[size++] = position;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /*
+     * Sort queries in increasing order of their estimates, estimating each one once.
+     */
+    private static void sortByEstimate(List<TweetQuery> queries, TweetIndex index) {
+        final long[] keys = new long[queries.size()];
+        for(int i = 0; i < keys.length; i++){
+            keys[i] = (long) queries.get(i).estimate(index) << 32 | i;
+        }
+        Arrays.sort(keys);
+
+        final List<TweetQuery> sorted = new ArrayList<TweetQuery>(keys.length);
+        for(long key : keys){
+            sorted.add(queries.get((int) key));
+        }
+        for(int i = 0; i < keys.length; i++){
+            queries.set(i, sorted.get(i));
+        }
+    }
+
+    private static void checkWord(String word) {
+        if(word.isEmpty()){
+            throw new IllegalArgumentException("words must be nonempty");
+        }
+        for(int i = 0; i < word.length(); i++){
+            if(TweetIndex.isSpace(word.charAt(i))){
+                throw new IllegalArgumentException("words must not contain spaces: " + word);
+            }
+        }
+    }
+
+    private static List<TweetQuery> checkChildren(TweetQuery[] queries) {
+        if(queries.length == 0){
+            throw new IllegalArgumentException("requires at least one query");
+        }
+        return Collections.unmodifiableList(new ArrayList<TweetQuery>(Arrays.asList(queries)));
+    }
+
+    /*
+     * Tweets containing a lower-case word.
+     */
+    private static class Word extends TweetQuery {
+        private final String word;
+
+        Word(String word) {
+            this.word = word;
+        }
+
+        @Override public boolean matches(Tweet tweet) {
+            final boolean[] found = {false};
+            TweetIndex.forEachWord(tweet.getText(), w -> found[0] |= w.equals(word));
+            return found[0];
+        }
+
+        @Override int estimate(TweetIndex index) {
+            return index.postings(word).length;
+        }
+
+        @Override int[] evaluate(TweetIndex index) {
+            return index.postings(word).clone();
+        }
+
+        @Override boolean matches(TweetIndex index, int position) {
+            return Arrays.binarySearch(index.postings(word), position) >= 0;
+        }
+
+        @Override public String toString() {
+            return word;
+        }
+    }
+
+    /*
+     * Tweets containing lower-case words consecutively. Candidates come from the posting
+     * lists of the words; each is then checked by tokenizing its text.
+     */
+    private static class Phrase extends TweetQuery {
+        private final List<String> words;
+
+        Phrase(List<String> words) {
+            this.words = Collections.unmodifiableList(words);
+        }
+
+        @Override public boolean matches(Tweet tweet) {
+            final List<String> text = new ArrayList<String>();
+            TweetIndex.forEachWord(tweet.getText(), text::add);
+            return Collections.indexOfSubList(text, words) >= 0;
+        }
+
+        @Override int estimate(TweetIndex index) {
+            int estimate = Integer.MAX_VALUE;
+            for(String word : words){
+                estimate = Math.min(estimate, index.postings(word).length);
+            }
+            return estimate;
+        }
+
+        @Override int[] evaluate(TweetIndex index) {
+            final List<int[]> lists = new ArrayList<int[]>();
+            for(String word : words){
+                lists.add(index.postings(word));
+            }
+            lists.sort(Comparator.comparingInt(list -> list.length));
+
+            int[] candidates = lists.get(0);
+            for(int i = 1; i < lists.size() && candidates.length > 0; i++){
+                candidates = Postings.intersect(candidates, lists.get(i));
+            }
+            return probe(candidates, this, index, true);
+        }
+
+        @Override public String toString() {
+            return '"' + String.join(" ", words) + '"';
+        }
+    }
+
+    /*
+     * Tweets written by a user.
+     */
+    private static class Author extends TweetQuery {
+        private final String username;
+
+        Author(String username) {
+            this.username = username;
+        }
+
+        @Override public boolean matches(Tweet tweet) {
+            return tweet.getAuthor().equalsIgnoreCase(username);
+        }
+
+        @Override int estimate(TweetIndex index) {
+            return index.authorPostings(username).length;
+        }
+
+        @Override int[] evaluate(TweetIndex index) {
+            return index.authorPostings(username).clone();
+        }
+
+        @Override public String toString() {
+            return "from:" + username;
+        }
+    }
+
+    /*
+     * Tweets sent during a timespan.
+     */
+    private static class During extends TweetQuery {
+        private final Timespan timespan;
+
+        During(Timespan timespan) {
+            this.timespan = timespan;
+        }
+
+        @Override public boolean matches(Tweet tweet) {
+            final Instant timestamp = tweet.getTimestamp();
+            return !timestamp.isBefore(timespan.getStart()) && !timestamp.isAfter(timespan.getEnd());
+        }
+
+        @Override int estimate(TweetIndex index) {
+            return index.countInTimespan(timespan);
+        }
+
+        @Override int[] evaluate(TweetIndex index) {
+            return index.timespanPostings(timespan);
+        }
+
+        @Override public String toString() {
+            return "(since:" + timespan.getStart() + " until:" + timespan.getEnd() + ")";
+        }
+    }
+
+    /*
+     * Tweets matched by every child. Positive children are applied in increasing order of
+     * their estimates; negated children last, as filters on what is left.
+     */
+    private static class And extends TweetQuery {
+        private final List<TweetQuery> children;
+
+        And(List<TweetQuery> children) {
+            this.children = children;
+        }
+
+        @Override public boolean matches(Tweet tweet) {
+            for(TweetQuery child : children){
+                if(!child.matches(tweet)){
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override int estimate(TweetIndex index) {
+            int estimate = index.size();
+            for(TweetQuery child : children){
+                if(!(child instanceof Not)){
+                    estimate = Math.min(estimate, child.estimate(index));
+                }
+            }
+            return estimate;
+        }
+
+        @Override int[] evaluate(TweetIndex index) {
+            final List<TweetQuery> positive = new ArrayList<TweetQuery>();
+            final List<TweetQuery> negative = new ArrayList<TweetQuery>();
+            for(TweetQuery child : children){
+                (child instanceof Not ? negative : positive).add(child);
+            }
+            sortByEstimate(positive, index);
+
+            int[] candidates = positive.isEmpty() ? Postings.range(index.size()) : positive.get(0).evaluate(index);
+            for(int i = 1; i < positive.size() && candidates.length > 0; i++){
+                candidates = restrict(candidates, positive.get(i), index);
+            }
+            for(TweetQuery child : negative){
+                if(candidates.length == 0){
+                    break;
+                }
+                final TweetQuery negated = ((Not) child).child;
+                if(negated.estimate(index) > (long) candidates.length * PROBE_RATIO){
+                    candidates = probe(candidates, negated, index, false);
+                }else{
+                    candidates = Postings.difference(candidates, negated.evaluate(index));
+                }
+            }
+            return candidates;
+        }
+
+        @Override boolean matches(TweetIndex index, int position) {
+            for(TweetQuery child : children){
+                if(!child.matches(index, position)){
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override public String toString() {
+            return join(children, " AND ");
+        }
+    }
+
+    /*
+     * Tweets matched by any child.
+     */
+    private static class Or extends TweetQuery {
+        private final List<TweetQuery> children;
+
+        Or(List<TweetQuery> children) {
+            this.children = children;
+        }
+
+        @Override public boolean matches(Tweet tweet) {
+            for(TweetQuery child : children){
+                if(child.matches(tweet)){
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override int estimate(TweetIndex index) {
+            long estimate = 0;
+            for(TweetQuery child : children){
+                estimate += child.estimate(index);
+            }
+            return (int) Math.min(estimate, index.size());
+        }
+
+        @Override int[] evaluate(TweetIndex index) {
+            final List<int[]> lists = new ArrayList<int[]>(children.size());
+            for(TweetQuery child : children){
+                lists.add(child.evaluate(index));
+            }
+            return Postings.union(lists);
+        }
+
+        @Override boolean matches(TweetIndex index, int position) {
+            for(TweetQuery child : children){
+                if(child.matches(index, position)){
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override public String toString() {
+            return join(children, " OR ");
+        }
+    }
+
+    /*
+     * Tweets not matched by a child. On its own it is evaluated as a difference from every
+     * indexed tweet; inside an AND, the AND applies it as a filter instead.
+     */
+    private static class Not extends TweetQuery {
+        private final TweetQuery child;
+
+        Not(TweetQuery child) {
+            this.child = child;
+        }
+
+        @Override public boolean matches(Tweet tweet) {
+            return !child.matches(tweet);
+        }
+
+        @Override int estimate(TweetIndex index) {
+            return index.size();
+        }
+
+        @Override int[] evaluate(TweetIndex index) {
+            return Postings.difference(Postings.range(index.size()), child.evaluate(index));
+        }
+
+        @Override boolean matches(TweetIndex index, int position) {
+            return !child.matches(index, position);
+        }
+
+        @Override public String toString() {
+            return "NOT " + child;
+        }
+    }
+
+    private static String join(List<TweetQuery> children, String operator) {
+        final List<String> parts = new ArrayList<String>(children.size());
+        for(TweetQuery child : children){
+            parts.add(child instanceof And || child instanceof Or ? "(" + child + ")" : child.toString());
+        }
+        return String.join(operator, parts);
+    }
+
+    /*
+     * Recursive-descent parser for the grammar documented at parse().
+     */
+    private static class Parser {
+        private final List<String> tokens = new ArrayList<String>();
+        private int next;
+
+        Parser(String text) {
+            int i = 0;
+            while(i < text.length()){
+                final char c = text.charAt(i);
+                if(TweetIndex.isSpace(c)){
+                    i++;
+                }else if(c == '(' || c == ')'){
+                    tokens.add(String.valueOf(c));
+                    i++;
+                }else if(c == '"'){
+                    final int close = text.indexOf('"', i + 1);
+                    if(close < 0){
+                        throw new IllegalArgumentException("unterminated phrase in: " + text);
+                    }
+                    tokens.add(text.substring(i, close + 1));
+                    i = close + 1;
+                }else{
+                    final int start = i;
+                    while(i < text.length() && !TweetIndex.isSpace(text.charAt(i))
+                            && "()\"".indexOf(text.charAt(i)) < 0){
+                        i++;
+                    }
+                    tokens.add(text.substring(start, i));
+                }
+            }
+        }
+
+        TweetQuery parse() {
+            final TweetQuery query = parseOr();
+            if(next < tokens.size()){
+                throw new IllegalArgumentException("unexpected " + tokens.get(next));
+            }
+            return query;
+        }
+
+        private TweetQuery parseOr() {
+            final List<TweetQuery> children = new ArrayList<TweetQuery>();
+            children.add(parseAnd());
+            while(accept("OR")){
+                children.add(parseAnd());
+            }
+            return or(children.toArray(new TweetQuery[0]));
+        }
+
+        private TweetQuery parseAnd() {
+            final List<TweetQuery> children = new ArrayList<TweetQuery>();
+            children.add(parseUnary());
+            while(next < tokens.size() && !tokens.get(next).equals("OR") && !tokens.get(next).equals(")")){
+                accept("AND");
+                children.add(parseUnary());
+            }
+            return and(children.toArray(new TweetQuery[0]));
+        }
+
+        private TweetQuery parseUnary() {
+            if(next >= tokens.size()){
+                throw new IllegalArgumentException("query ends unexpectedly");
+            }
+            final String token = tokens.get(next++);
+            if(token.equals("NOT")){
+                return not(parseUnary());
+            }
+            if(token.equals("(")){
+                final TweetQuery query = parseOr();
+                if(!accept(")")){
+                    throw new IllegalArgumentException("missing )");
+                }
+                return query;
+            }
+            if(token.equals(")") || token.equals("AND") || token.equals("OR")){
+                throw new IllegalArgumentException("unexpected " + token);
+            }
+            if(token.startsWith("-") && token.length() > 1){
+                next--;
+                tokens.set(next, token.substring(1));
+                return not(parseUnary());
+            }
+            if(token.startsWith("\"")){
+                final List<String> words = new ArrayList<String>();
+                TweetIndex.forEachWord(token.substring(1, token.length() - 1), words::add);
+                return phrase(words);
+            }
+            if(token.startsWith("from:") && token.length() > "from:".length()){
+                return writtenBy(token.substring("from:".length()));
+            }
+            if(token.startsWith("since:")){
+                return inTimespan(new Timespan(instant(token, "since:"), Instant.MAX));
+            }
+            if(token.startsWith("until:")){
+                return inTimespan(new Timespan(Instant.MIN, instant(token, "until:")));
+            }
+            return word(token);
+        }
+
+        private boolean accept(String token) {
+            if(next < tokens.size() && tokens.get(next).equals(token)){
+                next++;
+                return true;
+            }
+            return false;
+        }
+
+        private static Instant instant(String token, String prefix) {
+            try {
+                return Instant.parse(token.substring(prefix.length()));
+            } catch (DateTimeParseException dtpe) {
+                throw new IllegalArgumentException("bad instant in " + token, dtpe);
+            }
+        }
+    }
+}
@@ -6,13 +6,12 @@ package twitter;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.net.URL;
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 
 import javax.json.Json;
@@ -44,6 +43,27 @@ public class TweetReader {
         return readTweets(new InputStreamReader(url.openStream()));
     }
     
+    /**
+     * Get a list of tweets from a web server that serves newline-delimited JSON,
+     * one tweet object per line. Lines that are not well-formed tweets are skipped
+     * rather than failing the whole read; use JsonLinesTweetReader directly to
+     * count them or to read part of a file.
+     * 
+     * @param url URL of server to retrieve tweets from
+     * @return a list of the well-formed tweets retrieved from the server, in order.
+     * @throws IOException if the url is invalid, the server is unreachable,
+     *                     or some other network-related error occurs.
+     */
+    public static List<Tweet> readTweetsFromWebJsonLines(URL url) throws IOException {
+        try (JsonLinesTweetReader reader = new JsonLinesTweetReader(url.openStream())) {
+            List<Tweet> tweetList = new ArrayList<Tweet>();
+            reader.forEachRemaining(tweetList::add);
+            return tweetList;
+        } catch (UncheckedIOException uioe) {
+            throw uioe.getCause();
+        }
+    }
+    
     /*
      * Read a list of tweets from a stream.
      * 
@@ -113,8 +133,7 @@ public class TweetReader {
         Long id = Long.valueOf(tweetMap.get("id").toString());
         String screenName = tweetMap.get("user.screen_name").toString();
         String text = tweetMap.get("text").toString();
-        ZonedDateTime timestamp = ZonedDateTime.parse(tweetMap.get("created_at").toString(),
-                                                      DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss Z yyyy", Locale.US));
-        return new Tweet(id, screenName, text, timestamp.toInstant());
+        Instant timestamp = CreatedAtParser.parse(tweetMap.get("created_at").toString());
+        return new Tweet(id, screenName, text, timestamp);
     }
 }
@@ -0,0 +1,253 @@
+package twitter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URL;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.json.Json;
+import javax.json.JsonException;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+
+/**
+ * Reads tweets one at a time from a JSON array, in the same format accepted by
+ * TweetReader, without building the whole document in memory.
+ *
+ * The reader is driven by the event-based JsonParser: only the four fields a Tweet
+ * needs are materialized, and every other value (including nested objects and arrays)
+ * is skipped as its events go by. Memory use is therefore bounded by the size of a
+ * single tweet rather than the size of the input.
+ *
+ * The author may be given either as a flat "user.screen_name" field or as a
+ * "screen_name" field of a nested "user" object.
+ *
+ * Not thread safe. Malformed input is reported by JsonException, thrown from hasNext()
+ * or next() when the offending tweet is reached.
+ */
+public class TweetStreamReader implements Iterator<Tweet>, Closeable {
+
+    private final JsonParser parser;
+    private Tweet nextTweet;
+    private boolean started;
+    private boolean finished;
+    /* Rep invariant:
+     *    finished implies nextTweet == null
+     *    nextTweet != null implies started
+     */
+
+    /**
+     * Make a reader over a stream of characters.
+     *
+     * @param reader source of a JSON array of tweets; closed when this reader is closed.
+     */
+    public TweetStreamReader(Reader reader) {
+        this.parser = Json.createParser(reader);
+    }
+
+    /**
+     * Open a reader over the tweets served by a web server.
+     *
+     * @param url URL of server to retrieve tweets from
+     * @return a reader over the tweets in the response body
+     * @throws IOException if the url is invalid, the server is unreachable,
+     *                     or some other network-related error occurs.
+     */
+    public static TweetStreamReader fromWeb(URL url) throws IOException {
+        return new TweetStreamReader(new InputStreamReader(url.openStream()));
+    }
+
+    /**
+     * @return a sequential stream over the remaining tweets, in input order. Closing the
+     *         stream closes this reader.
+     */
+    public Stream<Tweet> stream() {
+        final Spliterator<Tweet> spliterator =
+                Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    /**
+     * @return true iff there is another tweet in the input
+     * @throws JsonException if the input is not a well-formed array of tweets
+     */
+    @Override public boolean hasNext() {
+        if(nextTweet == null && !finished){
+            nextTweet = readNextTweet();
+            finished = nextTweet == null;
+        }
+        return nextTweet != null;
+    }
+
+    /**
+     * @return the next tweet in the input
+     * @throws NoSuchElementException if there are no more tweets
+     * @throws JsonException if the input is not a well-formed array of tweets
+     */
+    @Override public Tweet next() {
+        if(!hasNext()){
+            throw new NoSuchElementException();
+        }
+        final Tweet tweet = nextTweet;
+        nextTweet = null;
+        return tweet;
+    }
+
+    /**
+     * Release the underlying parser and character stream.
+     */
+    @Override public void close() {
+        finished = true;
+        nextTweet = null;
+        parser.close();
+    }
+
+    /*
+     * Advance the parser past the next tweet of the top-level array.
+     *
+     * @return the tweet, or null if the array has ended.
+     */
+    private Tweet readNextTweet() {
+        if(!started){
+            started = true;
+            if(!parser.hasNext() || parser.next() != Event.START_ARRAY){
+                throw new JsonException("expected a JSON array of tweets");
+            }
+        }
+
+        if(!parser.hasNext()){
+            throw new JsonException("unexpected end of input inside the array of tweets");
+        }
+
+        final Event event = parser.next();
+        switch (event) {
+        case END_ARRAY:
+            return null;
+        case START_OBJECT:
+            return readTweet(parser);
+        default:
+            throw new JsonException("expected a tweet object but found " + event);
+        }
+    }
+
+    /**
+     * Read the fields of one tweet object. Values of fields that are not needed are skipped.
+     *
+     * @param parser parser positioned just after the START_OBJECT event of a tweet
+     * @return the tweet; parser is left just after the matching END_OBJECT event
+     * @throws JsonException if a required field is missing or malformed
+     */
+    static Tweet readTweet(JsonParser parser) {
+        String id = null;
+        String screenName = null;
+        String text = null;
+        String createdAt = null;
+
+        Event event;
+        while((event = parser.next()) != Event.END_OBJECT){
+            if(event != Event.KEY_NAME){
+                throw new JsonException("expected a field name but found " + event);
+            }
+
+            final String key = parser.getString();
+            final Event value = parser.next();
+            switch (key) {
+            case "id":
+                id = scalar(parser, value, key);
+                break;
+            case "text":
+                text = scalar(parser, value, key);
+                break;
+            case "created_at":
+                createdAt = scalar(parser, value, key);
+                break;
+            case "user.screen_name":
+                screenName = scalar(parser, value, key);
+                break;
+            case "user":
+                if(value == Event.START_OBJECT){
+                    final String nested = readScreenName(parser);
+                    screenName = nested != null ? nested : screenName;
+                }else{
+                    skip(parser, value);
+                }
+                break;
+            default:
+                skip(parser, value);
+            }
+        }
+
+        if(id == null || screenName == null || text == null || createdAt == null){
+            throw new JsonException("tweet is missing one of id, user.screen_name, text, created_at");
+        }
+
+        try {
+            return new Tweet(Long.parseLong(id), screenName, text, CreatedAtParser.parse(createdAt));
+        } catch (RuntimeException re) {
+            throw new JsonException("malformed tweet " + id, re);
+        }
+    }
+
+    /*
+     * Read a nested "user" object, keeping only its screen_name.
+     *
+     * @return the screen name, or null if the object has none.
+     */
+    private static String readScreenName(JsonParser parser) {
+        String screenName = null;
+
+        while(parser.next() != Event.END_OBJECT){
+            final String key = parser.getString();
+            final Event value = parser.next();
+            if(key.equals("screen_name")){
+                screenName = scalar(parser, value, key);
+            }else{
+                skip(parser, value);
+            }
+        }
+
+        return screenName;
+    }
+
+    /*
+     * @return the textual form of a string or number value.
+     */
+    private static String scalar(JsonParser parser, Event value, String key) {
+        if(value != Event.VALUE_STRING && value != Event.VALUE_NUMBER){
+            throw new JsonException("expected a string or number for " + key + " but found " + value);
+        }
+        return parser.getString();
+    }
+
+    /*
+     * Skip the value that began with the given event, including any nested values.
+     */
+    private static void skip(JsonParser parser, Event value) {
+        if(value != Event.START_OBJECT && value != Event.START_ARRAY){
+            return;
+        }
+
+        int depth = 1;
+        while(depth > 0){
+            switch (parser.next()) {
+            case START_OBJECT:
+            case START_ARRAY:
+                depth++;
+                break;
+            case END_OBJECT:
+            case END_ARRAY:
+                depth--;
+                break;
+            default:
+                break;
+            }
+        }
+    }
+}
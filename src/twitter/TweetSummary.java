@@ -0,0 +1,133 @@
+package twitter;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable summary of a list of tweets: the facts Main reports, computed together.
+ *
+ * Computing the timespan, mentioned users and follows graph with Extract and SocialNetwork
+ * walks the tweets once per fact and scans every text twice. A summary walks them once:
+ * each tweet's timestamp widens the timespan, and each mention found by a single scan of
+ * its text goes both into the mentioned users and into its author's follows set, updating
+ * follower counts as new edges appear.
+ */
+public class TweetSummary {
+
+    private final int tweetCount;
+    private final Timespan timespan;
+    private final Set<String> mentionedUsers;
+    private final Map<String, Set<String>> followsGraph;
+    private final UsernameCounter followerCount;
+    /* Rep invariant:
+     *    mentionedUsers, followsGraph and its values are unmodifiable
+     *    followerCount counts every username of followsGraph (key or followed) once per
+     *    distinct user that follows it, and has no other usernames
+     * Abstraction function:
+     *    represents the facts about a list of tweetCount tweets: the timespan they cover,
+     *    the users they mention and the follows graph they suggest
+     */
+
+    /**
+     * Summarize a list of tweets in one pass.
+     *
+     * @param tweets a list of tweets, as accepted by Extract.getTimespan, not modified by
+     *               this method
+     */
+    public TweetSummary(List<Tweet> tweets) {
+        Instant earliest = Instant.MAX;
+        Instant latest = Instant.MIN;
+        final Set<String> mentioned = new HashSet<String>();
+        final Map<String, Set<String>> graph = new UsernameMap<Set<String>>();
+        final UsernameCounter counter = new UsernameCounter();
+
+        for(Tweet tweet : tweets){
+            final Instant timestamp = tweet.getTimestamp();
+            earliest = timestamp.isBefore(earliest) ? timestamp : earliest;
+            latest = timestamp.isAfter(latest) ? timestamp : latest;
+
+            final String author = tweet.getAuthor();
+            Set<String> mentions = graph.get(author);
+            if(mentions == null){
+                mentions = new UsernameSet();
+                graph.put(author, mentions);
+                counter.add(author, 0);
+            }
+            final Set<String> followed = mentions;
+            MentionScanner.forEachMention(tweet.getText(), mentionedUser -> {
+                mentioned.add(mentionedUser);
+                if(!mentionedUser.equalsIgnoreCase(author) && followed.add(mentionedUser)){
+                    counter.add(mentionedUser, 1);
+                }
+            });
+        }
+
+        for(Map.Entry<String, Set<String>> entry : graph.entrySet()){
+            entry.setValue(Collections.unmodifiableSet(entry.getValue()));
+        }
+        this.tweetCount = tweets.size();
+        this.timespan = new Timespan(earliest, latest);
+        this.mentionedUsers = Collections.unmodifiableSet(mentioned);
+        this.followsGraph = Collections.unmodifiableMap(graph);
+        this.followerCount = counter;
+    }
+
+    /**
+     * @return number of tweets summarized
+     */
+    public int getTweetCount() {
+        return tweetCount;
+    }
+
+    /**
+     * @return the timespan Extract.getTimespan returns for the tweets
+     */
+    public Timespan getTimespan() {
+        return timespan;
+    }
+
+    /**
+     * @return unmodifiable set equal to Extract.getMentionedUsers of the tweets
+     */
+    public Set<String> getMentionedUsers() {
+        return mentionedUsers;
+    }
+
+    /**
+     * @return unmodifiable social network equal to (and keyed by the same spellings as)
+     *         SocialNetwork.guessFollowsGraph of the tweets. Keys and the usernames in
+     *         each set are compared without regard to case.
+     */
+    public Map<String, Set<String>> getFollowsGraph() {
+        return followsGraph;
+    }
+
+    /**
+     * @param username a valid Twitter username
+     * @return number of distinct users that follow username in the follows graph
+     */
+    public int getFollowerCount(String username) {
+        return followerCount.get(username);
+    }
+
+    /**
+     * @return every distinct username of the follows graph, in descending order of
+     *         follower count, as SocialNetwork.influencers ranks them; usernames with
+     *         equal counts are in order of first appearance
+     */
+    public List<String> getInfluencers() {
+        return followerCount.sortedByCount();
+    }
+
+    /**
+     * @param k number of usernames wanted, >= 0
+     * @return the first min(k, number of usernames) usernames of getInfluencers()
+     */
+    public List<String> getTopInfluencers(int k) {
+        return followerCount.top(k);
+    }
+}
@@ -0,0 +1,294 @@
+package twitter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Append-only, column-oriented store of tweets, for holding very many tweets in memory.
+ *
+ * A list of Tweet objects costs several heap objects per tweet (the tweet, its text, its
+ * author and its timestamp). A table instead keeps one primitive array per field: ids and
+ * timestamps (as epoch milliseconds) in long arrays, authors as ids into a dictionary of
+ * distinct spellings, and texts as UTF-8 bytes in a shared arena of large pages, so that
+ * the only per-tweet cost is about 32 bytes of array slots plus the text bytes.
+ *
+ * Tweet objects are built on demand: asList() is a random-access view whose get() builds
+ * the tweet at that position, so the Extract, Filter and SocialNetwork operations run on a
+ * table directly, and the tweets they return (if any) are the only ones kept alive.
+ * writtenBy() and inTimespan() scan the primitive columns and build only the tweets they
+ * return.
+ */
+public class TweetTable {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** size to which arena pages grow; texts never straddle pages */
+    private static final int PAGE_SIZE = 1 << 22;
+
+    private long[] ids;
+    private long[] millis;
+    private int[] authorIds;
+    private long[] textPositions;
+    private int[] textLengths;
+    private int size;
+
+    private final List<String> authors = new ArrayList<String>();
+    private final Map<String, Integer> authorIdsByName = new HashMap<String, Integer>();
+
+    private final List<byte[]> pages = new ArrayList<byte[]>();
+    private int pageUsed;
+    /* Rep invariant:
+     *    all column arrays have the same length >= size
+     *    authorIdsByName maps authors.get(id) to id, and the authors are distinct strings
+     *    0 <= authorIds[i] < authors.size() for 0 <= i < size
+     *    textPositions[i] == page << 32 | offset, where bytes [offset, offset + textLengths[i])
+     *    of pages.get(page) are the UTF-8 text of tweet i
+     *    pageUsed bytes of the last page are in use
+     * Abstraction function:
+     *    represents the list of tweets
+     *      new Tweet(ids[i], authors.get(authorIds[i]), text i, Instant.ofEpochMilli(millis[i]))
+     *    for 0 <= i < size
+     */
+
+    /**
+     * Make an empty table.
+     */
+    public TweetTable() {
+        ids = new long[INITIAL_CAPACITY];
+        millis = new long[INITIAL_CAPACITY];
+        authorIds = new int[INITIAL_CAPACITY];
+        textPositions = new long[INITIAL_CAPACITY];
+        textLengths = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Make a table holding some tweets, in order.
+     *
+     * @param tweets tweets, as accepted by add(), not modified by this method
+     */
+    public TweetTable(List<Tweet> tweets) {
+        this();
+        addAll(tweets);
+    }
+
+    /**
+     * Append a tweet. Its timestamp is stored truncated to the millisecond.
+     *
+     * @param tweet tweet whose timestamp, in milliseconds from the epoch, fits in a long
+     */
+    public void add(Tweet tweet) {
+        final long timestamp;
+        try {
+            timestamp = tweet.getTimestamp().toEpochMilli();
+        } catch (ArithmeticException ae) {
+            throw new IllegalArgumentException("timestamp out of range: " + tweet, ae);
+        }
+
+        if(size == ids.length){
+            grow();
+        }
+        ids[size] = tweet.getId();
+        millis[size] = timestamp;
+        authorIds[size] = authorId(tweet.getAuthor());
+        final byte[] text = tweet.getText().getBytes(StandardCharsets.UTF_8);
+        textPositions[size] = append(text);
+        textLengths[size] = text.length;
+        size++;
+    }
+
+    /**
+     * Append several tweets, as if by add() on each in order.
+     *
+     * @param tweets tweets, as accepted by add(), not modified by this method
+     */
+    public void addAll(List<Tweet> tweets) {
+        for(Tweet tweet : tweets){
+            add(tweet);
+        }
+    }
+
+    /**
+     * @return number of tweets in the table
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index index in [0, size())
+     * @return id of the tweet at index
+     */
+    public long getId(int index) {
+        checkIndex(index);
+        return ids[index];
+    }
+
+    /**
+     * @param index index in [0, size())
+     * @return timestamp of the tweet at index, in milliseconds from the epoch
+     */
+    public long getEpochMillis(int index) {
+        checkIndex(index);
+        return millis[index];
+    }
+
+    /**
+     * @param index index in [0, size())
+     * @return author of the tweet at index; the same String object for every tweet whose
+     *         author is spelled the same
+     */
+    public String getAuthor(int index) {
+        checkIndex(index);
+        return authors.get(authorIds[index]);
+    }
+
+    /**
+     * @param index index in [0, size())
+     * @return text of the tweet at index, decoded anew on each call
+     */
+    public String getText(int index) {
+        checkIndex(index);
+        final long position = textPositions[index];
+        return new String(pages.get((int) (position >>> 32)), (int) position, textLengths[index],
+                StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param index index in [0, size())
+     * @return a new Tweet equal to the one at index, with the same id, author, text and
+     *         (truncated) timestamp
+     */
+    public Tweet get(int index) {
+        return new Tweet(getId(index), getAuthor(index), getText(index), Instant.ofEpochMilli(millis[index]));
+    }
+
+    /**
+     * @return unmodifiable random-access view of the table as a list of tweets, backed by
+     *         the table, whose get() builds the tweet at that position
+     */
+    public List<Tweet> asList() {
+        return new TweetList();
+    }
+
+    /**
+     * Find tweets written by a particular user, as Filter.writtenBy does, comparing author
+     * ids rather than strings.
+     *
+     * @param username Twitter username, required to be a valid Twitter username
+     * @return all and only the tweets in the table that were sent by username, in the
+     *         order they were added
+     */
+    public List<Tweet> writtenBy(String username) {
+        final boolean[] matches = new boolean[authors.size()];
+        for(int id = 0; id < matches.length; id++){
+            matches[id] = authors.get(id).equalsIgnoreCase(username);
+        }
+
+        final List<Tweet> result = new ArrayList<Tweet>();
+        for(int i = 0; i < size; i++){
+            if(matches[authorIds[i]]){
+                result.add(get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Find tweets that were sent during a particular timespan, as Filter.inTimespan does,
+     * comparing the timestamp column rather than Instants.
+     *
+     * @param timespan timespan
+     * @return all and only the tweets in the table that were sent during the timespan
+     *         (endpoints included), in the order they were added
+     */
+    public List<Tweet> inTimespan(Timespan timespan) {
+        //stored timestamps are whole milliseconds, so round the start up and the end down
+        final Instant start = timespan.getStart();
+        final long startMillis = TweetTimeline.epochMillis(start);
+        final long from = start.getNano() % 1_000_000 == 0 || startMillis == Long.MAX_VALUE ? startMillis : startMillis + 1;
+        final long to = TweetTimeline.epochMillis(timespan.getEnd());
+
+        final List<Tweet> result = new ArrayList<Tweet>();
+        for(int i = 0; i < size; i++){
+            if(millis[i] >= from && millis[i] <= to){
+                result.add(get(i));
+            }
+        }
+        return result;
+    }
+
+    /*
+     * @return the id of author in the dictionary, adding it if it is new
+     */
+    private int authorId(String author) {
+        Integer id = authorIdsByName.get(author);
+        if(id == null){
+            id = authors.size();
+            authors.add(author);
+            authorIdsByName.put(author, id);
+        }
+        return id;
+    }
+
+    /*
+     * Copy bytes into the arena. The last page grows by doubling up to PAGE_SIZE, so small
+     * tables stay small; bytes that do not fit in it start a new page.
+     *
+     * @return position of the copy, as page << 32 | offset
+     */
+    private long append(byte[] bytes) {
+        final int needed = pageUsed + bytes.length;
+        if(pages.isEmpty() || needed > PAGE_SIZE && pageUsed > 0){
+            pages.add(new byte[Math.min(PAGE_SIZE, Math.max(bytes.length, 1024))]);
+            pageUsed = 0;
+        }
+        final int page = pages.size() - 1;
+        byte[] last = pages.get(page);
+        if(pageUsed + bytes.length > last.length){
+            last = Arrays.copyOf(last, Math.max(pageUsed + bytes.length, Math.min(PAGE_SIZE, last.length * 2)));
+            pages.set(page, last);
+        }
+        System.arraycopy(bytes, 0, last, pageUsed, bytes.length);
+        final long position = (long) page << 32 | pageUsed;
+        pageUsed += bytes.length;
+        return position;
+    }
+
+    /*
+     * Double the capacity of the columns.
+     */
+    private void grow() {
+        final int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        millis = Arrays.copyOf(millis, capacity);
+        authorIds = Arrays.copyOf(authorIds, capacity);
+        textPositions = Arrays.copyOf(textPositions, capacity);
+        textLengths = Arrays.copyOf(textLengths, capacity);
+    }
+
+    private void checkIndex(int index) {
+        if(index < 0 || index >= size){
+            throw new IndexOutOfBoundsException("no tweet at index " + index);
+        }
+    }
+
+    /*
+     * List view of the table.
+     */
+    private class TweetList extends AbstractList<Tweet> implements RandomAccess {
+        @Override public Tweet get(int index) {
+            return TweetTable.this.get(index);
+        }
+
+        @Override public int size() {
+            return size;
+        }
+    }
+}
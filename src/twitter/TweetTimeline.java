@@ -0,0 +1,223 @@
+package twitter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Mutable container of tweets kept sorted by timestamp, for answering many timespan
+ * queries against the same (growing) corpus.
+ *
+ * Timestamps are mirrored in a primitive array of epoch milliseconds, so a timespan query
+ * is two binary searches followed by a view of the contiguous run of matching tweets:
+ * O(log n) plus the work the caller does on the k tweets returned. Tweets that share a
+ * millisecond are told apart by a further binary search on their full timestamps, so a
+ * burst within one millisecond does not make a query linear. Tweets with equal timestamps
+ * are kept in the order they were added.
+ *
+ * Appending tweets in timestamp order costs amortized O(1); a tweet that arrives out of
+ * order is inserted in place, at the cost of shifting the later tweets.
+ */
+public class TweetTimeline {
+
+    private static final Comparator<Tweet> BY_TIMESTAMP = Comparator.comparing(Tweet::getTimestamp);
+
+    private final ArrayList<Tweet> tweets;
+    private long[] millis;
+    /* Rep invariant:
+     *    millis.length >= tweets.size()
+     *    millis[i] == epochMillis(tweets.get(i).getTimestamp()) for 0 <= i < tweets.size()
+     *    tweets is sorted by timestamp
+     * Abstraction function:
+     *    represents the multiset of tweets in tweets, ordered by timestamp and then by
+     *    order of addition
+     */
+
+    /**
+     * Make an empty timeline.
+     */
+    public TweetTimeline() {
+        this(Collections.<Tweet>emptyList());
+    }
+
+    /**
+     * Make a timeline holding some tweets.
+     *
+     * @param tweets a list of tweets with distinct ids, not modified by this method
+     */
+    public TweetTimeline(List<Tweet> tweets) {
+        this.tweets = new ArrayList<Tweet>(tweets);
+        this.tweets.sort(BY_TIMESTAMP);
+
+        this.millis = new long[Math.max(this.tweets.size(), 16)];
+        for(int i = 0; i < this.tweets.size(); i++){
+            millis[i] = epochMillis(this.tweets.get(i).getTimestamp());
+        }
+    }
+
+    /**
+     * Add a tweet, after every tweet already in the timeline with the same timestamp.
+     *
+     * @param tweet tweet whose id differs from those already in the timeline
+     */
+    public void add(Tweet tweet) {
+        final int position = upperBound(tweet.getTimestamp());
+        final int size = tweets.size();
+
+        if(size == millis.length){
+            millis = Arrays.copyOf(millis, size * 2);
+        }
+        System.arraycopy(millis, position, millis, position + 1, size - position);
+        millis[position] = epochMillis(tweet.getTimestamp());
+        tweets.add(position, tweet);
+    }
+
+    /**
+     * Add several tweets, as if by add() on each in order.
+     *
+     * @param tweets tweets whose ids differ from each other and from those already in the
+     *               timeline, not modified by this method
+     */
+    public void addAll(List<Tweet> tweets) {
+        for(Tweet tweet : tweets){
+            add(tweet);
+        }
+    }
+
+    /**
+     * Remove every tweet sent strictly before a point in time, e.g. to keep only a
+     * rolling window of recent tweets.
+     *
+     * @param cutoff date/time
+     */
+    public void removeBefore(Instant cutoff) {
+        final int count = lowerBound(cutoff);
+        final int size = tweets.size();
+
+        tweets.subList(0, count).clear();
+        System.arraycopy(millis, count, millis, 0, size - count);
+    }
+
+    /**
+     * @return number of tweets in the timeline
+     */
+    public int size() {
+        return tweets.size();
+    }
+
+    /**
+     * @return unmodifiable view of all the tweets, sorted by timestamp. The view is
+     *         backed by this timeline and must not be used after the timeline is modified.
+     */
+    public List<Tweet> getTweets() {
+        return Collections.unmodifiableList(tweets);
+    }
+
+    /**
+     * Find tweets that were sent during a particular timespan.
+     *
+     * @param timespan timespan
+     * @return unmodifiable view of all and only the tweets in the timeline that were sent
+     *         during the timespan (endpoints included), sorted by timestamp. These are the
+     *         tweets Filter.inTimespan(getTweets(), timespan) finds. The view is backed by
+     *         this timeline without copying and must not be used after the timeline is
+     *         modified.
+     */
+    public List<Tweet> inTimespan(Timespan timespan) {
+        final int from = lowerBound(timespan.getStart());
+        final int to = Math.max(from, upperBound(timespan.getEnd()));
+
+        return Collections.unmodifiableList(tweets.subList(from, to));
+    }
+
+    /**
+     * @param instant date/time
+     * @return milliseconds from the epoch to instant, rounded towards negative infinity,
+     *         and clamped to Long.MIN_VALUE..Long.MAX_VALUE for instants too far from the
+     *         epoch. Non-decreasing in instant.
+     */
+    static long epochMillis(Instant instant) {
+        final long seconds = instant.getEpochSecond();
+        try {
+            return Math.addExact(Math.multiplyExact(seconds, 1000L), instant.getNano() / 1_000_000);
+        } catch (ArithmeticException ae) {
+            return seconds < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    /*
+     * @return number of tweets sent strictly before instant
+     */
+    private int lowerBound(Instant instant) {
+        final long key = epochMillis(instant);
+        int low = lowerBound(key);
+        int high = upperBound(key);
+
+        //millisecond keys can tie; binary-search the run of equal keys on the full timestamps
+        while(low < high){
+            final int mid = (low + high) >>> 1;
+            if(tweets.get(mid).getTimestamp().isBefore(instant)){
+                low = mid + 1;
+            }else{
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /*
+     * @return number of tweets sent no later than instant
+     */
+    private int upperBound(Instant instant) {
+        final long key = epochMillis(instant);
+        int low = lowerBound(key);
+        int high = upperBound(key);
+
+        while(low < high){
+            final int mid = (low + high) >>> 1;
+            if(tweets.get(mid).getTimestamp().isAfter(instant)){
+                high = mid;
+            }else{
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /*
+     * @return least i such that millis[i] >= key, or size() if there is none
+     */
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = tweets.size();
+        while(low < high){
+            final int mid = (low + high) >>> 1;
+            if(millis[mid] < key){
+                low = mid + 1;
+            }else{
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /*
+     * @return least i such that millis[i] > key, or size() if there is none
+     */
+    private int upperBound(long key) {
+        int low = 0;
+        int high = tweets.size();
+        while(low < high){
+            final int mid = (low + high) >>> 1;
+            if(millis[mid] <= key){
+                low = mid + 1;
+            }else{
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
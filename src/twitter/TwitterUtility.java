@@ -4,6 +4,8 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
 
 public class TwitterUtility {
     
@@ -17,9 +19,23 @@ public class TwitterUtility {
      * @return The set associated with username if username present in the map, else, returns empty set.
      */
     public static Set<String> get(Map<String,Set<String>> socialNetwork, String userName){
-        for(String key : socialNetwork.keySet()){
-            if(equalsUsername(key,userName)){
-               return socialNetwork.get(key); 
+        if(isCaseInsensitive(socialNetwork)){
+            final Set<String> result = socialNetwork.get(userName);
+            return result == null ? Collections.<String>emptySet() : result;
+        }
+        
+        //a key spelled as given, or in its normal form, is the only representation of the username
+        Set<String> result = socialNetwork.get(userName);
+        if(result == null){
+            result = socialNetwork.get(normalizeUsername(userName));
+        }
+        if(result != null){
+            return result;
+        }
+        
+        for(Map.Entry<String, Set<String>> entry : socialNetwork.entrySet()){
+            if(equalsUsername(entry.getKey(),userName)){
+               return entry.getValue(); 
             }
         }
         
@@ -34,7 +50,19 @@ public class TwitterUtility {
      * @return result is true iff. for each x, containsUsername(username1, x) implies containsUsername(username1, x)
      */
     public static boolean containsAllUsernames(Set<String> usernames1 , Set<String> usernames2){
-        return toLower(usernames1).containsAll(toLower(usernames2));
+        if(isCaseInsensitive(usernames1)){
+            return usernames1.containsAll(usernames2);
+        }
+        
+        //normalize usernames1 once, then each member of usernames2 is a hash lookup
+        final Set<String> lowerCase = toLower(usernames1);
+        for(String username : usernames2){
+            if(!lowerCase.contains(normalizeUsername(username))){
+                return false;
+            }
+        }
+        
+        return true;
     }
     /**
      * membership relation in context of usernames
@@ -47,7 +75,21 @@ public class TwitterUtility {
      * @return result is true iff. there is x in usernames such that equalsUsername(x, username)
      */
     public static boolean containsUsername(Set<String> usernames, String username){
-        return toLower(usernames).contains(username.toLowerCase());
+        if(usernames.contains(username)){
+            return true;
+        }
+        if(isCaseInsensitive(usernames)){
+            return false;
+        }
+        
+        //no allocation: compare in place rather than building a lower-case copy of the set
+        for(String x : usernames){
+            if(equalsUsername(x, username)){
+                return true;
+            }
+        }
+        
+        return false;
     }
     
     /**
@@ -58,14 +100,54 @@ public class TwitterUtility {
      * @return result is true iff. username1.toLowerCase().equals(username2.toLowerCase()) 
      */
     public static boolean equalsUsername(String username1, String username2){
-        return username1.toLowerCase().equals(username2.toLowerCase()) ;
+        //usernames are ASCII, so this is the same as comparing lower-case copies, without making them
+        return username1.equalsIgnoreCase(username2);
+    }
+    
+    /**
+     * @param map a map with string keys
+     * @return true if map is known to compare its keys without regard to case (a UsernameMap,
+     *         or a sorted map ordered by String.CASE_INSENSITIVE_ORDER), so that lookups need
+     *         no scan; false if that is not known.
+     */
+    public static boolean isCaseInsensitive(Map<String, ?> map){
+        return map instanceof UsernameMap
+                || map instanceof SortedMap && ((SortedMap<String, ?>) map).comparator() == String.CASE_INSENSITIVE_ORDER;
+    }
+    
+    /**
+     * @param set a set of strings
+     * @return true if set is known to compare its members without regard to case (a UsernameSet,
+     *         or a sorted set ordered by String.CASE_INSENSITIVE_ORDER), so that lookups need
+     *         no scan; false if that is not known.
+     */
+    public static boolean isCaseInsensitive(Set<String> set){
+        return set instanceof UsernameSet
+                || set instanceof SortedSet && ((SortedSet<String>) set).comparator() == String.CASE_INSENSITIVE_ORDER;
+    }
+    
+    /**
+     * Normal form of a username, for use as a key in hash-based collections.
+     * 
+     * @param username string representing a valid username defined as in Tweet class
+     * @return username.toLowerCase(); username itself (no copy) when it has no upper case letters
+     */
+    public static String normalizeUsername(String username){
+        for(int i = 0; i < username.length(); i++){
+            final char c = username.charAt(i);
+            if(c >= 'A' && c <= 'Z' || c > '\u007F'){
+                return username.toLowerCase();
+            }
+        }
+        
+        return username;
     }
     
     public static Set<String> toLower(Set<String> s){
         Set<String> result = new HashSet<String>();
         
         for(String x : s){
-            result.add(x.toLowerCase());
+            result.add(normalizeUsername(x));
         }
         
         return result;
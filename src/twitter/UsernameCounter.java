@@ -0,0 +1,198 @@
+package twitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Mutable case-insensitive counter of usernames, built on primitive arrays.
+ *
+ * Each distinct username (compared without regard to case) gets a dense id from a
+ * UsernameDictionary, and its count is kept in an int array indexed by id, so adding to a
+ * count costs one normalization and, on average, O(1) probes, with no boxing.
+ */
+public class UsernameCounter {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final UsernameDictionary dictionary = new UsernameDictionary();
+    private int[] counts = new int[INITIAL_CAPACITY];
+    private int size;
+    /* Rep invariant:
+     *    size == dictionary.size() <= counts.length
+     * Abstraction function:
+     *    represents the map from username dictionary.name(id) (case-insensitively) to counts[id],
+     *    for 0 <= id < size
+     */
+
+    /**
+     * Add to the count of a username, first adding it with a count of 0 if it is new.
+     *
+     * @param username a valid Twitter username
+     * @param delta amount to add to its count; the resulting count must be >= 0
+     * @return the id of username
+     */
+    public int add(String username, int delta) {
+        final int id = dictionary.intern(username);
+        if(id == size){
+            if(size == counts.length){
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            size++;
+        }
+        counts[id] += delta;
+        return id;
+    }
+
+    /**
+     * @param username a valid Twitter username
+     * @return the count of username, or 0 if it has never been added
+     */
+    public int get(String username) {
+        final int id = dictionary.idOf(username);
+        return id == UsernameDictionary.ABSENT ? 0 : counts[id];
+    }
+
+    /**
+     * @return number of distinct usernames added
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param id id in [0, size())
+     * @return the username with that id, spelled as when it was first added
+     */
+    public String name(int id) {
+        return dictionary.name(id);
+    }
+
+    /**
+     * @param id id in [0, size())
+     * @return the count of the username with that id
+     */
+    public int count(int id) {
+        if(id < 0 || id >= size){
+            throw new IndexOutOfBoundsException("no username with id " + id);
+        }
+        return counts[id];
+    }
+
+    /**
+     * @return every username added, in descending order of count; usernames with equal
+     *         counts are in order of first appearance
+     */
+    public List<String> sortedByCount() {
+        final long[] order = new long[size];
+        for(int id = 0; id < size; id++){
+            order[id] = rankKey(counts[id], id);
+        }
+        Arrays.sort(order);
+
+        final List<String> result = new ArrayList<String>(size);
+        for(long key : order){
+            result.add(dictionary.name((int) key));
+        }
+        return result;
+    }
+
+    /**
+     * Select the most counted usernames with a bounded heap, in O(size() log k) time and
+     * O(k) extra space.
+     *
+     * @param k number of usernames wanted, >= 0
+     * @return the first min(k, size()) usernames of sortedByCount()
+     */
+    public List<String> top(int k) {
+        final int[] ids = topIds(counts, size, k);
+        final List<String> result = new ArrayList<String>(ids.length);
+        for(int id : ids){
+            result.add(dictionary.name(id));
+        }
+        return result;
+    }
+
+    /**
+     * Select the ids with the greatest counts with a bounded heap, in O(size log k) time
+     * and O(k) extra space.
+     *
+     * @param counts counts indexed by id, each >= 0
+     * @param size number of ids, [0, size), to select from; <= counts.length
+     * @param k number of ids wanted, >= 0
+     * @return the first min(k, size) ids in descending order of count; ids with equal
+     *         counts in ascending order
+     */
+    static int[] topIds(int[] counts, int size, int k) {
+        if(k < 0){
+            throw new IllegalArgumentException("requires k >= 0");
+        }
+
+        //max-heap of rank keys: the root is the worst of the best k seen so far
+        final long[] heap = new long[Math.min(k, size)];
+        int heapSize = 0;
+        for(int id = 0; id < size; id++){
+            final long key = rankKey(counts[id], id);
+            if(heapSize < heap.length){
+                heap[heapSize] = key;
+                siftUp(heap, heapSize++);
+            }else if(heapSize > 0 && key < heap[0]){
+                heap[0] = key;
+                siftDown(heap, heapSize);
+            }
+        }
+        Arrays.sort(heap);
+
+        final int[] ids = new int[heap.length];
+        for(int i = 0; i < heap.length; i++){
+            ids[i] = (int) heap[i];
+        }
+        return ids;
+    }
+
+    /*
+     * Sort key of an id: ascending key order is descending count, then ascending id.
+     */
+    private static long rankKey(int count, int id) {
+        return (long) (Integer.MAX_VALUE - count) << 32 | id;
+    }
+
+    /*
+     * Max-heap on rank keys (the worst candidate on top): restore order after heap[i] was set.
+     */
+    private static void siftUp(long[] heap, int i) {
+        while(i > 0){
+            final int parent = (i - 1) / 2;
+            if(heap[parent] >= heap[i]){
+                return;
+            }
+            swap(heap, parent, i);
+            i = parent;
+        }
+    }
+
+    /*
+     * Max-heap on rank keys: restore order after heap[0] was replaced.
+     */
+    private static void siftDown(long[] heap, int heapSize) {
+        int i = 0;
+        while(true){
+            final int left = 2 * i + 1;
+            if(left >= heapSize){
+                return;
+            }
+            final int largest = left + 1 < heapSize && heap[left + 1] > heap[left] ? left + 1 : left;
+            if(heap[i] >= heap[largest]){
+                return;
+            }
+            swap(heap, i, largest);
+            i = largest;
+        }
+    }
+
+    private static void swap(long[] heap, int i, int j) {
+        final long tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+    }
+}
@@ -0,0 +1,126 @@
+package twitter;
+
+import java.util.Arrays;
+
+/**
+ * Mutable case-insensitive dictionary that gives each distinct username a dense int id,
+ * in order of first appearance, so that usernames can be stored and compared as ints.
+ *
+ * Usernames are found through an open-addressing hash table of ids, so interning a
+ * username costs one normalization and, on average, O(1) probes, with no boxing.
+ */
+public class UsernameDictionary {
+
+    /** id returned for usernames not in the dictionary */
+    public static final int ABSENT = -1;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] table;
+    private String[] keys;
+    private String[] names;
+    private int size;
+    /* Rep invariant:
+     *    table.length is a power of two, and size <= table.length / 2
+     *    every slot of table is ABSENT or an id in [0, size); every id appears in exactly one slot,
+     *    found by linear probing from the hash of keys[id]
+     *    keys[id] == normalizeUsername(names[id]), and the keys are distinct
+     * Abstraction function:
+     *    represents the bijection from username names[id] (case-insensitively) to id,
+     *    for 0 <= id < size
+     */
+
+    /**
+     * Make an empty dictionary.
+     */
+    public UsernameDictionary() {
+        this.table = new int[INITIAL_CAPACITY * 2];
+        Arrays.fill(table, ABSENT);
+        this.keys = new String[INITIAL_CAPACITY];
+        this.names = new String[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Get the id of a username, first adding it if it is new.
+     *
+     * @param username a valid Twitter username
+     * @return the id of username; ids are given out as 0, 1, 2, ... in order of first
+     *         appearance
+     */
+    public int intern(String username) {
+        final String key = TwitterUtility.normalizeUsername(username);
+        int slot = slotOf(key);
+        if(table[slot] == ABSENT){
+            if(size == keys.length){
+                grow();
+                slot = slotOf(key);
+            }
+            table[slot] = size;
+            keys[size] = key;
+            names[size] = username;
+            size++;
+        }
+        return table[slot];
+    }
+
+    /**
+     * @param username a valid Twitter username
+     * @return the id of username, or ABSENT if it has never been interned
+     */
+    public int idOf(String username) {
+        return table[slotOf(TwitterUtility.normalizeUsername(username))];
+    }
+
+    /**
+     * @return number of distinct usernames interned
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param id id in [0, size())
+     * @return the username with that id, spelled as when it was first interned
+     */
+    public String name(int id) {
+        if(id < 0 || id >= size){
+            throw new IndexOutOfBoundsException("no username with id " + id);
+        }
+        return names[id];
+    }
+
+    /*
+     * @return the slot holding key's id, or the empty slot where it would be inserted
+     */
+    private int slotOf(String key) {
+        final int mask = table.length - 1;
+        int slot = mix(key.hashCode()) & mask;
+        while(table[slot] != ABSENT && !keys[table[slot]].equals(key)){
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /*
+     * Double the capacity of the id arrays and rehash.
+     */
+    private void grow() {
+        final int capacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        names = Arrays.copyOf(names, capacity);
+
+        table = new int[capacity * 2];
+        Arrays.fill(table, ABSENT);
+        for(int id = 0; id < size; id++){
+            table[slotOf(keys[id])] = id;
+        }
+    }
+
+    /*
+     * Spread the bits of a hash code, so that power-of-two tables use all of them.
+     */
+    static int mix(int hash) {
+        final int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,105 @@
+package twitter;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Mutable map whose keys are usernames, compared without regard to case, backed by a
+ * hash table.
+ * 
+ * Each key is stored under its normalized form, so get, put, containsKey and remove cost
+ * one normalization and an O(1) hash lookup. The map remembers the spelling each key was
+ * first put with, and iterates in order of insertion.
+ * 
+ * @param <V> type of values
+ */
+public class UsernameMap<V> extends AbstractMap<String, V> {
+    
+    private final Map<String, SimpleEntry<String, V>> entries = new LinkedHashMap<String, SimpleEntry<String, V>>();
+    /* Rep invariant:
+     *    every key k of entries is TwitterUtility.normalizeUsername(entries.get(k).getKey())
+     * Abstraction function:
+     *    represents the mapping from each entries.get(k).getKey() to entries.get(k).getValue(),
+     *    where usernames equal up to case are the same key
+     */
+    
+    /**
+     * Make an empty map.
+     */
+    public UsernameMap() {
+    }
+    
+    /**
+     * @param key a valid Twitter username
+     * @param value value to associate with it
+     * @return the value previously associated with a key equal to it up to case, or null;
+     *         the key keeps the spelling it was first put with
+     */
+    @Override public V put(String key, V value) {
+        final String normalized = TwitterUtility.normalizeUsername(key);
+        final SimpleEntry<String, V> entry = entries.get(normalized);
+        if(entry == null){
+            entries.put(normalized, new SimpleEntry<String, V>(key, value));
+            return null;
+        }
+        return entry.setValue(value);
+    }
+    
+    @Override public V get(Object key) {
+        final SimpleEntry<String, V> entry = entryOf(key);
+        return entry == null ? null : entry.getValue();
+    }
+    
+    @Override public boolean containsKey(Object key) {
+        return entryOf(key) != null;
+    }
+    
+    @Override public V remove(Object key) {
+        if(!(key instanceof String)){
+            return null;
+        }
+        final SimpleEntry<String, V> entry = entries.remove(TwitterUtility.normalizeUsername((String) key));
+        return entry == null ? null : entry.getValue();
+    }
+    
+    @Override public int size() {
+        return entries.size();
+    }
+    
+    @Override public void clear() {
+        entries.clear();
+    }
+    
+    @Override public Set<Map.Entry<String, V>> entrySet() {
+        return new AbstractSet<Map.Entry<String, V>>() {
+            @Override public Iterator<Map.Entry<String, V>> iterator() {
+                final Iterator<SimpleEntry<String, V>> iterator = entries.values().iterator();
+                return new Iterator<Map.Entry<String, V>>() {
+                    @Override public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+                    
+                    @Override public Map.Entry<String, V> next() {
+                        return iterator.next();
+                    }
+                    
+                    @Override public void remove() {
+                        iterator.remove();
+                    }
+                };
+            }
+            
+            @Override public int size() {
+                return entries.size();
+            }
+        };
+    }
+    
+    private SimpleEntry<String, V> entryOf(Object key) {
+        return key instanceof String ? entries.get(TwitterUtility.normalizeUsername((String) key)) : null;
+    }
+}
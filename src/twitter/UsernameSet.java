@@ -0,0 +1,76 @@
+package twitter;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Mutable set of usernames, compared without regard to case, backed by a hash table.
+ * 
+ * Each member is stored under its normalized form, so contains, add and remove cost one
+ * normalization and an O(1) hash lookup. The set remembers the spelling each member was
+ * first added with, and iterates in order of insertion.
+ */
+public class UsernameSet extends AbstractSet<String> {
+    
+    private final Map<String, String> members = new LinkedHashMap<String, String>();
+    /* Rep invariant:
+     *    every key k of members is TwitterUtility.normalizeUsername(members.get(k))
+     * Abstraction function:
+     *    represents the set of usernames members.values(), where usernames equal up to
+     *    case are the same element
+     */
+    
+    /**
+     * Make an empty set.
+     */
+    public UsernameSet() {
+    }
+    
+    /**
+     * Make a set holding some usernames.
+     * 
+     * @param usernames valid Twitter usernames; of several equal up to case, the first is kept
+     */
+    public UsernameSet(Collection<String> usernames) {
+        addAll(usernames);
+    }
+    
+    /**
+     * @param username a valid Twitter username
+     * @return true iff the set was changed, that is, no username equal to it up to case was present
+     */
+    @Override public boolean add(String username) {
+        return members.putIfAbsent(TwitterUtility.normalizeUsername(username), username) == null;
+    }
+    
+    /**
+     * @param o an object
+     * @return true iff o is a username equal up to case to a member of the set
+     */
+    @Override public boolean contains(Object o) {
+        return o instanceof String && members.containsKey(TwitterUtility.normalizeUsername((String) o));
+    }
+    
+    /**
+     * @param o an object
+     * @return true iff o is a username equal up to case to a member, which was removed
+     */
+    @Override public boolean remove(Object o) {
+        return o instanceof String && members.remove(TwitterUtility.normalizeUsername((String) o)) != null;
+    }
+    
+    @Override public Iterator<String> iterator() {
+        return members.values().iterator();
+    }
+    
+    @Override public int size() {
+        return members.size();
+    }
+    
+    @Override public void clear() {
+        members.clear();
+    }
+}
@@ -0,0 +1,326 @@
+package twitter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Mutable follows graph that keeps, for each (author, mentioned user) edge, how many times
+ * the author has mentioned that user and when they last did, so that rankings and pruning
+ * can tell a stray mention from a lasting one without a second pass over the tweets.
+ *
+ * Usernames are interned into a UsernameDictionary. Edges live in an open-addressing hash
+ * table keyed by the pair of ids packed into a long, (author << 32 | mentioned), with the
+ * mention counts and last-seen times in primitive arrays beside the keys, so recording a
+ * mention costs one username lookup per side and, on average, O(1) probes, with no boxing.
+ *
+ * With every edge kept (minMentions 1, no cutoff), the graph is the one
+ * SocialNetwork.guessFollowsGraph infers from the same tweets.
+ */
+public class WeightedFollowsGraph {
+
+    private static final long EMPTY = -1L;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final UsernameDictionary users = new UsernameDictionary();
+    private final BitSet authors = new BitSet();
+    private long[] keys;
+    private int[] counts;
+    private long[] lastSeen;
+    private int size;
+    /* Rep invariant:
+     *    keys.length == counts.length == lastSeen.length is a power of two, and
+     *    size <= keys.length / 2 is the number of slots whose key is not EMPTY
+     *    every non-EMPTY key is (long) u << 32 | v for distinct user ids u, v < users.size(),
+     *    found by linear probing from its hash, and keys are distinct
+     *    counts[slot] >= 1 for every non-EMPTY slot
+     *    every u of a key is in authors
+     * Abstraction function:
+     *    represents the social network in which users.name(u) follows users.name(v) for
+     *    each key (u, v) at some slot, having mentioned them counts[slot] times, last at
+     *    lastSeen[slot] epoch milliseconds; its keys (users with evidence) are the users
+     *    in authors
+     */
+
+    /**
+     * Make an empty graph.
+     */
+    public WeightedFollowsGraph() {
+        this.keys = new long[INITIAL_CAPACITY * 2];
+        Arrays.fill(keys, EMPTY);
+        this.counts = new int[keys.length];
+        this.lastSeen = new long[keys.length];
+    }
+
+    /**
+     * Add the evidence of one tweet: each mention of a user other than the author adds one
+     * to the weight of the edge from the author to that user, and moves its last-seen time
+     * up to the tweet's timestamp if that is later.
+     *
+     * @param tweet tweet
+     */
+    public void add(Tweet tweet) {
+        final int author = users.intern(tweet.getAuthor());
+        authors.set(author);
+        final long millis = TweetTimeline.epochMillis(tweet.getTimestamp());
+        MentionScanner.forEachMention(tweet.getText(), mention -> {
+            final int followed = users.intern(mention);
+            if(followed != author){
+                record((long) author << 32 | followed, millis);
+            }
+        });
+    }
+
+    /**
+     * Add the evidence of several tweets, as if by add() on each in order.
+     *
+     * @param tweets tweets, not modified by this method
+     */
+    public void addAll(List<Tweet> tweets) {
+        for(Tweet tweet : tweets){
+            add(tweet);
+        }
+    }
+
+    /**
+     * @return number of users in the graph, including those who are only followed
+     */
+    public int userCount() {
+        return users.size();
+    }
+
+    /**
+     * @return number of (follower, followed) edges in the graph
+     */
+    public int edgeCount() {
+        return size;
+    }
+
+    /**
+     * @param follower a valid Twitter username
+     * @param followed a valid Twitter username
+     * @return number of times follower has mentioned followed (case-insensitively) in the
+     *         tweets added, or 0 if there is no such edge
+     */
+    public int getMentionCount(String follower, String followed) {
+        final int slot = slotOf(follower, followed);
+        return slot < 0 ? 0 : counts[slot];
+    }
+
+    /**
+     * @param follower a valid Twitter username
+     * @param followed a valid Twitter username, with getMentionCount(follower, followed) > 0
+     * @return the latest timestamp, to the millisecond, of a tweet added in which follower
+     *         mentions followed
+     * @throws NoSuchElementException if follower has never mentioned followed
+     */
+    public Instant getLastSeen(String follower, String followed) {
+        final int slot = slotOf(follower, followed);
+        if(slot < 0){
+            throw new NoSuchElementException(follower + " has not mentioned " + followed);
+        }
+        return Instant.ofEpochMilli(lastSeen[slot]);
+    }
+
+    /**
+     * Remove every edge with fewer mentions than a threshold or not seen since a cutoff,
+     * e.g. to drop stray mentions and stale relationships before ranking. Users stay in
+     * the graph even if they lose all their edges.
+     *
+     * @param minMentions least mention count of an edge that is kept
+     * @param since edges last seen strictly before this are removed
+     * @return number of edges removed
+     */
+    public int prune(int minMentions, Instant since) {
+        final long cutoff = TweetTimeline.epochMillis(since);
+        final long[] oldKeys = keys;
+        final int[] oldCounts = counts;
+        final long[] oldLastSeen = lastSeen;
+        final int oldSize = size;
+
+        int kept = 0;
+        for(int slot = 0; slot < oldKeys.length; slot++){
+            if(oldKeys[slot] != EMPTY && isKept(oldCounts[slot], oldLastSeen[slot], minMentions, cutoff)){
+                kept++;
+            }
+        }
+        allocate(Math.max(INITIAL_CAPACITY * 2, Integer.highestOneBit(Math.max(1, kept)) * 4));
+        for(int slot = 0; slot < oldKeys.length; slot++){
+            if(oldKeys[slot] != EMPTY && isKept(oldCounts[slot], oldLastSeen[slot], minMentions, cutoff)){
+                insert(oldKeys[slot], oldCounts[slot], oldLastSeen[slot]);
+            }
+        }
+        return oldSize - size;
+    }
+
+    /**
+     * @param minMentions least mention count of an edge that is included
+     * @param since edges last seen strictly before this are left out
+     * @return the social network of the edges with at least minMentions mentions last seen
+     *         at or after since, in the map form SocialNetwork.guessFollowsGraph returns: a
+     *         case-insensitive map from each author to the users they follow. With
+     *         minMentions <= 1 and since == Instant.MIN, equal to guessFollowsGraph over
+     *         every tweet added.
+     */
+    public Map<String, Set<String>> toMap(int minMentions, Instant since) {
+        final long cutoff = TweetTimeline.epochMillis(since);
+        final Map<String, Set<String>> graph = new TreeMap<String, Set<String>>(String.CASE_INSENSITIVE_ORDER);
+        for(int u = authors.nextSetBit(0); u >= 0; u = authors.nextSetBit(u + 1)){
+            graph.put(users.name(u), new TreeSet<String>(String.CASE_INSENSITIVE_ORDER));
+        }
+        for(int slot = 0; slot < keys.length; slot++){
+            if(keys[slot] != EMPTY && isKept(counts[slot], lastSeen[slot], minMentions, cutoff)){
+                graph.get(users.name((int) (keys[slot] >>> 32))).add(users.name((int) keys[slot]));
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Rank users by the number of followers whose edges pass a threshold, so that stray
+     * and stale mentions do not count.
+     *
+     * @param k number of usernames wanted, >= 0
+     * @param minMentions least mention count of an edge that counts
+     * @param since edges last seen strictly before this do not count
+     * @return the first min(k, userCount()) users in descending order of the number of
+     *         distinct followers with at least minMentions mentions of them, last seen at
+     *         or after since; users with equal counts are in order of first appearance
+     */
+    public List<String> topInfluencers(int k, int minMentions, Instant since) {
+        final long cutoff = TweetTimeline.epochMillis(since);
+        final int[] followers = new int[users.size()];
+        for(int slot = 0; slot < keys.length; slot++){
+            if(keys[slot] != EMPTY && isKept(counts[slot], lastSeen[slot], minMentions, cutoff)){
+                followers[(int) keys[slot]]++;
+            }
+        }
+        return rank(followers, k);
+    }
+
+    /**
+     * Rank users by how often they are mentioned by others, counting every mention.
+     *
+     * @param k number of usernames wanted, >= 0
+     * @return the first min(k, userCount()) users in descending order of the total mention
+     *         count of the edges into them; users with equal totals are in order of first
+     *         appearance
+     */
+    public List<String> topByMentions(int k) {
+        final int[] totals = new int[users.size()];
+        for(int slot = 0; slot < keys.length; slot++){
+            if(keys[slot] != EMPTY){
+                totals[(int) keys[slot]] += counts[slot];
+            }
+        }
+        return rank(totals, k);
+    }
+
+    /*
+     * @return the first min(k, users) usernames by descending value of scores, indexed by
+     *         id, equal scores in order of id; only the winners' names are looked up
+     */
+    private List<String> rank(int[] scores, int k) {
+        final int[] ids = UsernameCounter.topIds(scores, scores.length, k);
+        final List<String> result = new ArrayList<String>(ids.length);
+        for(int id : ids){
+            result.add(users.name(id));
+        }
+        return result;
+    }
+
+    private static boolean isKept(int count, long lastSeen, int minMentions, long cutoff) {
+        return count >= minMentions && lastSeen >= cutoff;
+    }
+
+    /*
+     * @return slot of the edge from follower to followed, or -1 if there is none
+     */
+    private int slotOf(String follower, String followed) {
+        final int u = users.idOf(follower);
+        final int v = users.idOf(followed);
+        if(u == UsernameDictionary.ABSENT || v == UsernameDictionary.ABSENT){
+            return -1;
+        }
+        final int slot = probe((long) u << 32 | v);
+        return keys[slot] == EMPTY ? -1 : slot;
+    }
+
+    /*
+     * Add one mention at time millis to the edge key, creating the edge if it is new.
+     */
+    private void record(long key, long millis) {
+        final int slot = probe(key);
+        if(keys[slot] != EMPTY){
+            counts[slot]++;
+            lastSeen[slot] = Math.max(lastSeen[slot], millis);
+            return;
+        }
+        if(size + 1 > keys.length / 2){
+            grow();
+            insert(key, 1, millis);
+            return;
+        }
+        keys[slot] = key;
+        counts[slot] = 1;
+        lastSeen[slot] = millis;
+        size++;
+    }
+
+    /*
+     * @return the slot holding key, or the empty slot where it belongs
+     */
+    private int probe(long key) {
+        final int mask = keys.length - 1;
+        int slot = UsernameDictionary.mix(Long.hashCode(key * 0x9E3779B97F4A7C15L)) & mask;
+        while(keys[slot] != EMPTY && keys[slot] != key){
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /*
+     * Put a new edge into the table, which has room for it.
+     */
+    private void insert(long key, int count, long millis) {
+        final int slot = probe(key);
+        keys[slot] = key;
+        counts[slot] = count;
+        lastSeen[slot] = millis;
+        size++;
+    }
+
+    /*
+     * Double the capacity and rehash.
+     */
+    private void grow() {
+        final long[] oldKeys = keys;
+        final int[] oldCounts = counts;
+        final long[] oldLastSeen = lastSeen;
+
+        allocate(keys.length * 2);
+        for(int slot = 0; slot < oldKeys.length; slot++){
+            if(oldKeys[slot] != EMPTY){
+                insert(oldKeys[slot], oldCounts[slot], oldLastSeen[slot]);
+            }
+        }
+    }
+
+    /*
+     * Replace the table with an empty one of the given power-of-two capacity.
+     */
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        counts = new int[capacity];
+        lastSeen = new long[capacity];
+        size = 0;
+    }
+}
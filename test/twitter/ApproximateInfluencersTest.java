@@ -0,0 +1,181 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class ApproximateInfluencersTest {
+
+    /*
+     * Testing strategy
+     *
+     * ApproximateInfluencers(): counters < 1 (1.1), counters > MAX_COUNTERS (1.2);
+     *
+     * add():
+     *  tweet without mentions (2.1), same edge twice (2.2), same edge in another case (2.3),
+     *  self-mention (2.4), several authors mentioning one user (2.5);
+     *
+     * fewer distinct mentioned users than counters: counts exact, getMaxError() == 0 (3.1);
+     * every counter taken, then users evicted: getMaxError() is the smallest estimate (3.2);
+     *
+     * topInfluencers(k): k = 0 (4.1), k < counted users (4.2), k > counted users (4.3),
+     *  equal estimates in alphabetical order (4.4);
+     *
+     * skewed (Zipf) random corpora: top-k precision against SocialNetwork.topInfluencers,
+     * and every estimate within the error bounds of the exact follower count (5.1);
+     *
+     * many more distinct edges than expectedEdges: new edges still counted, filters rotated,
+     * an edge repeated soon after not counted again (6.1)
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    //covers 1.1
+    @Test(expected=IllegalArgumentException.class)
+    public void testNoCounters() {
+        new ApproximateInfluencers(0, 100);
+    }
+
+    //covers 1.2
+    @Test(expected=IllegalArgumentException.class)
+    public void testTooManyCounters() {
+        new ApproximateInfluencers(ApproximateInfluencers.MAX_COUNTERS + 1, 100);
+    }
+
+    //covers 6.1
+    @Test
+    public void testUnboundedStream() {
+        final ApproximateInfluencers sketch = new ApproximateInfluencers(10, 1000);
+        final int edges = 50_000;
+        for(int i = 0; i < edges; i++){
+            sketch.add(tweet(i, "author" + i, "@user" + i % 5));
+            sketch.add(tweet(i, "author" + i, "@user" + i % 5));
+        }
+
+        assertTrue(sketch.getRotationCount() >= edges / 1000 - 1);
+        assertTrue("counted " + sketch.getEdgeCount(), sketch.getEdgeCount() >= edges * 95 / 100);
+        assertTrue(sketch.getEdgeCount() <= edges);
+        assertTrue(sketch.estimateFollowerCount("user0") >= edges / 5 * 95 / 100);
+    }
+
+    //covers 2.1, 2.2, 2.3, 2.4, 2.5, 3.1, 4.1, 4.3, 4.4
+    @Test
+    public void testExactWhenFewUsers() {
+        final ApproximateInfluencers sketch = new ApproximateInfluencers(10, 1000);
+        sketch.addAll(Arrays.asList(
+                tweet(1, "alyssa", "nothing to see"),
+                tweet(2, "alyssa", "@bbitdiddle @Alyssa @rivest"),
+                tweet(3, "ALYSSA", "@BBitDiddle again"),
+                tweet(4, "ernie", "@bbitdiddle and @bert"),
+                tweet(5, "bert", "@ernie")));
+
+        assertEquals(5, sketch.getEdgeCount());
+        assertEquals(0, sketch.getMaxError());
+        assertEquals(2, sketch.estimateFollowerCount("BBITDIDDLE"));
+        assertEquals(2, sketch.guaranteedFollowerCount("bbitdiddle"));
+        assertEquals(0, sketch.estimateFollowerCount("alyssa"));
+        assertEquals(Arrays.asList(), sketch.topInfluencers(0));
+        assertEquals(Arrays.asList("bbitdiddle", "bert", "ernie", "rivest"), sketch.topInfluencers(10));
+    }
+
+    //covers 3.2, 4.2
+    @Test
+    public void testEviction() {
+        final ApproximateInfluencers sketch = new ApproximateInfluencers(2, 1000);
+        sketch.add(tweet(1, "a", "@x @y"));
+        sketch.add(tweet(2, "b", "@x @y"));
+        sketch.add(tweet(3, "c", "@x"));
+        assertEquals(2, sketch.getMaxError());
+        assertEquals(2, sketch.guaranteedFollowerCount("y"));
+
+        //z replaces y, inheriting its count of 2 as error
+        sketch.add(tweet(4, "a", "@z"));
+        assertEquals(3, sketch.estimateFollowerCount("z"));
+        assertEquals(1, sketch.guaranteedFollowerCount("z"));
+        assertEquals(0, sketch.estimateFollowerCount("y"));
+        assertEquals(3, sketch.getMaxError());
+        assertEquals(Arrays.asList("x"), sketch.topInfluencers(1));
+    }
+
+    //covers 5.1
+    @Test
+    public void testPrecisionOnSkewedCorpora() {
+        final int k = 20;
+        for(long seed = 1; seed <= 3; seed++){
+            final List<Tweet> tweets = zipfCorpus(50_000, 2_000, 20_000, seed);
+            final Map<String, Set<String>> followsGraph = SocialNetwork.guessFollowsGraph(tweets);
+            final UsernameCounter exact = new UsernameCounter();
+            for(Set<String> followed : followsGraph.values()){
+                for(String username : followed){
+                    exact.add(username, 1);
+                }
+            }
+
+            final ApproximateInfluencers sketch = new ApproximateInfluencers(500, 200_000);
+            sketch.addAll(tweets);
+
+            final Set<String> expected = new HashSet<String>();
+            for(String username : SocialNetwork.topInfluencers(followsGraph, k)){
+                expected.add(username.toLowerCase());
+            }
+            final List<String> actual = sketch.topInfluencers(k);
+            int hits = 0;
+            for(String username : actual){
+                hits += expected.contains(username) ? 1 : 0;
+            }
+            assertTrue("precision " + hits + "/" + k, hits >= k * 9 / 10);
+
+            final long maxError = sketch.getEdgeCount() / 500;
+            assertTrue(sketch.getMaxError() <= maxError);
+            for(String username : sketch.topInfluencers(500)){
+                final int count = exact.get(username);
+                assertTrue(sketch.guaranteedFollowerCount(username) <= count);
+                assertTrue(sketch.estimateFollowerCount(username) <= count + maxError);
+            }
+        }
+    }
+
+    /*
+     * @return tweets by authors chosen uniformly from authorCount, each mentioning one to
+     *         three users drawn from a Zipf distribution over userCount users
+     */
+    private static List<Tweet> zipfCorpus(int size, int authorCount, int userCount, long seed) {
+        final Random random = new Random(seed);
+        final double[] cumulative = new double[userCount];
+        double total = 0;
+        for(int rank = 0; rank < userCount; rank++){
+            total += 1 / Math.pow(rank + 1, 1.1);
+            cumulative[rank] = total;
+        }
+
+        final List<Tweet> tweets = new ArrayList<Tweet>(size);
+        for(int id = 0; id < size; id++){
+            final StringBuilder text = new StringBuilder();
+            for(int i = random.nextInt(3); i >= 0; i--){
+                int rank = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+                rank = rank < 0 ? -rank - 1 : rank;
+                text.append("@user").append(Math.min(rank, userCount - 1)).append(' ');
+            }
+            tweets.add(tweet(id, "author" + random.nextInt(authorCount), text.toString()));
+        }
+        return tweets;
+    }
+
+    private static Tweet tweet(long id, String author, String text) {
+        return new Tweet(id, author, text, d1);
+    }
+}
@@ -0,0 +1,90 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class AuthorIndexTest {
+
+    /*
+     * Testing strategy for writtenBy():
+     *
+     * number of indexed tweets:
+     *  0 (1.1), 1 (1.2), >1 (1.3);
+     *
+     * number of tweets written by username:
+     *  none (2.1), single (2.2), multiple (2.3);
+     *
+     * username differs in case from the author of its tweets (3.1),
+     * the author's tweets are spelled in different cases (3.2);
+     *
+     * random corpora compared against Filter.writtenBy (4.1);
+     *
+     * getAuthors():
+     *  first spelling of each author, in order of first appearance (5.1);
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    private static final Tweet tweet1 = new Tweet(1, "alyssa", "is it reasonable to talk about rivest so much?", d1);
+    private static final Tweet tweet2 = new Tweet(2, "bbitdiddle", "rivest talk in 30 minutes #hype", d1);
+    private static final Tweet tweet3 = new Tweet(3, "Alyssa", "again", d1);
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    //covers 1.1, 2.1
+    @Test
+    public void testWrittenByEmpty() {
+        final AuthorIndex index = new AuthorIndex(new ArrayList<Tweet>());
+
+        assertTrue(index.writtenBy("alyssa").isEmpty());
+        assertTrue(index.getAuthors().isEmpty());
+    }
+
+    //covers 1.2, 2.2, 3.1
+    @Test
+    public void testWrittenBySingle() {
+        final AuthorIndex index = new AuthorIndex(Arrays.asList(tweet1));
+
+        assertEquals(Arrays.asList(tweet1), index.writtenBy("ALYSSA"));
+    }
+
+    //covers 1.3, 2.3, 3.2, 5.1
+    @Test
+    public void testWrittenByMultiple() {
+        final AuthorIndex index = new AuthorIndex(Arrays.asList(tweet1, tweet2, tweet3));
+
+        assertEquals(Arrays.asList(tweet1, tweet3), index.writtenBy("alyssa"));
+        assertEquals(Arrays.asList(tweet2), index.writtenBy("bbitdiddle"));
+        assertEquals(Arrays.asList("alyssa", "bbitdiddle"), index.getAuthors());
+    }
+
+    //covers 4.1
+    @Test
+    public void testWrittenByMatchesFilter() {
+        final String[] authors = {"a", "A", "b", "B-1", "b-1", "c_"};
+        final Random random = new Random(6005);
+
+        for(int n = 0; n < 200; n++){
+            final List<Tweet> tweets = new ArrayList<Tweet>();
+            final int count = random.nextInt(10);
+            for(int i = 0; i < count; i++){
+                tweets.add(new Tweet(i, authors[random.nextInt(authors.length)], "text", d1));
+            }
+
+            final AuthorIndex index = new AuthorIndex(tweets);
+            for(String username : authors){
+                assertEquals(Filter.writtenBy(tweets, username), index.writtenBy(username));
+            }
+        }
+    }
+}
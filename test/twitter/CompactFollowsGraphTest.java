@@ -0,0 +1,150 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class CompactFollowsGraphTest {
+
+    /*
+     * Testing strategy
+     *
+     * fromTweets(), toMap():
+     *  no tweets (1.1), one tweet without mentions (1.2);
+     *  mentions repeated in another case (2.1), self-mentions (2.2), mentioned users who
+     *  are not authors (2.3);
+     *  random corpora compared against SocialNetwork.guessFollowsGraph (3.1);
+     *
+     * fromMap(): round trip through toMap() (4.1), self-follows ignored (4.2);
+     *
+     * following(), followerCounts():
+     *  user following no one (5.1), several users (5.2);
+     *
+     * influencers(), topInfluencers(k):
+     *  equal counts, in order of first appearance (6.1);
+     *  k = 0 (7.1), 0 < k < userCount (7.2), k >= userCount (7.3);
+     *  random corpora: follower counts non-increasing and same users as
+     *  SocialNetwork.influencers (8.1);
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    //covers 1.1
+    @Test
+    public void testEmpty() {
+        final CompactFollowsGraph graph = CompactFollowsGraph.fromTweets(Collections.<Tweet>emptyList());
+
+        assertEquals(0, graph.userCount());
+        assertEquals(0, graph.edgeCount());
+        assertTrue(graph.toMap().isEmpty());
+        assertTrue(graph.influencers().isEmpty());
+    }
+
+    //covers 1.2, 5.1
+    @Test
+    public void testNoMentions() {
+        final CompactFollowsGraph graph = CompactFollowsGraph.fromTweets(
+                Arrays.asList(new Tweet(1, "alyssa", "no one here", d1)));
+
+        assertEquals(1, graph.userCount());
+        assertEquals(0, graph.following(0).length);
+        assertEquals(SocialNetwork.guessFollowsGraph(Arrays.asList(new Tweet(1, "alyssa", "no one here", d1))),
+                graph.toMap());
+    }
+
+    //covers 2.1, 2.2, 2.3, 5.2, 6.1
+    @Test
+    public void testMentions() {
+        final List<Tweet> tweets = Arrays.asList(
+                new Tweet(1, "Alyssa", "@bbitdiddle @BBitDiddle @alyssa", d1),
+                new Tweet(2, "bbitdiddle", "@ALYSSA @ben", d1),
+                new Tweet(3, "alyssa", "@ben", d1));
+        final CompactFollowsGraph graph = CompactFollowsGraph.fromTweets(tweets);
+
+        assertEquals(3, graph.userCount());
+        assertEquals(4, graph.edgeCount());
+        final int alyssa = graph.idOf("alyssa");
+        final int bbitdiddle = graph.idOf("BBITDIDDLE");
+        final int ben = graph.idOf("ben");
+        assertEquals("Alyssa", graph.name(alyssa));
+        assertArrayEquals(new int[] {bbitdiddle, ben}, graph.following(alyssa));
+        assertArrayEquals(new int[] {alyssa, ben}, graph.following(bbitdiddle));
+        assertArrayEquals(new int[] {1, 1, 2}, graph.followerCounts());
+        assertEquals(Arrays.asList("ben", "Alyssa", "bbitdiddle"), graph.influencers());
+
+        final Map<String, Set<String>> map = graph.toMap();
+        assertEquals(SocialNetwork.guessFollowsGraph(tweets), map);
+        assertFalse("expected only authors as keys", map.containsKey("ben"));
+    }
+
+    //covers 4.1, 4.2
+    @Test
+    public void testFromMap() {
+        final Map<String, Set<String>> map = new HashMap<String, Set<String>>();
+        map.put("alyssa", TwitterUtility.toLower(new HashSet<String>(Arrays.asList("ben", "Alyssa"))));
+        map.put("ben", Collections.<String>emptySet());
+        final CompactFollowsGraph graph = CompactFollowsGraph.fromMap(map);
+
+        assertEquals(1, graph.edgeCount());
+        assertEquals(2, graph.toMap().size());
+        assertEquals(graph.toMap(), CompactFollowsGraph.fromMap(graph.toMap()).toMap());
+        assertEquals(Arrays.asList("ben"), graph.topInfluencers(1));
+    }
+
+    //covers 7.1, 7.2, 7.3
+    @Test
+    public void testTopInfluencers() {
+        final CompactFollowsGraph graph = CompactFollowsGraph.fromTweets(Arrays.asList(
+                new Tweet(1, "alyssa", "@ben @carl", d1),
+                new Tweet(2, "dana", "@carl", d1)));
+
+        assertTrue(graph.topInfluencers(0).isEmpty());
+        assertEquals(Arrays.asList("carl", "ben"), graph.topInfluencers(2));
+        assertEquals(graph.influencers(), graph.topInfluencers(10));
+        assertEquals(4, graph.influencers().size());
+    }
+
+    //covers 3.1, 8.1
+    @Test
+    public void testRandomAgainstSocialNetwork() {
+        final Random random = new Random(15);
+        for(int trial = 0; trial < 20; trial++){
+            final List<Tweet> tweets = new ArrayList<Tweet>();
+            for(int i = random.nextInt(200); i > 0; i--){
+                final StringBuilder text = new StringBuilder();
+                for(int j = random.nextInt(4); j > 0; j--){
+                    text.append(random.nextBoolean() ? "@User" : "@user").append(random.nextInt(30)).append(' ');
+                }
+                tweets.add(new Tweet(i, (random.nextBoolean() ? "USER" : "user") + random.nextInt(30), text.toString(), d1));
+            }
+            final CompactFollowsGraph graph = CompactFollowsGraph.fromTweets(tweets);
+            final Map<String, Set<String>> expected = SocialNetwork.guessFollowsGraph(tweets);
+
+            assertEquals(expected, graph.toMap());
+
+            final List<String> influencers = graph.influencers();
+            assertEquals(TwitterUtility.toLower(new HashSet<String>(SocialNetwork.influencers(expected))),
+                    TwitterUtility.toLower(new HashSet<String>(influencers)));
+            final int[] counts = graph.followerCounts();
+            for(int i = 1; i < influencers.size(); i++){
+                assertTrue(counts[graph.idOf(influencers.get(i - 1))] >= counts[graph.idOf(influencers.get(i))]);
+            }
+        }
+    }
+}
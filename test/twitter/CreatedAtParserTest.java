@@ -0,0 +1,108 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class CreatedAtParserTest {
+
+    /*
+     * Testing strategy
+     *
+     * parse(), parseEpochMillis():
+     *  offset +0000 (1.1), positive (1.2), negative (1.3);
+     *  date before the epoch (2.1), February 29 of a leap year (2.2), end of a year (2.3);
+     *  random instants and offsets compared against ZonedDateTime.parse (3.1);
+     *  outside the fast path's ranges but accepted by the general path (4.1);
+     *  rejected: day name does not match the date (5.1), February 29 of a common year
+     *  (5.2), hour 25 (5.3), unknown month (5.4), garbage (5.5)
+     */
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    //covers 1.1
+    @Test
+    public void testUtc() {
+        assertEquals(Instant.parse("2016-02-17T10:00:00Z"), CreatedAtParser.parse("Wed Feb 17 10:00:00 +0000 2016"));
+        assertEquals(Instant.parse("2016-02-17T10:00:00Z").toEpochMilli(),
+                CreatedAtParser.parseEpochMillis("Wed Feb 17 10:00:00 +0000 2016"));
+    }
+
+    //covers 1.2, 1.3
+    @Test
+    public void testOffsets() {
+        assertEquals(Instant.parse("2016-02-17T04:30:00Z"), CreatedAtParser.parse("Wed Feb 17 10:00:00 +0530 2016"));
+        assertEquals(Instant.parse("2016-02-17T18:00:00Z"), CreatedAtParser.parse("Wed Feb 17 10:00:00 -0800 2016"));
+    }
+
+    //covers 2.1, 2.2, 2.3
+    @Test
+    public void testCalendar() {
+        assertEquals(Instant.parse("1969-12-31T23:59:59Z"), CreatedAtParser.parse("Wed Dec 31 23:59:59 +0000 1969"));
+        assertEquals(Instant.parse("2016-02-29T12:00:00Z"), CreatedAtParser.parse("Mon Feb 29 12:00:00 +0000 2016"));
+        assertEquals(Instant.parse("2000-12-31T23:59:59Z"), CreatedAtParser.parse("Sun Dec 31 23:59:59 +0000 2000"));
+    }
+
+    //covers 3.1
+    @Test
+    public void testRandomAgainstZonedDateTime() {
+        final Random random = new Random(18);
+        for(int i = 0; i < 10_000; i++){
+            final Instant instant = Instant.ofEpochSecond(Math.floorMod(random.nextLong(), 100_000_000_000L));
+            final ZoneOffset offset = ZoneOffset.ofTotalSeconds(60 * (random.nextInt(18 * 120 + 1) - 18 * 60));
+            final String text = CreatedAtParser.FORMAT.format(instant.atOffset(offset));
+            if(text.length() != "Wed Feb 17 10:00:00 +0000 2016".length()){
+                continue; //years beyond 9999
+            }
+
+            assertEquals(text, ZonedDateTime.parse(text, CreatedAtParser.FORMAT).toInstant(), CreatedAtParser.parse(text));
+            assertEquals(text, instant.toEpochMilli(), CreatedAtParser.parseEpochMillis(text));
+        }
+    }
+
+    //covers 4.1
+    @Test
+    public void testGeneralPath() {
+        //hour 24 is resolved leniently by the general path, to midnight of the next day
+        assertEquals(Instant.parse("2016-02-18T00:00:00Z"), CreatedAtParser.parse("Wed Feb 17 24:00:00 +0000 2016"));
+    }
+
+    //covers 5.1
+    @Test(expected=DateTimeParseException.class)
+    public void testWrongDayName() {
+        CreatedAtParser.parse("Thu Feb 17 10:00:00 +0000 2016");
+    }
+
+    //covers 5.2
+    @Test(expected=DateTimeParseException.class)
+    public void testFebruary29CommonYear() {
+        CreatedAtParser.parse("Sun Feb 29 10:00:00 +0000 2015");
+    }
+
+    //covers 5.3
+    @Test(expected=DateTimeParseException.class)
+    public void testHour25() {
+        CreatedAtParser.parseEpochMillis("Wed Feb 17 25:00:00 +0000 2016");
+    }
+
+    //covers 5.4
+    @Test(expected=DateTimeParseException.class)
+    public void testUnknownMonth() {
+        CreatedAtParser.parse("Wed Fbr 17 10:00:00 +0000 2016");
+    }
+
+    //covers 5.5
+    @Test(expected=DateTimeParseException.class)
+    public void testGarbage() {
+        CreatedAtParser.parse("2016-02-17T10:00:00Z");
+    }
+}
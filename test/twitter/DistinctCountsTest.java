@@ -0,0 +1,91 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class DistinctCountsTest {
+
+    /*
+     * Testing strategy
+     *
+     * add():
+     *  no tweets (1.1); author in varying case (1.2), mention in varying case (1.3),
+     *  self-mention (1.4), tweet without mentions (1.5);
+     *
+     * random corpora compared against Extract.getMentionedUsers and
+     * SocialNetwork.guessFollowsGraph (2.1);
+     *
+     * merge(): shards merged equal the whole (3.1)
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    //covers 1.1, 1.2, 1.3, 1.4, 1.5
+    @Test
+    public void testSmall() {
+        final DistinctCounts counts = new DistinctCounts(12);
+        assertEquals(0, counts.getAuthorCount());
+        assertEquals(0, counts.getMentionedUserCount());
+        assertEquals(0, counts.getEdgeCount());
+
+        counts.addAll(Arrays.asList(
+                new Tweet(1, "alyssa", "@bbitdiddle @Alyssa", d1),
+                new Tweet(2, "ALYSSA", "@BBITDIDDLE", d1),
+                new Tweet(3, "bbitdiddle", "no mentions", d1)));
+
+        assertEquals(2, counts.getAuthorCount());
+        assertEquals(2, counts.getMentionedUserCount());
+        assertEquals(1, counts.getEdgeCount());
+    }
+
+    //covers 2.1, 3.1
+    @Test
+    public void testMatchesExactCounts() {
+        final Random random = new Random(23);
+        final List<Tweet> tweets = new ArrayList<Tweet>();
+        for(int i = 0; i < 30_000; i++){
+            final StringBuilder text = new StringBuilder();
+            for(int j = random.nextInt(4); j > 0; j--){
+                text.append(random.nextBoolean() ? "@User" : "@user").append(random.nextInt(20_000)).append(' ');
+            }
+            tweets.add(new Tweet(i, (random.nextBoolean() ? "USER" : "user") + random.nextInt(5_000), text.toString(), d1));
+        }
+        final DistinctCounts whole = new DistinctCounts(14);
+        whole.addAll(tweets);
+
+        final Map<String, Set<String>> followsGraph = SocialNetwork.guessFollowsGraph(tweets);
+        long edges = 0;
+        for(Set<String> followed : followsGraph.values()){
+            edges += followed.size();
+        }
+        final double tolerance = 0.05;
+        assertEquals(followsGraph.size(), whole.getAuthorCount(), tolerance * followsGraph.size());
+        final int mentioned = Extract.getMentionedUsers(tweets).size();
+        assertEquals(mentioned, whole.getMentionedUserCount(), tolerance * mentioned);
+        assertEquals(edges, whole.getEdgeCount(), tolerance * edges);
+
+        final DistinctCounts merged = new DistinctCounts(14);
+        for(int from = 0; from < tweets.size(); from += 7_000){
+            final DistinctCounts shard = new DistinctCounts(14);
+            shard.addAll(tweets.subList(from, Math.min(tweets.size(), from + 7_000)));
+            merged.merge(shard);
+        }
+        assertEquals(whole.getAuthorCount(), merged.getAuthorCount());
+        assertEquals(whole.getMentionedUserCount(), merged.getMentionedUserCount());
+        assertEquals(whole.getEdgeCount(), merged.getEdgeCount());
+    }
+}
@@ -0,0 +1,124 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class HyperLogLogTest {
+
+    /*
+     * Testing strategy
+     *
+     * HyperLogLog(): precision below, at and above the supported range (1.1);
+     *
+     * add(), estimate():
+     *  no values (2.1), one value (2.2), one value added many times (2.3);
+     *  distinct values: few (linear counting range) (2.4), many (2.5);
+     *  every precision from MIN_PRECISION to MAX_PRECISION (2.6);
+     *
+     * merge(): disjoint sketches (3.1), overlapping (3.2), into an empty sketch (3.3),
+     *  different precisions (3.4);
+     *
+     * copy(): later changes to either side not shared (4.1)
+     */
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    //covers 1.1
+    @Test
+    public void testPrecisionRange() {
+        for(int precision : new int[] {HyperLogLog.MIN_PRECISION - 1, HyperLogLog.MAX_PRECISION + 1}){
+            try {
+                new HyperLogLog(precision);
+                fail("expected IllegalArgumentException for " + precision);
+            } catch (IllegalArgumentException iae) {
+                //expected
+            }
+        }
+        assertEquals(HyperLogLog.MIN_PRECISION, new HyperLogLog(HyperLogLog.MIN_PRECISION).getPrecision());
+    }
+
+    //covers 2.1, 2.2, 2.3
+    @Test
+    public void testFewValues() {
+        final HyperLogLog sketch = new HyperLogLog(12);
+        assertEquals(0, sketch.estimate());
+
+        for(int i = 0; i < 1000; i++){
+            sketch.add(HyperLogLog.hash("alyssa"));
+        }
+        assertEquals(1, sketch.estimate());
+    }
+
+    //covers 2.4, 2.5, 2.6
+    @Test
+    public void testAccuracy() {
+        for(int precision = HyperLogLog.MIN_PRECISION; precision <= HyperLogLog.MAX_PRECISION; precision++){
+            final HyperLogLog sketch = new HyperLogLog(precision);
+            final double tolerance = 5 * sketch.getStandardError();
+            int added = 0;
+            for(int size : new int[] {10, 100, 1_000, 10_000, 100_000}){
+                while(added < size){
+                    sketch.add(HyperLogLog.hash("user" + added++));
+                    sketch.add(HyperLogLog.hash("user" + added / 2));
+                }
+                final double error = Math.abs(sketch.estimate() - size) / (double) size;
+                assertTrue("precision " + precision + ", size " + size + ": " + sketch.estimate(),
+                        error <= Math.max(tolerance, 0.2));
+            }
+        }
+
+        final HyperLogLog sketch = new HyperLogLog(14);
+        for(int i = 0; i < 1_000_000; i++){
+            sketch.add(BloomFilter.mix(i));
+        }
+        assertEquals(1_000_000, sketch.estimate(), 5 * sketch.getStandardError() * 1_000_000);
+    }
+
+    //covers 3.1, 3.2, 3.3
+    @Test
+    public void testMerge() {
+        final HyperLogLog left = new HyperLogLog(12);
+        final HyperLogLog right = new HyperLogLog(12);
+        final HyperLogLog whole = new HyperLogLog(12);
+        for(int i = 0; i < 60_000; i++){
+            if(i < 40_000){
+                left.add(BloomFilter.mix(i));
+            }
+            if(i >= 20_000){
+                right.add(BloomFilter.mix(i));
+            }
+            whole.add(BloomFilter.mix(i));
+        }
+
+        final HyperLogLog merged = new HyperLogLog(12);
+        merged.merge(left);
+        assertEquals(left.estimate(), merged.estimate());
+        merged.merge(right);
+        assertEquals(whole.estimate(), merged.estimate());
+        assertEquals(60_000, merged.estimate(), 5 * merged.getStandardError() * 60_000);
+    }
+
+    //covers 3.4
+    @Test(expected=IllegalArgumentException.class)
+    public void testMergeDifferentPrecisions() {
+        new HyperLogLog(10).merge(new HyperLogLog(11));
+    }
+
+    //covers 4.1
+    @Test
+    public void testCopy() {
+        final HyperLogLog sketch = new HyperLogLog(10);
+        sketch.add(HyperLogLog.hash("a"));
+        final HyperLogLog copy = sketch.copy();
+        copy.add(HyperLogLog.hash("b"));
+        sketch.add(HyperLogLog.hash("c"));
+        sketch.add(HyperLogLog.hash("d"));
+
+        assertEquals(2, copy.estimate());
+        assertEquals(3, sketch.estimate());
+    }
+}
@@ -0,0 +1,125 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class IncrementalFollowsGraphTest {
+
+    /*
+     * Testing strategy
+     *
+     * tweets added:
+     *  none (1.1), one at a time (1.2), in batches (1.3);
+     *
+     * new author (2.1), known author in another case (2.2);
+     *
+     * mention is new for its author (3.1), repeated (3.2), the author itself (3.3);
+     *
+     * snapshot():
+     *  compared against guessFollowsGraph over the full history after every batch (4.1);
+     *  not affected by later additions (4.2);
+     *
+     * influencers(), followerCount():
+     *  compared against follower counts of the snapshot (5.1);
+     *  equal counts in order of first appearance, spelled as first seen (5.2);
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    //covers 1.1
+    @Test
+    public void testEmpty() {
+        final IncrementalFollowsGraph graph = new IncrementalFollowsGraph();
+
+        assertTrue(graph.snapshot().isEmpty());
+        assertTrue(graph.influencers().isEmpty());
+    }
+
+    //covers 1.2, 2.1, 2.2, 3.1, 3.2, 3.3, 4.2
+    @Test
+    public void testAddOneAtATime() {
+        final IncrementalFollowsGraph graph = new IncrementalFollowsGraph();
+        graph.add(new Tweet(1, "Alyssa", "hi @ben and @alyssa", d1));
+        final Map<String, Set<String>> before = graph.snapshot();
+        graph.add(new Tweet(2, "alyssa", "@BEN again, and @cy", d1));
+
+        assertEquals(1, before.get("alyssa").size());
+        assertEquals(new HashSet<String>(Arrays.asList("ben", "cy")), new HashSet<String>(graph.snapshot().get("ALYSSA")));
+        assertEquals(1, graph.followerCount("Ben"));
+        assertEquals(0, graph.followerCount("alyssa"));
+        assertEquals(Arrays.asList("ben", "cy", "Alyssa"), graph.influencers());
+    }
+
+    //covers 1.3, 4.1, 5.1
+    @Test
+    public void testBatchesMatchFullRecomputation() {
+        final Random random = new Random(6005);
+        final IncrementalFollowsGraph graph = new IncrementalFollowsGraph();
+        final List<Tweet> history = new ArrayList<Tweet>();
+
+        for(int batch = 0; batch < 20; batch++){
+            final List<Tweet> tweets = new ArrayList<Tweet>();
+            for(int i = random.nextInt(30); i > 0; i--){
+                final String author = (random.nextBoolean() ? "user" : "USER") + random.nextInt(20);
+                tweets.add(new Tweet(history.size() + tweets.size(), author,
+                        "@user" + random.nextInt(25) + " @User" + random.nextInt(25), d1));
+            }
+            graph.addAll(tweets);
+            history.addAll(tweets);
+
+            final Map<String, Set<String>> expected = SocialNetwork.guessFollowsGraph(history);
+            assertEquals(expected, graph.snapshot());
+            assertEquals(new ArrayList<String>(expected.keySet()), new ArrayList<String>(graph.snapshot().keySet()));
+
+            final List<String> influencers = graph.influencers();
+            assertEquals(TwitterUtility.toLower(new HashSet<String>(SocialNetwork.influencers(expected))),
+                    TwitterUtility.toLower(new HashSet<String>(influencers)));
+            for(int i = 0; i < influencers.size(); i++){
+                assertEquals(followers(expected, influencers.get(i)), graph.followerCount(influencers.get(i)));
+                assertTrue(i == 0 || graph.followerCount(influencers.get(i - 1)) >= graph.followerCount(influencers.get(i)));
+            }
+        }
+    }
+
+    //covers 2.2, 5.2
+    @Test
+    public void testInfluencersTiesAndSpellings() {
+        final IncrementalFollowsGraph graph = new IncrementalFollowsGraph();
+        graph.add(new Tweet(1, "zed", "@Yan @xia", d1));
+        graph.add(new Tweet(2, "Xia", "@WEN", d1));
+        graph.add(new Tweet(3, "vic", "@wen @Zed", d1));
+
+        assertEquals(Arrays.asList("wen", "zed", "yan", "xia", "vic"), graph.influencers());
+        assertEquals(Arrays.asList("wen", "zed", "yan"), graph.topInfluencers(3));
+        assertEquals(TwitterUtility.toLower(new HashSet<String>(SocialNetwork.influencers(graph.snapshot()))),
+                new HashSet<String>(graph.influencers()));
+    }
+
+    /*
+     * Number of users that follow username in followsGraph.
+     */
+    private static int followers(Map<String, Set<String>> followsGraph, String username) {
+        int count = 0;
+        for(Set<String> followed : followsGraph.values()){
+            if(TwitterUtility.containsUsername(followed, username)){
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,253 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+public class IngestionPipelineTest {
+
+    /*
+     * Testing strategy
+     *
+     * consecutive polls return overlapping tweets (1.1), a malformed body (1.2);
+     * the source throws an unchecked exception (1.3); the error handler throws (1.4);
+     *
+     * analyzer keeps up (2.1), analyzer is blocked (2.2);
+     *
+     * server accepts a request and never answers: the poll times out (3.1), close()
+     * returns promptly while a poll is stuck (3.2);
+     *
+     * RecentIds: new and repeated ids (4.1), oldest id forgotten when full (4.2)
+     *
+     * The server is a local HTTP stand-in that serves canned JSON bodies in turn, or a
+     * URL handler whose first connection fails.
+     */
+
+    private static final String CREATED_AT = "Wed Feb 17 10:00:00 +0000 2016";
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @After
+    public void tearDown() {
+        if(server != null){
+            server.stop(0);
+        }
+    }
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    //covers 1.1, 1.2, 2.1
+    @Test
+    public void testDedupesOverlappingPolls() throws Exception {
+        final URL url = serve(json(1, 2), "not json", json(2, 3), json(3));
+        final List<Long> ids = Collections.synchronizedList(new ArrayList<Long>());
+        final List<Exception> errors = Collections.synchronizedList(new ArrayList<Exception>());
+        final CountDownLatch thirdTweet = new CountDownLatch(3);
+
+        try (IngestionPipeline pipeline = new IngestionPipeline(url, Duration.ofMillis(5), 2, batch -> {
+            for(Tweet tweet : batch){
+                ids.add(tweet.getId());
+                thirdTweet.countDown();
+            }
+        }, errors::add)) {
+            pipeline.start();
+            assertTrue("expected three distinct tweets", thirdTweet.await(10, TimeUnit.SECONDS));
+            //the poll after the third tweet's repeats it, making the second duplicate
+            final long deadline = System.currentTimeMillis() + 10_000;
+            while(pipeline.getDuplicateCount() < 2 && System.currentTimeMillis() < deadline){
+                Thread.sleep(10);
+            }
+
+            assertTrue(pipeline.getDuplicateCount() >= 2);
+        }
+
+        assertEquals(Arrays.asList(1L, 2L, 3L), ids);
+        assertFalse("expected the malformed body to be reported", errors.isEmpty());
+    }
+
+    //covers 1.3, 1.4, 2.1
+    @Test
+    public void testSurvivesUncheckedFailures() throws Exception {
+        final AtomicInteger opens = new AtomicInteger();
+        final URL url = new URL(null, "test:tweets", new URLStreamHandler() {
+            @Override protected URLConnection openConnection(URL u) {
+                return new URLConnection(u) {
+                    @Override public void connect() {
+                    }
+
+                    @Override public InputStream getInputStream() {
+                        if(opens.getAndIncrement() == 0){
+                            throw new IllegalStateException("source failed");
+                        }
+                        return new ByteArrayInputStream(json(1).getBytes(StandardCharsets.UTF_8));
+                    }
+                };
+            }
+        });
+        final List<Exception> errors = Collections.synchronizedList(new ArrayList<Exception>());
+        final CountDownLatch delivered = new CountDownLatch(1);
+
+        try (IngestionPipeline pipeline = new IngestionPipeline(url, Duration.ofMillis(5), 2,
+                batch -> delivered.countDown(), error -> {
+                    errors.add(error);
+                    throw new IllegalStateException("handler failed");
+                })) {
+            pipeline.start();
+            assertTrue("expected a batch after the failed fetch", delivered.await(10, TimeUnit.SECONDS));
+            assertTrue(pipeline.getFetchCount() >= 1);
+        }
+
+        assertTrue(opens.get() >= 2);
+        assertEquals("source failed", errors.get(0).getMessage());
+    }
+
+    //covers 3.1, 3.2
+    @Test
+    public void testStalledServer() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/tweets", exchange -> {
+            try {
+                release.await();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        server.start();
+        final URL url = new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/tweets");
+        final List<Exception> errors = Collections.synchronizedList(new ArrayList<Exception>());
+
+        try {
+            //a short timeout fails the stuck poll
+            try (IngestionPipeline pipeline = new IngestionPipeline(url, Duration.ofMillis(5), Duration.ofMillis(200),
+                    2, batch -> { }, errors::add)) {
+                pipeline.start();
+                final long deadline = System.currentTimeMillis() + 10_000;
+                while(errors.isEmpty() && System.currentTimeMillis() < deadline){
+                    Thread.sleep(10);
+                }
+                assertFalse("expected the stalled poll to time out", errors.isEmpty());
+                assertEquals(0, pipeline.getFetchCount());
+            }
+
+            //with a long timeout, close() aborts the poll rather than waiting for it
+            final IngestionPipeline pipeline = new IngestionPipeline(url, Duration.ofMillis(5), Duration.ofMinutes(10),
+                    2, batch -> { }, error -> { });
+            pipeline.start();
+            Thread.sleep(200);
+            final long started = System.currentTimeMillis();
+            pipeline.close();
+            assertTrue(System.currentTimeMillis() - started < 10_000);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    //covers 4.1, 4.2
+    @Test
+    public void testRecentIds() {
+        final IngestionPipeline.RecentIds ids = new IngestionPipeline.RecentIds(3);
+        assertTrue(ids.add(1));
+        assertTrue(ids.add(2));
+        assertFalse(ids.add(1));
+        assertTrue(ids.add(3));
+        assertTrue(ids.add(4));
+        assertEquals(3, ids.size());
+        assertTrue("1 was the oldest and is forgotten", ids.add(1));
+        assertFalse(ids.add(3));
+        assertFalse(ids.add(4));
+        assertTrue(ids.add(2));
+
+        final IngestionPipeline.RecentIds many = new IngestionPipeline.RecentIds(1000);
+        for(long id = 0; id < 100_000; id++){
+            assertTrue(many.add(id * 1024));
+            assertFalse(many.add(id * 1024));
+            assertFalse(many.add(Math.max(0, id - 999) * 1024));
+        }
+        assertEquals(1000, many.size());
+        assertTrue(many.add(0));
+    }
+
+    //covers 2.2
+    @Test
+    public void testBlockedAnalyzerThrottlesPolling() throws Exception {
+        final URL url = serve(json(1));
+        final CountDownLatch release = new CountDownLatch(1);
+        final int capacity = 1;
+
+        try (IngestionPipeline pipeline = new IngestionPipeline(url, Duration.ofMillis(1), capacity, batch -> {
+            try {
+                release.await();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }, error -> { })) {
+            pipeline.start();
+            Thread.sleep(500);
+
+            //one batch in each of the 3 queues, one held by each of the 4 stages
+            assertTrue("expected polling to stall, but fetched " + pipeline.getFetchCount(),
+                    pipeline.getFetchCount() <= 3 * capacity + 4);
+            release.countDown();
+        }
+    }
+
+    /*
+     * Start a local server that answers successive requests with the given bodies,
+     * repeating the last one.
+     */
+    private URL serve(String... bodies) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/tweets", exchange -> {
+            final int request = requests.getAndIncrement();
+            final byte[] body = bodies[Math.min(request, bodies.length - 1)].getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        return new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/tweets");
+    }
+
+    /*
+     * A JSON array of tweets with the given ids.
+     */
+    private static String json(long... ids) {
+        final StringBuilder json = new StringBuilder("[");
+        for(long id : ids){
+            if(json.length() > 1){
+                json.append(',');
+            }
+            json.append("{\"id\": ").append(id).append(", \"user.screen_name\": \"user").append(id)
+                .append("\", \"text\": \"hi @alyssa\", \"created_at\": \"").append(CREATED_AT).append("\"}");
+        }
+        return json.append(']').toString();
+    }
+}
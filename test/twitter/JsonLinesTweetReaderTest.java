@@ -0,0 +1,190 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JsonLinesTweetReaderTest {
+
+    /*
+     * Testing strategy
+     *
+     * reading a whole input:
+     *  no lines (1.1), one line without a final newline (1.2), several lines (1.3);
+     *  blank lines (2.1), CRLF line ends (2.2), lines longer than the read buffer (2.3),
+     *  non-ASCII text (2.4);
+     *  malformed lines: not JSON (3.1), missing field (3.2), two objects on a line (3.3),
+     *  not an object (3.4); longer than MAX_LINE_LENGTH (3.5);
+     *
+     * open(file, start, end):
+     *  start = 0 (4.1), start at a line start (4.2), start inside a line (4.3),
+     *  end beyond the file (4.4); every split of the file into two ranges (4.5);
+     *
+     * getPosition(): before any tweet (5.1), resuming from it (5.2)
+     *
+     * TweetReader.readTweetsFromWebJsonLines(): well-formed and malformed lines (6.1)
+     */
+
+    private static final String LINE1 = "{\"id\": 1, \"user\": {\"screen_name\": \"alyssa\"}, "
+            + "\"text\": \"caf\u00e9 @bbitdiddle\", \"created_at\": \"Wed Feb 17 10:00:00 +0000 2016\"}";
+    private static final String LINE2 = "{\"id\": 2, \"user.screen_name\": \"bbitdiddle\", "
+            + "\"text\": \"rivest talk\", \"created_at\": \"Wed Feb 17 11:00:00 +0000 2016\"}";
+    private static final String LINE3 = "{\"id\": \"3\", \"user.screen_name\": \"alyssa\", "
+            + "\"text\": \"see you\", \"created_at\": \"Wed Feb 17 12:00:00 +0000 2016\"}";
+
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("jsonl");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        for(Path file : Files.newDirectoryStream(directory)){
+            Files.delete(file);
+        }
+        Files.delete(directory);
+    }
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    //covers 1.1
+    @Test
+    public void testEmpty() throws IOException {
+        try (JsonLinesTweetReader reader = reader("")) {
+            assertFalse(reader.hasNext());
+            assertEquals(0, reader.getSkippedCount());
+        }
+    }
+
+    //covers 1.2, 2.4
+    @Test
+    public void testOneLine() throws IOException {
+        try (JsonLinesTweetReader reader = reader(LINE1)) {
+            final Tweet tweet = reader.next();
+            assertEquals(1, tweet.getId());
+            assertEquals("alyssa", tweet.getAuthor());
+            assertEquals("caf\u00e9 @bbitdiddle", tweet.getText());
+            assertFalse(reader.hasNext());
+        }
+    }
+
+    //covers 1.3, 2.1, 2.2, 2.3
+    @Test
+    public void testSeveralLines() throws IOException {
+        final StringBuilder padding = new StringBuilder();
+        while(padding.length() < 200_000){
+            padding.append("padding ");
+        }
+        final String longLine = LINE2.replace("{", "{\"padding\": \"" + padding + "\", ");
+
+        try (JsonLinesTweetReader reader = reader(LINE1 + "\r\n\n   \n" + longLine + "\n" + LINE3 + "\r\n")) {
+            assertEquals(Arrays.asList(1L, 2L, 3L), ids(reader));
+            assertEquals(0, reader.getSkippedCount());
+        }
+    }
+
+    //covers 6.1
+    @Test
+    public void testTweetReaderJsonLines() throws IOException {
+        final Path file = write(LINE1 + "\nnot json\n\n" + LINE2 + "\n");
+
+        assertEquals(Arrays.asList(1L, 2L), TweetReader.readTweetsFromWebJsonLines(file.toUri().toURL())
+                .stream().map(Tweet::getId).collect(Collectors.toList()));
+    }
+
+    //covers 3.5
+    @Test
+    public void testOversizedLineSkipped() throws IOException {
+        final StringBuilder padding = new StringBuilder();
+        while(padding.length() <= JsonLinesTweetReader.MAX_LINE_LENGTH){
+            padding.append("padding ");
+        }
+        final String oversized = LINE1.replace("{", "{\"padding\": \"" + padding + "\", ");
+
+        try (JsonLinesTweetReader reader = reader(oversized + "\n" + LINE2 + "\n" + oversized)) {
+            assertEquals(Arrays.asList(2L), ids(reader));
+            assertEquals(2, reader.getSkippedCount());
+        }
+    }
+
+    //covers 3.1, 3.2, 3.3, 3.4
+    @Test
+    public void testMalformedLinesSkipped() throws IOException {
+        final String input = String.join("\n", "not json", LINE1, "{\"id\": 5}", LINE2 + " " + LINE2,
+                "[" + LINE3 + "]", LINE3, "{\"id\": ");
+        try (JsonLinesTweetReader reader = reader(input)) {
+            assertEquals(Arrays.asList(1L, 3L), ids(reader));
+            assertEquals(5, reader.getSkippedCount());
+        }
+    }
+
+    //covers 4.1, 4.2, 4.3, 4.4, 4.5
+    @Test
+    public void testEverySplit() throws IOException {
+        final String content = LINE1 + "\n\n" + LINE2 + "\r\n" + LINE3;
+        final Path file = write(content);
+        final long size = Files.size(file);
+
+        for(long cut = 0; cut <= size; cut++){
+            final List<Long> ids = new ArrayList<Long>();
+            try (JsonLinesTweetReader first = JsonLinesTweetReader.open(file, 0, cut);
+                    JsonLinesTweetReader second = JsonLinesTweetReader.open(file, cut, size + 10)) {
+                ids.addAll(ids(first));
+                ids.addAll(ids(second));
+            }
+            assertEquals("cut at " + cut, Arrays.asList(1L, 2L, 3L), ids);
+        }
+    }
+
+    //covers 5.1, 5.2
+    @Test
+    public void testResume() throws IOException {
+        final Path file = write(LINE1 + "\n" + LINE2 + "\n" + LINE3 + "\n");
+
+        final long position;
+        try (JsonLinesTweetReader reader = JsonLinesTweetReader.open(file)) {
+            assertEquals(0, reader.getPosition());
+            assertEquals(1, reader.next().getId());
+            assertTrue(reader.hasNext());
+            position = reader.getPosition();
+        }
+        assertEquals(LINE1.getBytes(StandardCharsets.UTF_8).length + 1, position);
+
+        try (JsonLinesTweetReader reader = JsonLinesTweetReader.open(file, position, Long.MAX_VALUE)) {
+            assertEquals(Arrays.asList(2L, 3L), reader.stream().map(Tweet::getId).collect(Collectors.toList()));
+        }
+    }
+
+    private static JsonLinesTweetReader reader(String content) {
+        return new JsonLinesTweetReader(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private Path write(String content) throws IOException {
+        final Path file = directory.resolve("tweets.jsonl");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static List<Long> ids(JsonLinesTweetReader reader) {
+        final List<Long> ids = new ArrayList<Long>();
+        reader.forEachRemaining(tweet -> ids.add(tweet.getId()));
+        return ids;
+    }
+}
@@ -0,0 +1,152 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class MentionScannerTest {
+
+    /*
+     * Testing strategy
+     *
+     * text:
+     *  empty (1.1), has no "@" (1.2), has mentions (1.3);
+     *
+     * mention position:
+     *  at start (2.1), at end (2.2), in the middle (2.3);
+     *
+     * mention preceded by a username character, as in an email address (3.1),
+     * mention followed by "@" (3.2),
+     * "@" followed by nothing or a non-username character (3.3),
+     * mention followed by "-" (3.4);
+     *
+     * mention case:
+     *  all lower case (4.1), has upper case (4.2), has non-ASCII characters that
+     *  lower-case into the username alphabet (4.3);
+     *
+     * same username mentioned twice (5.1), else (5.2);
+     *
+     * random text compared against the original regular-expression extraction (6.1);
+     */
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    //covers 1.1, 1.2
+    @Test
+    public void testNoMentions() {
+        assertEquals(new ArrayList<String>(), mentions(""));
+        assertEquals(new ArrayList<String>(), mentions("no mentions here, just #hashtags"));
+    }
+
+    //covers 1.3, 2.1, 2.2, 2.3, 4.1, 5.1
+    @Test
+    public void testMentionPositions() {
+        assertEquals(list("a", "b_1", "a"), mentions("@a talks to @b_1 and @a"));
+    }
+
+    //covers 3.1, 3.2, 3.3, 3.4
+    @Test
+    public void testMentionBoundaries() {
+        assertEquals(list(), mentions("bitdiddle@mit.edu"));
+        assertEquals(list(), mentions("@alyssa@mit"));
+        assertEquals(list(), mentions("@ @! @"));
+        assertEquals(list("ben"), mentions("@ben-bitdiddle"));
+        assertEquals(list("x"), mentions("(@x)\n@@y"));
+    }
+
+    //covers 4.2, 4.3
+    @Test
+    public void testMentionCase() {
+        assertEquals(list("alyssa"), mentions("@AlYsSa"));
+        assertEquals(list("kelvin"), mentions("@\u212Aelvin"));
+        assertEquals(list("i"), mentions("@\u0130stanbul"));
+    }
+
+    //covers 6.1
+    @Test
+    public void testMatchesRegularExpressionExtraction() {
+        final String alphabet = "aZ9_@ -.\n#\u212A\u0130\u00E9";
+        final Random random = new Random(6005);
+
+        for(int n = 0; n < 10_000; n++){
+            final StringBuilder text = new StringBuilder();
+            final int length = random.nextInt(30);
+            for(int i = 0; i < length; i++){
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+
+            assertEquals(text.toString(), regexMentions(text.toString()), mentions(text.toString()));
+        }
+    }
+
+    //covers 7.1, 7.2, 7.3
+    @Test
+    public void testHashtags() {
+        assertEquals(list("mit", "a_1", "mit"), hashtags("#mit @alyssa #a_1@x and #MIT"));
+        assertEquals(list(), hashtags("c# ##x # #-"));
+        assertEquals(list("y", "z"), hashtags("#x#y x #y. #z"));
+    }
+
+    //covers 7.4
+    @Test
+    public void testHashtagsMatchRegularExpressionExtraction() {
+        final String alphabet = "aZ9_# -.\n@\u212A\u0130\u00E9";
+        final Random random = new Random(6005);
+
+        for(int n = 0; n < 10_000; n++){
+            final StringBuilder text = new StringBuilder();
+            final int length = random.nextInt(30);
+            for(int i = 0; i < length; i++){
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+
+            final List<String> expected = new ArrayList<String>();
+            for(String str : text.toString().toLowerCase().split("[^a-z0-9_#]")){
+                if(str.matches("#[a-z0-9_]+")){
+                    expected.add(str.substring(1));
+                }
+            }
+            assertEquals(text.toString(), expected, hashtags(text.toString()));
+        }
+    }
+
+    private static List<String> hashtags(String text) {
+        final List<String> result = new ArrayList<String>();
+        MentionScanner.forEachHashtag(text, result::add);
+        return result;
+    }
+
+    private static List<String> mentions(String text) {
+        final List<String> result = new ArrayList<String>();
+        MentionScanner.forEachMention(text, result::add);
+        return result;
+    }
+
+    private static List<String> list(String... usernames) {
+        final List<String> result = new ArrayList<String>();
+        for(String username : usernames){
+            result.add(username);
+        }
+        return result;
+    }
+
+    /*
+     * The regular-expression extraction Extract.getMentionedUsers originally used.
+     */
+    private static List<String> regexMentions(String text) {
+        final List<String> result = new ArrayList<String>();
+        for(String str : text.toLowerCase().split("[^a-z0-9_@]")){
+            if(str.matches("@[a-z0-9_]+")){
+                result.add(str.substring(1));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,182 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class PageRankTest {
+
+    /*
+     * Testing strategy
+     *
+     * scores():
+     *  graph empty (1.1), one user (1.2), users following no one (1.3);
+     *  damping, tolerance or maxIterations out of range (1.4);
+     *  random graphs compared against a sequential reference implementation (2.1);
+     *  pools with one and several threads give identical scores (2.2);
+     *  graphs large enough to be cut into several chunks (2.3);
+     *
+     * topInfluencers(k): k = 0 (3.1), 0 < k < users (3.2), k >= users (3.3);
+     *  equal scores in order of user id (3.4);
+     *
+     * SocialNetwork.pageRankInfluencers(): a ring of users following each other ranks below
+     *  a user followed by well-followed users, unlike SocialNetwork.influencers (4.1);
+     *  every user of the graph listed once (4.2)
+     */
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    //covers 1.1, 1.2, 1.3, 3.1, 3.3, 3.4
+    @Test
+    public void testSmallGraphs() {
+        final ForkJoinPool pool = ForkJoinPool.commonPool();
+        final CompactFollowsGraph empty = CompactFollowsGraph.fromMap(Collections.<String, Set<String>>emptyMap());
+        assertEquals(0, PageRank.scores(empty, pool).length);
+        assertEquals(Arrays.asList(), PageRank.topInfluencers(empty, 3, pool));
+
+        final Map<String, Set<String>> one = new HashMap<String, Set<String>>();
+        one.put("alyssa", new HashSet<String>());
+        assertArrayEquals(new double[] {1.0}, PageRank.scores(CompactFollowsGraph.fromMap(one), pool), 1e-12);
+
+        final Map<String, Set<String>> twoAlone = new LinkedHashMap<String, Set<String>>();
+        twoAlone.put("ernie", new HashSet<String>());
+        twoAlone.put("bert", new HashSet<String>());
+        final CompactFollowsGraph graph = CompactFollowsGraph.fromMap(twoAlone);
+        assertArrayEquals(new double[] {0.5, 0.5}, PageRank.scores(graph, pool), 1e-12);
+        assertEquals(Arrays.asList(), PageRank.topInfluencers(graph, 0, pool));
+        assertEquals(Arrays.asList("ernie", "bert"), PageRank.topInfluencers(graph, 5, pool));
+    }
+
+    //covers 1.4
+    @Test
+    public void testBadParameters() {
+        final CompactFollowsGraph graph = CompactFollowsGraph.fromMap(Collections.<String, Set<String>>emptyMap());
+        final ForkJoinPool pool = ForkJoinPool.commonPool();
+        final double[][] parameters = {{1.0, 1e-6, 10}, {-0.1, 1e-6, 10}, {0.85, 0, 10}, {0.85, 1e-6, 0}};
+        for(double[] p : parameters){
+            try {
+                PageRank.scores(graph, p[0], p[1], (int) p[2], pool);
+                fail("expected IllegalArgumentException for " + Arrays.toString(p));
+            } catch (IllegalArgumentException iae) {
+                //expected
+            }
+        }
+    }
+
+    //covers 2.1, 2.2, 2.3, 3.2
+    @Test
+    public void testMatchesReference() {
+        final Random random = new Random(24);
+        final ForkJoinPool one = new ForkJoinPool(1);
+        final ForkJoinPool four = new ForkJoinPool(4);
+        try {
+            for(int users : new int[] {2, 10, 300, 40_000}){
+                final Map<String, Set<String>> map = new HashMap<String, Set<String>>();
+                for(int u = 0; u < users; u++){
+                    final Set<String> followed = new HashSet<String>();
+                    //skewed out-degrees, including users who follow no one
+                    for(int i = random.nextInt(4) == 0 ? 0 : random.nextInt(8); i > 0; i--){
+                        followed.add("user" + (int) (users * Math.pow(random.nextDouble(), 3)));
+                    }
+                    map.put("user" + u, followed);
+                }
+                final CompactFollowsGraph graph = CompactFollowsGraph.fromMap(map);
+
+                final double[] expected = reference(graph, 0.85, 1e-12);
+                final double[] actual = PageRank.scores(graph, 0.85, 1e-12, 1000, one);
+                assertArrayEquals(expected, actual, 1e-10);
+                assertArrayEquals(actual, PageRank.scores(graph, 0.85, 1e-12, 1000, four), 0);
+
+                double sum = 0;
+                for(double score : actual){
+                    assertTrue(score > 0);
+                    sum += score;
+                }
+                assertEquals(1.0, sum, 1e-9);
+
+                final List<String> top = PageRank.topInfluencers(graph, 5, four);
+                assertEquals(Math.min(5, users), top.size());
+                for(int i = 1; i < top.size(); i++){
+                    assertTrue(actual[graph.idOf(top.get(i - 1))] >= actual[graph.idOf(top.get(i))]);
+                }
+            }
+        } finally {
+            one.shutdown();
+            four.shutdown();
+        }
+    }
+
+    //covers 4.1, 4.2
+    @Test
+    public void testRingRanksBelowWellFollowedUser() {
+        final Map<String, Set<String>> followsGraph = new HashMap<String, Set<String>>();
+        for(int i = 0; i < 20; i++){
+            followsGraph.put("fan" + i, new HashSet<String>(Arrays.asList("hub0", "hub1", "hub2")));
+        }
+        for(int i = 0; i < 3; i++){
+            followsGraph.put("hub" + i, new HashSet<String>(Arrays.asList("celebrity")));
+        }
+        for(int i = 0; i < 5; i++){
+            final Set<String> ring = new HashSet<String>();
+            for(int j = 0; j < 5; j++){
+                if(j != i){
+                    ring.add("bot" + j);
+                }
+            }
+            followsGraph.put("bot" + i, ring);
+        }
+
+        final List<String> byDegree = SocialNetwork.influencers(followsGraph);
+        assertTrue(byDegree.indexOf("bot0") < byDegree.indexOf("celebrity"));
+
+        final List<String> byPageRank = SocialNetwork.pageRankInfluencers(followsGraph);
+        assertEquals(29, byPageRank.size());
+        assertEquals(29, new HashSet<String>(byPageRank).size());
+        assertTrue(byPageRank.indexOf("celebrity") < byPageRank.indexOf("bot0"));
+    }
+
+    /*
+     * Straightforward sequential PageRank, pushing score along outgoing edges.
+     */
+    private static double[] reference(CompactFollowsGraph graph, double damping, double tolerance) {
+        final int n = graph.userCount();
+        double[] rank = new double[n];
+        Arrays.fill(rank, 1.0 / n);
+        while(true){
+            final double[] next = new double[n];
+            double dangling = 0;
+            for(int u = 0; u < n; u++){
+                final int[] followed = graph.following(u);
+                if(followed.length == 0){
+                    dangling += rank[u];
+                }
+                for(int v : followed){
+                    next[v] += damping * rank[u] / followed.length;
+                }
+            }
+            double change = 0;
+            for(int v = 0; v < n; v++){
+                next[v] += (1 - damping) / n + damping * dangling / n;
+                change += Math.abs(next[v] - rank[v]);
+            }
+            rank = next;
+            if(change < tolerance){
+                return rank;
+            }
+        }
+    }
+}
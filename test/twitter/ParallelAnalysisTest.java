@@ -0,0 +1,89 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class ParallelAnalysisTest {
+
+    /*
+     * Testing strategy
+     *
+     * number of tweets:
+     *  0 (1.1), fewer than one shard (1.2), many shards (1.3);
+     *
+     * pool parallelism:
+     *  1 (2.1), > 1 (2.2);
+     *
+     * list supports random access (3.1), does not (3.2);
+     *
+     * author spelled differently in different shards (4.1);
+     *
+     * every result compared against the sequential operation (5.1);
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    //covers 1.1, 2.2
+    @Test(expected=IllegalArgumentException.class)
+    public void testGetTimespanEmptyFailsLikeSequential() {
+        ParallelAnalysis.getTimespan(new ArrayList<Tweet>(), new ForkJoinPool(4));
+    }
+
+    //covers 1.1, 1.2, 1.3, 2.1, 2.2, 3.1, 3.2, 4.1, 5.1
+    @Test
+    public void testMatchesSequential() {
+        for(int size : new int[] {0, 10, 20_000}){
+            final List<Tweet> tweets = tweets(size, new Random(size));
+
+            for(ForkJoinPool pool : new ForkJoinPool[] {new ForkJoinPool(1), new ForkJoinPool(4)}){
+                for(List<Tweet> list : Arrays.asList(tweets, new LinkedList<Tweet>(tweets))){
+                    if(size > 0){
+                        assertEquals(Extract.getTimespan(tweets), ParallelAnalysis.getTimespan(list, pool));
+                    }
+                    assertEquals(Extract.getMentionedUsers(tweets), ParallelAnalysis.getMentionedUsers(list, pool));
+                    assertSameGraph(SocialNetwork.guessFollowsGraph(tweets), ParallelAnalysis.guessFollowsGraph(list, pool));
+                }
+                pool.shutdown();
+            }
+        }
+    }
+
+    /*
+     * Assert that two follows graphs have the same keys, spelled the same way, and the same sets.
+     */
+    private static void assertSameGraph(Map<String, Set<String>> expected, Map<String, Set<String>> actual) {
+        assertEquals(new ArrayList<String>(expected.keySet()), new ArrayList<String>(actual.keySet()));
+        for(String author : expected.keySet()){
+            assertEquals(new ArrayList<String>(expected.get(author)), new ArrayList<String>(actual.get(author)));
+        }
+    }
+
+    /*
+     * Tweets by a few authors spelled in varying case, mentioning each other.
+     */
+    private static List<Tweet> tweets(int count, Random random) {
+        final List<Tweet> tweets = new ArrayList<Tweet>();
+        for(int i = 0; i < count; i++){
+            final String author = random.nextBoolean() ? "user" + random.nextInt(50) : "USER" + random.nextInt(50);
+            final String text = "hi @user" + random.nextInt(80) + " and @User" + random.nextInt(80);
+            tweets.add(new Tweet(i, author, text, d1.plusSeconds(random.nextInt(100_000) - 50_000)));
+        }
+        return tweets;
+    }
+}
@@ -0,0 +1,202 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.json.JsonException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelTweetReaderTest {
+
+    /*
+     * Testing strategy
+     *
+     * read():
+     *  array file (1.1), JSONL file (1.2), empty or blank file (1.3);
+     *  one chunk (2.1), several chunks (2.2), more chunks than tweets (2.3);
+     *  strings and skipped values containing commas, brackets, quotes and newlines (3.1);
+     *  array cut at every offset: inside strings, inside escapes, after backslashes (3.2);
+     *  file order (4.1), sorted by id (4.2), sorted by timestamp with ties (4.3);
+     *  malformed array (5.1), malformed line (5.2), neither array nor object (5.3)
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+    private static final String[] TEXTS = {
+        "plain", "commas, and ] brackets [ and { braces }", "a \\\"quoted\\\" word", "new\\nline",
+        "caf\u00e9 \u2615", "back\\\\slash", ""
+    };
+
+    private final ForkJoinPool pool = new ForkJoinPool(3);
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("tweets");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        for(Path file : Files.newDirectoryStream(directory)){
+            Files.delete(file);
+        }
+        Files.delete(directory);
+    }
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    //covers 1.1, 2.1, 2.2, 2.3, 3.1, 4.1
+    @Test
+    public void testArrayInFileOrder() throws IOException {
+        final List<String> objects = randomObjects(200);
+        final Path file = write("tweets.json", "[\n" + String.join(",\n", objects) + "\n]\n");
+        final List<Tweet> expected = readSequentially(file);
+
+        for(int chunks : new int[] {1, 3, 17, 1000}){
+            assertTweetsEqual(expected, ParallelTweetReader.read(file, null, pool, chunks));
+        }
+        assertTweetsEqual(expected, ParallelTweetReader.read(file, pool));
+    }
+
+    //covers 1.1, 2.2, 2.3, 3.1, 3.2
+    @Test
+    public void testArrayCutAnywhere() throws IOException {
+        final List<String> objects = randomObjects(20);
+        for(int i = 0; i < objects.size(); i += 2){
+            //one escaped quote, so a scan that mistakes the escape flips string state for good
+            objects.set(i, objects.get(i).replace("\"text\": \"", "\"text\": \"a lone \\\" quote, ] and { "));
+        }
+        final Path file = write("tweets.json", "[" + String.join(",", objects) + "]");
+        final List<Tweet> expected = readSequentially(file);
+        final int size = (int) Files.size(file);
+
+        for(int chunks = 2; chunks <= 64; chunks++){
+            assertTweetsEqual(expected, ParallelTweetReader.read(file, null, pool, chunks));
+        }
+        //a cut at every byte
+        assertTweetsEqual(expected, ParallelTweetReader.read(file, null, pool, size));
+    }
+
+    //covers 1.2, 2.2, 3.1, 4.1
+    @Test
+    public void testJsonLinesInFileOrder() throws IOException {
+        final List<String> objects = randomObjects(200);
+        final Path array = write("tweets.json", "[" + String.join(",", objects) + "]");
+        final Path lines = write("tweets.jsonl", String.join("\n", objects) + "\n\n");
+        final List<Tweet> expected = readSequentially(array);
+
+        for(int chunks : new int[] {1, 4, 1000}){
+            assertTweetsEqual(expected, ParallelTweetReader.read(lines, null, pool, chunks));
+        }
+    }
+
+    //covers 4.2, 4.3
+    @Test
+    public void testSorted() throws IOException {
+        final Path file = write("tweets.json", "[" + String.join(",", randomObjects(300)) + "]");
+        final List<Tweet> expected = readSequentially(file);
+
+        final List<Tweet> byId = new ArrayList<Tweet>(expected);
+        byId.sort(Comparator.comparingLong(Tweet::getId));
+        assertTweetsEqual(byId, ParallelTweetReader.read(file, Comparator.comparingLong(Tweet::getId), pool, 7));
+
+        final List<Tweet> byTimestamp = new ArrayList<Tweet>(expected);
+        byTimestamp.sort(Comparator.comparing(Tweet::getTimestamp));
+        assertTweetsEqual(byTimestamp, ParallelTweetReader.read(file, Comparator.comparing(Tweet::getTimestamp), pool, 7));
+    }
+
+    //covers 1.3
+    @Test
+    public void testEmpty() throws IOException {
+        assertTrue(ParallelTweetReader.read(write("empty.json", ""), pool).isEmpty());
+        assertTrue(ParallelTweetReader.read(write("blank.jsonl", " \n\n"), pool).isEmpty());
+        assertTrue(ParallelTweetReader.read(write("array.json", " [ ] "), pool).isEmpty());
+    }
+
+    //covers 5.1
+    @Test(expected=JsonException.class)
+    public void testMalformedArray() throws IOException {
+        final List<String> objects = randomObjects(50);
+        objects.set(40, "{\"id\": 1}");
+        ParallelTweetReader.read(write("tweets.json", "[" + String.join(",", objects) + "]"), null, pool, 5);
+    }
+
+    //covers 5.2
+    @Test(expected=JsonException.class)
+    public void testMalformedLine() throws IOException {
+        final List<String> objects = randomObjects(50);
+        objects.set(40, "{\"id\": ");
+        ParallelTweetReader.read(write("tweets.jsonl", String.join("\n", objects)), null, pool, 5);
+    }
+
+    //covers 5.3
+    @Test(expected=JsonException.class)
+    public void testNotTweets() throws IOException {
+        ParallelTweetReader.read(write("tweets.json", "\"tweets\""), pool);
+    }
+
+    /*
+     * @return count JSON tweet objects, one per string, with awkward texts, nested users
+     *         and skipped values, and timestamps with many ties
+     */
+    private static List<String> randomObjects(int count) {
+        final Random random = new Random(19);
+        final List<String> objects = new ArrayList<String>();
+        for(int i = 0; i < count; i++){
+            final String createdAt = CreatedAtParser.FORMAT.format(
+                    d1.plusSeconds(random.nextInt(20)).atOffset(ZoneOffset.UTC));
+            final String user = random.nextBoolean()
+                    ? "\"user\": {\"id\": 5, \"screen_name\": \"user" + random.nextInt(10) + "\"}"
+                    : "\"user.screen_name\": \"user" + random.nextInt(10) + "\"";
+            objects.add("{\"id\": " + random.nextInt(1_000_000) + ", " + user
+                    + ", \"entities\": {\"urls\": [\"a,b\", {\"x\": \"]}\"}, [1, 2]]}"
+                    + ", \"text\": \"" + TEXTS[random.nextInt(TEXTS.length)] + "\""
+                    + ", \"created_at\": \"" + createdAt + "\"}");
+        }
+        return objects;
+    }
+
+    private Path write(String name, String content) throws IOException {
+        final Path file = directory.resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static List<Tweet> readSequentially(Path file) throws IOException {
+        final List<Tweet> tweets = new ArrayList<Tweet>();
+        try (TweetStreamReader reader = new TweetStreamReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            reader.forEachRemaining(tweets::add);
+        }
+        return tweets;
+    }
+
+    /*
+     * Tweet.equals() compares ids only, so compare field by field.
+     */
+    private static void assertTweetsEqual(List<Tweet> expected, List<Tweet> actual) {
+        assertEquals(expected.size(), actual.size());
+        for(int i = 0; i < expected.size(); i++){
+            assertEquals(expected.get(i).getId(), actual.get(i).getId());
+            assertEquals(expected.get(i).getAuthor(), actual.get(i).getAuthor());
+            assertEquals(expected.get(i).getText(), actual.get(i).getText());
+            assertEquals(expected.get(i).getTimestamp(), actual.get(i).getTimestamp());
+        }
+    }
+}
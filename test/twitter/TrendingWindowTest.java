@@ -0,0 +1,196 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TrendingWindowTest {
+
+    /*
+     * Testing strategy
+     *
+     * TrendingWindow():
+     *  window a multiple of bucketWidth (1.1), not a multiple (1.2), bucketWidth < 1 ms (1.3);
+     *
+     * add():
+     *  tweet in the newest bucket (2.1), in an older bucket still in the window (2.2),
+     *  older than the window (2.3), newer than the window by less than a window (2.4),
+     *  by more than a window (2.5);
+     *  text with no terms (3.1), mentions and hashtags (3.2), a term used twice (3.3),
+     *  terms in different cases (3.4);
+     *
+     * advanceTo(): before the window end (4.1), expiring some buckets (4.2), all (4.3);
+     *
+     * topMentions(k), topHashtags(k):
+     *  k = 0 (5.1), k < terms in window (5.2), k > terms in window (5.3);
+     *  equal counts, ordered by entry into the window (5.4);
+     *  expired terms left out (5.5), and no longer tracked (5.6);
+     *
+     * random streams compared against recounting the tweets in the window (6.1);
+     * many distinct terms streamed through a small window (6.2)
+     */
+
+    private static final Instant T0 = Instant.parse("2016-02-17T10:00:00Z");
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    //covers 1.1, 2.1, 3.1, 3.2, 3.3, 3.4, 5.1, 5.2, 5.3, 5.4
+    @Test
+    public void testCounts() {
+        final TrendingWindow window = new TrendingWindow(Duration.ofMinutes(15), Duration.ofSeconds(1));
+        assertTrue(window.add(tweet(1, 0, "@alyssa #mit and @bbitdiddle")));
+        assertTrue(window.add(tweet(2, 0, "@BBitDiddle talks about #MIT #mit")));
+        assertTrue(window.add(tweet(3, 0, "nothing here")));
+
+        assertEquals(2, window.getMentionCount("bbitdiddle"));
+        assertEquals(1, window.getMentionCount("Alyssa"));
+        assertEquals(0, window.getMentionCount("rivest"));
+        assertEquals(3, window.getHashtagCount("mit"));
+
+        assertEquals(Arrays.asList(), window.topMentions(0));
+        assertEquals(Arrays.asList("bbitdiddle"), window.topMentions(1));
+        assertEquals(Arrays.asList("bbitdiddle", "alyssa"), window.topMentions(5));
+        assertEquals(Arrays.asList("mit"), window.topHashtags(5));
+
+        assertTrue(window.add(tweet(4, 0, "@alyssa")));
+        assertEquals(Arrays.asList("alyssa", "bbitdiddle"), window.topMentions(5));
+    }
+
+    //covers 1.2, 1.3
+    @Test
+    public void testBadWidths() {
+        try {
+            new TrendingWindow(Duration.ofSeconds(10), Duration.ofSeconds(3));
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException iae) {
+            //expected
+        }
+        try {
+            new TrendingWindow(Duration.ofSeconds(10), Duration.ofNanos(10));
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException iae) {
+            //expected
+        }
+    }
+
+    //covers 2.2, 2.3, 2.4, 2.5, 5.5
+    @Test
+    public void testWindowMoves() {
+        final TrendingWindow window = new TrendingWindow(Duration.ofSeconds(3), Duration.ofSeconds(1));
+        assertTrue(window.add(tweet(1, 0, "@a #x")));
+        assertTrue(window.add(tweet(2, 1500, "@b")));
+        assertTrue(window.add(tweet(3, 500, "@a")));
+        assertEquals(Arrays.asList("a", "b"), window.topMentions(5));
+
+        //window is now seconds 1..3; second 0 expires
+        assertTrue(window.add(tweet(4, 3000, "@c")));
+        assertEquals(Arrays.asList("b", "c"), window.topMentions(5));
+        assertEquals(Arrays.asList(), window.topHashtags(5));
+        assertFalse(window.add(tweet(5, 999, "@a")));
+        assertEquals(1, window.getLateCount());
+        assertEquals(0, window.getMentionCount("a"));
+
+        assertTrue(window.add(tweet(6, 60_000, "@d")));
+        assertEquals(Arrays.asList("d"), window.topMentions(5));
+    }
+
+    //covers 4.1, 4.2, 4.3
+    @Test
+    public void testAdvanceTo() {
+        final TrendingWindow window = new TrendingWindow(Duration.ofSeconds(3), Duration.ofSeconds(1));
+        window.add(tweet(1, 0, "@a"));
+        window.add(tweet(2, 2000, "@b"));
+
+        window.advanceTo(T0);
+        assertEquals(Arrays.asList("a", "b"), window.topMentions(5));
+        window.advanceTo(T0.plusMillis(4000));
+        assertEquals(Arrays.asList("b"), window.topMentions(5));
+        window.advanceTo(T0.plusSeconds(3600));
+        assertEquals(Arrays.asList(), window.topMentions(5));
+
+        window.add(tweet(3, 3600_000, "@a"));
+        assertEquals(Arrays.asList("a"), window.topMentions(5));
+    }
+
+    //covers 6.1
+    @Test
+    public void testMatchesRecount() {
+        final Random random = new Random(6005);
+        final String[] terms = {"@a", "@b", "@c", "@d", "#x", "#y", "#z", "@B", "#X"};
+
+        for(int trial = 0; trial < 20; trial++){
+            final TrendingWindow window = new TrendingWindow(Duration.ofSeconds(10), Duration.ofSeconds(2));
+            final List<Tweet> counted = new ArrayList<Tweet>();
+            long newest = 0;
+
+            for(int id = 0; id < 500; id++){
+                final long millis = Math.max(0, newest + random.nextInt(3000) - 2000);
+                final StringBuilder text = new StringBuilder();
+                for(int i = random.nextInt(4); i > 0; i--){
+                    text.append(terms[random.nextInt(terms.length)]).append(' ');
+                }
+                final Tweet tweet = tweet(id, millis, text.toString());
+
+                final long windowStart = (Math.max(newest, millis) / 2000 - 4) * 2000;
+                assertEquals(millis >= windowStart, window.add(tweet));
+                if(millis >= windowStart){
+                    counted.add(tweet);
+                }
+                newest = Math.max(newest, millis);
+
+                final Map<String, Integer> mentions = new HashMap<String, Integer>();
+                for(Tweet t : counted){
+                    if(TweetTimeline.epochMillis(t.getTimestamp()) - T0.toEpochMilli() >= windowStart){
+                        MentionScanner.forEachMention(t.getText(), u -> mentions.merge(u, 1, Integer::sum));
+                    }
+                }
+                for(String username : Arrays.asList("a", "b", "c", "d")){
+                    assertEquals(mentions.getOrDefault(username, 0).intValue(), window.getMentionCount(username));
+                }
+                int previous = Integer.MAX_VALUE;
+                for(String username : window.topMentions(4)){
+                    final int count = window.getMentionCount(username);
+                    assertTrue(count > 0 && count <= previous);
+                    previous = count;
+                }
+            }
+        }
+    }
+
+    //covers 5.6, 6.2
+    @Test
+    public void testTrackedTermsBounded() {
+        final TrendingWindow window = new TrendingWindow(Duration.ofSeconds(4), Duration.ofSeconds(1));
+        for(int id = 0; id < 100_000; id++){
+            //ten fresh hashtags and a repeated mention per second
+            assertTrue(window.add(tweet(id, id * 100L, "#tag" + id + " @alyssa")));
+            assertTrue(window.trackedTermCount() <= 41);
+        }
+        assertEquals(40, window.getMentionCount("alyssa"));
+        assertEquals(1, window.getHashtagCount("tag99999"));
+        assertEquals(0, window.getHashtagCount("tag0"));
+        assertEquals(Arrays.asList("tag99960", "tag99961"), window.topHashtags(2));
+
+        window.advanceTo(T0.plusSeconds(20_000));
+        assertEquals(0, window.trackedTermCount());
+        assertTrue(window.add(tweet(100_000, 20_000_000, "#tag0 #tag0 @alyssa")));
+        assertEquals(2, window.trackedTermCount());
+        assertEquals(Arrays.asList("tag0"), window.topHashtags(5));
+    }
+
+    private static Tweet tweet(long id, long millis, String text) {
+        return new Tweet(id, "author", text, T0.plusMillis(millis));
+    }
+}
@@ -0,0 +1,174 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TweetArchiveTest {
+
+    /*
+     * Testing strategy
+     *
+     * write() then open and read back:
+     *  archive empty (1.1), has one tweet (1.2), has many tweets (1.3);
+     *  text empty (2.1), ASCII (2.2), non-ASCII (2.3);
+     *  authors repeated with the same spelling (3.1), with different spellings (3.2);
+     *  timestamps before the epoch (4.1), with sub-millisecond parts (4.2);
+     *  segments larger than the file (5.1), smaller than a record (5.2);
+     *
+     * getId(), getEpochMillis(): agree with get() (6.1); index out of range (6.2);
+     *
+     * open:
+     *  file is not an archive (7.1), archive is truncated (7.2);
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+    private static final Instant d2 = Instant.parse("2016-02-17T11:00:00Z");
+
+    private static final Tweet tweet1 = new Tweet(1, "alyssa", "is it reasonable to talk about rivest so much?", d1);
+    private static final Tweet tweet2 = new Tweet(2, "bbitdiddle", "rivest talk in 30 minutes #hype", d2);
+
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("archive");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        for(Path file : Files.newDirectoryStream(directory)){
+            Files.delete(file);
+        }
+        Files.delete(directory);
+    }
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    //covers 1.1
+    @Test
+    public void testEmpty() throws IOException {
+        final Path path = directory.resolve("empty.twar");
+        TweetArchiveWriter.write(path, Collections.<Tweet>emptyList());
+
+        try (TweetArchive archive = new TweetArchive(path)) {
+            assertEquals(0, archive.size());
+            assertTrue(archive.asList().isEmpty());
+        }
+    }
+
+    //covers 1.2, 2.2, 5.1, 6.1
+    @Test
+    public void testOneTweet() throws IOException {
+        final Path path = directory.resolve("one.twar");
+        TweetArchiveWriter.write(path, Arrays.asList(tweet1));
+
+        try (TweetArchive archive = new TweetArchive(path)) {
+            assertEquals(1, archive.size());
+            assertTweetEquals(tweet1, archive.get(0));
+            assertEquals(1, archive.getId(0));
+            assertEquals(d1.toEpochMilli(), archive.getEpochMillis(0));
+        }
+    }
+
+    //covers 2.1, 2.3, 3.1, 3.2, 4.1, 4.2
+    @Test
+    public void testUnusualTweets() throws IOException {
+        final List<Tweet> tweets = Arrays.asList(
+                new Tweet(-5, "alyssa", "", Instant.parse("1969-12-31T23:59:59.999Z")),
+                new Tweet(Long.MAX_VALUE, "Alyssa", "caf\u00e9 \u2615 \ud83d\ude00 @bbitdiddle", d1.plusNanos(1_500_000)),
+                new Tweet(7, "alyssa", "again", d2));
+        final Path path = directory.resolve("unusual.twar");
+        TweetArchiveWriter.write(path, tweets);
+
+        try (TweetArchive archive = new TweetArchive(path)) {
+            assertEquals(3, archive.size());
+            assertTweetEquals(tweets.get(0), archive.get(0));
+            assertTweetEquals(new Tweet(Long.MAX_VALUE, "Alyssa", tweets.get(1).getText(), d1.plusMillis(1)), archive.get(1));
+            assertTweetEquals(tweets.get(2), archive.get(2));
+            assertEquals(-1, archive.getEpochMillis(0));
+        }
+    }
+
+    //covers 1.3, 5.1, 5.2
+    @Test
+    public void testManyTweetsAcrossSegments() throws IOException {
+        final Random random = new Random(13);
+        final List<Tweet> tweets = new ArrayList<Tweet>();
+        for(int i = 0; i < 500; i++){
+            final StringBuilder text = new StringBuilder();
+            for(int j = random.nextInt(40); j > 0; j--){
+                text.append((char) ('a' + random.nextInt(26)));
+            }
+            tweets.add(new Tweet(i, "user" + random.nextInt(20), text.toString(), d1.plusSeconds(random.nextInt(100000))));
+        }
+        final Path path = directory.resolve("many.twar");
+        TweetArchiveWriter.write(path, tweets);
+
+        for(int segmentSize : new int[] {7, 4096, MappedFile.DEFAULT_SEGMENT_SIZE}){
+            try (TweetArchive archive = new TweetArchive(path, segmentSize)) {
+                assertEquals(tweets.size(), archive.size());
+                for(int i = 0; i < tweets.size(); i++){
+                    assertTweetEquals(tweets.get(i), archive.asList().get(i));
+                }
+                assertEquals(Extract.getMentionedUsers(tweets), Extract.getMentionedUsers(archive.asList()));
+            }
+        }
+    }
+
+    //covers 6.2
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void testIndexOutOfRange() throws IOException {
+        final Path path = directory.resolve("range.twar");
+        TweetArchiveWriter.write(path, Arrays.asList(tweet1, tweet2));
+
+        try (TweetArchive archive = new TweetArchive(path)) {
+            archive.getId(2);
+        }
+    }
+
+    //covers 7.1
+    @Test(expected=IOException.class)
+    public void testNotAnArchive() throws IOException {
+        final Path path = directory.resolve("tweets.json");
+        Files.write(path, "[{\"id\": 1}]                                 ".getBytes("UTF-8"));
+
+        new TweetArchive(path).close();
+    }
+
+    //covers 7.2
+    @Test(expected=IOException.class)
+    public void testTruncated() throws IOException {
+        final Path path = directory.resolve("truncated.twar");
+        TweetArchiveWriter.write(path, Arrays.asList(tweet1, tweet2));
+        final byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, TweetArchive.HEADER_SIZE + TweetArchive.RECORD_SIZE));
+
+        new TweetArchive(path).close();
+    }
+
+    /*
+     * Tweet.equals() compares ids only, so compare field by field.
+     */
+    private static void assertTweetEquals(Tweet expected, Tweet actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getAuthor(), actual.getAuthor());
+        assertEquals(expected.getText(), actual.getText());
+        assertEquals(expected.getTimestamp(), actual.getTimestamp());
+    }
+}
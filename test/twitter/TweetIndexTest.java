@@ -0,0 +1,108 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TweetIndexTest {
+
+    /*
+     * Testing strategy for containing():
+     *
+     * number of indexed tweets:
+     *  0 (1.1), 1 (1.2), >1 (1.3);
+     *
+     * number of query words:
+     *  0 (2.1), 1 (2.2), >1 (2.3);
+     *
+     * query word absent from every tweet (3.1), differs from the text only in case (3.2),
+     * is a substring but not a word of the text (3.3);
+     *
+     * a tweet matches several query words (4.1), repeats a query word (4.2);
+     *
+     * text has leading, trailing or mixed space characters (5.1);
+     *
+     * random corpora and queries compared against Filter.containing (6.1);
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    private static final Tweet tweet1 = new Tweet(1, "alyssa", "is it reasonable to talk about rivest so much?", d1);
+    private static final Tweet tweet2 = new Tweet(2, "bbitdiddle", "rivest talk in 30 minutes #hype", d1);
+    private static final Tweet tweet3 = new Tweet(3, "bbitdiddle", "\tTALK talk\nabout\r\nit  ", d1);
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    //covers 1.1, 2.2
+    @Test
+    public void testContainingEmptyIndex() {
+        final TweetIndex index = new TweetIndex(new ArrayList<Tweet>());
+
+        assertTrue(index.containing(Arrays.asList("talk")).isEmpty());
+    }
+
+    //covers 1.2, 2.1
+    @Test
+    public void testContainingNoWords() {
+        final TweetIndex index = new TweetIndex(Arrays.asList(tweet1));
+
+        assertTrue(index.containing(Collections.<String>emptyList()).isEmpty());
+    }
+
+    //covers 1.3, 2.3, 3.1, 3.2, 4.1, 4.2, 5.1
+    @Test
+    public void testContainingMultipleWords() {
+        final TweetIndex index = new TweetIndex(Arrays.asList(tweet1, tweet2, tweet3));
+
+        assertEquals(Arrays.asList(tweet1, tweet3), index.containing(Arrays.asList("ABOUT", "nothing")));
+        assertEquals(Arrays.asList(tweet1, tweet2, tweet3), index.containing(Arrays.asList("talk", "Rivest")));
+    }
+
+    //covers 1.3, 2.2, 3.3
+    @Test
+    public void testContainingSubstringIsNotWord() {
+        final TweetIndex index = new TweetIndex(Arrays.asList(tweet1, tweet2));
+
+        assertTrue(index.containing(Arrays.asList("rive")).isEmpty());
+        assertEquals(Arrays.asList(tweet2), index.containing(Arrays.asList("#hype")));
+    }
+
+    //covers 6.1
+    @Test
+    public void testContainingMatchesFilter() {
+        final String[] words = {"a", "B", "ab", "#c", "a.", "AB"};
+        final String[] spaces = {" ", "\t", "\n", "  ", "\u000B"};
+        final Random random = new Random(6005);
+
+        for(int n = 0; n < 200; n++){
+            final List<Tweet> tweets = new ArrayList<Tweet>();
+            final int count = random.nextInt(10);
+            for(int i = 0; i < count; i++){
+                final StringBuilder text = new StringBuilder();
+                final int length = random.nextInt(6);
+                for(int w = 0; w < length; w++){
+                    text.append(spaces[random.nextInt(spaces.length)]).append(words[random.nextInt(words.length)]);
+                }
+                tweets.add(new Tweet(i, "author", text.toString(), d1));
+            }
+
+            final List<String> query = new ArrayList<String>();
+            final int length = random.nextInt(3);
+            for(int w = 0; w < length; w++){
+                query.add(words[random.nextInt(words.length)]);
+            }
+
+            assertEquals(Filter.containing(tweets, query), new TweetIndex(tweets).containing(query));
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TweetQueryTest {
+
+    /*
+     * Testing strategy
+     *
+     * matches(), TweetIndex.search():
+     *  word (1.1), phrase (1.2), writtenBy (1.3), inTimespan (1.4);
+     *  and (2.1), or (2.2), not on its own (2.3), not inside and (2.4), nested (2.5);
+     *  no tweet matches (3.1), every tweet matches (3.2);
+     *  constraints of very different selectivity, so some are checked per tweet (3.3);
+     *  search() compared against matches() on random corpora and queries (3.4);
+     *  word, writtenBy and inTimespan queries agree with Filter (3.5);
+     *  word containing a space character other than those of \s (3.6);
+     *
+     * parse():
+     *  single word (4.1), implicit and explicit AND (4.2), OR with lower precedence than
+     *  AND (4.3), NOT and '-' (4.4), parentheses (4.5), phrases (4.6), from:, since:,
+     *  until: (4.7), word containing a space character other than those of \s (4.8);
+     *  malformed: empty (5.1), unbalanced parentheses (5.2), unterminated phrase (5.3),
+     *  dangling operator (5.4), bad instant (5.5)
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+    private static final Instant d2 = Instant.parse("2016-02-17T11:00:00Z");
+    private static final Instant d3 = Instant.parse("2016-02-17T12:00:00Z");
+
+    private static final Tweet tweet1 = new Tweet(1, "alyssa", "is it reasonable to talk about rivest so much?", d1);
+    private static final Tweet tweet2 = new Tweet(2, "bbitdiddle", "rivest talk in 30 minutes #hype", d2);
+    private static final Tweet tweet3 = new Tweet(3, "Alyssa", "Talk About it later", d3);
+
+    private static final List<Tweet> tweets = Arrays.asList(tweet1, tweet2, tweet3);
+    private static final TweetIndex index = new TweetIndex(tweets);
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    //covers 1.1, 1.3, 1.4, 3.5
+    @Test
+    public void testAtomsAgreeWithFilter() {
+        final Timespan timespan = new Timespan(d2, d3);
+
+        assertEquals(Filter.containing(tweets, Arrays.asList("talk")), index.search(TweetQuery.word("TALK")));
+        assertEquals(Filter.writtenBy(tweets, "ALYSSA"), index.search(TweetQuery.writtenBy("ALYSSA")));
+        assertEquals(Filter.inTimespan(tweets, timespan), index.search(TweetQuery.inTimespan(timespan)));
+    }
+
+    //covers 1.2
+    @Test
+    public void testPhrase() {
+        final TweetQuery query = TweetQuery.phrase(Arrays.asList("talk", "about"));
+
+        assertEquals(Arrays.asList(tweet1, tweet3), index.search(query));
+        assertFalse(TweetQuery.phrase(Arrays.asList("about", "talk")).matches(tweet1));
+        assertTrue(index.search(TweetQuery.phrase(Arrays.asList("rivest", "about"))).isEmpty());
+    }
+
+    //covers 2.1, 2.2, 2.3, 2.4, 2.5, 3.1, 3.2
+    @Test
+    public void testOperators() {
+        final TweetQuery talk = TweetQuery.word("talk");
+        final TweetQuery rivest = TweetQuery.word("rivest");
+        final TweetQuery alyssa = TweetQuery.writtenBy("alyssa");
+
+        assertEquals(Arrays.asList(tweet1, tweet2), index.search(TweetQuery.and(talk, rivest)));
+        assertEquals(tweets, index.search(TweetQuery.or(talk, rivest)));
+        assertEquals(Arrays.asList(tweet2), index.search(TweetQuery.not(alyssa)));
+        assertEquals(Arrays.asList(tweet3), index.search(TweetQuery.and(talk, TweetQuery.not(rivest))));
+        assertEquals(Arrays.asList(tweet1, tweet3), index.search(
+                TweetQuery.and(alyssa, TweetQuery.or(rivest, TweetQuery.word("later")))));
+        assertTrue(index.search(TweetQuery.and(rivest, TweetQuery.not(talk))).isEmpty());
+        assertTrue(index.search(TweetQuery.not(TweetQuery.word("absent"))).size() == 3);
+    }
+
+    //covers 3.3, 3.4
+    @Test
+    public void testRandomSearchAgreesWithMatches() {
+        final Random random = new Random(16);
+        final List<Tweet> corpus = new ArrayList<Tweet>();
+        for(int i = 0; i < 2000; i++){
+            final StringBuilder text = new StringBuilder();
+            for(int j = random.nextInt(8); j > 0; j--){
+                //word i is drawn with probability roughly proportional to 1 / (i + 1)
+                text.append("w").append((int) Math.pow(40, random.nextDouble())).append(' ');
+            }
+            corpus.add(new Tweet(i, "user" + random.nextInt(30), text.toString(), d1.plusSeconds(random.nextInt(10000))));
+        }
+        final TweetIndex corpusIndex = new TweetIndex(corpus);
+
+        for(int trial = 0; trial < 200; trial++){
+            final TweetQuery query = randomQuery(random, 3);
+            final List<Tweet> expected = new ArrayList<Tweet>();
+            for(Tweet tweet : corpus){
+                if(query.matches(tweet)){
+                    expected.add(tweet);
+                }
+            }
+            assertEquals(query.toString(), expected, corpusIndex.search(query));
+        }
+    }
+
+    //covers 4.1, 4.2, 4.3
+    @Test
+    public void testParseBoolean() {
+        assertEquals(index.search(TweetQuery.word("talk")), index.search(TweetQuery.parse("talk")));
+        assertEquals(Arrays.asList(tweet1, tweet2), index.search(TweetQuery.parse("talk rivest")));
+        assertEquals(Arrays.asList(tweet1, tweet2), index.search(TweetQuery.parse("talk AND rivest")));
+        assertEquals(Arrays.asList(tweet2, tweet3), index.search(TweetQuery.parse("#hype OR later talk")));
+    }
+
+    //covers 4.4, 4.5, 4.6, 4.7
+    @Test
+    public void testParseTerms() {
+        assertEquals(Arrays.asList(tweet3), index.search(TweetQuery.parse("talk NOT rivest")));
+        assertEquals(Arrays.asList(tweet3), index.search(TweetQuery.parse("talk -rivest")));
+        assertEquals(Arrays.asList(tweet2), index.search(TweetQuery.parse("NOT (from:alyssa OR later)")));
+        assertEquals(Arrays.asList(tweet1, tweet3), index.search(TweetQuery.parse("\"Talk about\"")));
+        assertEquals(Arrays.asList(tweet1, tweet3), index.search(TweetQuery.parse("from:ALYSSA")));
+        assertEquals(Arrays.asList(tweet2), index.search(
+                TweetQuery.parse("since:2016-02-17T10:30:00Z until:2016-02-17T11:00:00Z talk")));
+    }
+
+    //covers 3.6, 4.8
+    @Test
+    public void testNonAsciiSpaceInWord() {
+        final Tweet tweet4 = new Tweet(4, "ben", "talk\u2003about it", d1);
+        final List<Tweet> corpus = Arrays.asList(tweet1, tweet4);
+        final TweetIndex corpusIndex = new TweetIndex(corpus);
+
+        assertEquals(Arrays.asList(tweet4), Filter.containing(corpus, Arrays.asList("talk\u2003about")));
+        assertEquals(Arrays.asList(tweet4), corpusIndex.search(TweetQuery.word("Talk\u2003About")));
+        assertEquals(Arrays.asList(tweet4), corpusIndex.search(TweetQuery.parse("talk\u2003about")));
+        assertEquals(Arrays.asList(tweet4), corpusIndex.search(TweetQuery.parse("\"talk\u2003about it\"")));
+        assertEquals(Arrays.asList(tweet1), corpusIndex.search(TweetQuery.parse("talk about")));
+    }
+
+    //covers 5.1
+    @Test(expected=IllegalArgumentException.class)
+    public void testParseEmpty() {
+        TweetQuery.parse("   ");
+    }
+
+    //covers 5.2
+    @Test(expected=IllegalArgumentException.class)
+    public void testParseUnbalanced() {
+        TweetQuery.parse("(talk OR rivest");
+    }
+
+    //covers 5.3
+    @Test(expected=IllegalArgumentException.class)
+    public void testParseUnterminatedPhrase() {
+        TweetQuery.parse("\"talk about");
+    }
+
+    //covers 5.4
+    @Test(expected=IllegalArgumentException.class)
+    public void testParseDanglingOperator() {
+        TweetQuery.parse("talk OR");
+    }
+
+    //covers 5.5
+    @Test(expected=IllegalArgumentException.class)
+    public void testParseBadInstant() {
+        TweetQuery.parse("since:yesterday");
+    }
+
+    /*
+     * @return a random query of at most the given depth over words w0..w39 and users
+     *         user0..user29
+     */
+    private static TweetQuery randomQuery(Random random, int depth) {
+        final int kind = random.nextInt(depth == 0 ? 4 : 7);
+        switch(kind){
+        case 0:
+            return TweetQuery.word("w" + random.nextInt(40));
+        case 1:
+            return TweetQuery.phrase(Arrays.asList("w" + random.nextInt(5), "w" + random.nextInt(5)));
+        case 2:
+            return TweetQuery.writtenBy("USER" + random.nextInt(30));
+        case 3:
+            final Instant start = d1.plusSeconds(random.nextInt(10000));
+            return TweetQuery.inTimespan(new Timespan(start, start.plusSeconds(random.nextInt(5000))));
+        case 4:
+            return TweetQuery.and(randomQuery(random, depth - 1), randomQuery(random, depth - 1),
+                    randomQuery(random, depth - 1));
+        case 5:
+            return TweetQuery.or(randomQuery(random, depth - 1), randomQuery(random, depth - 1));
+        default:
+            return TweetQuery.not(randomQuery(random, depth - 1));
+        }
+    }
+}
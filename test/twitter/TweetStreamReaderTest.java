@@ -0,0 +1,112 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import java.time.Instant;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+import javax.json.JsonException;
+
+import org.junit.Test;
+
+public class TweetStreamReaderTest {
+
+    /*
+     * Testing strategy
+     *
+     * number of tweets in the array:
+     *  0 (1.1), 1 (1.2), >1 (1.3);
+     *
+     * author given as flat "user.screen_name" (2.1),
+     * author given as nested "user" object (2.2);
+     *
+     * tweet has fields that are not needed, scalar (3.1), nested objects and arrays (3.2),
+     * else (3.3);
+     *
+     * id given as number (4.1), as string (4.2);
+     *
+     * input is not an array (5.1), a tweet misses a required field (5.2),
+     * else (5.3);
+     *
+     * consumed through next() (6.1), through stream() (6.2);
+     */
+
+    private static final String CREATED_AT = "Wed Feb 17 10:00:00 +0000 2016";
+    private static final Instant D1 = Instant.parse("2016-02-17T10:00:00Z");
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    //covers 1.1, 5.3, 6.1
+    @Test
+    public void testEmptyArray() {
+        final TweetStreamReader reader = new TweetStreamReader(new StringReader("[ ]"));
+
+        assertFalse(reader.hasNext());
+        reader.close();
+    }
+
+    //covers 1.2, 2.1, 3.3, 4.1, 5.3, 6.1
+    @Test
+    public void testSingleFlatTweet() {
+        final String json = "[{\"id\": 7, \"user.screen_name\": \"alyssa\", \"text\": \"hello @bob\","
+                + " \"created_at\": \"" + CREATED_AT + "\"}]";
+        final TweetStreamReader reader = new TweetStreamReader(new StringReader(json));
+
+        assertTrue(reader.hasNext());
+        final Tweet tweet = reader.next();
+        assertEquals(7, tweet.getId());
+        assertEquals("alyssa", tweet.getAuthor());
+        assertEquals("hello @bob", tweet.getText());
+        assertEquals(D1, tweet.getTimestamp());
+        assertFalse(reader.hasNext());
+        reader.close();
+    }
+
+    //covers 1.3, 2.2, 3.1, 3.2, 4.2, 5.3, 6.2
+    @Test
+    public void testNestedUserAndSkippedFields() {
+        final String json = "["
+                + "{\"id\": \"1\", \"retweeted\": false, \"entities\": {\"urls\": [{\"id\": 99}, []]},"
+                + " \"user\": {\"id\": 5, \"screen_name\": \"Alyssa\", \"tags\": [1, 2]},"
+                + " \"text\": \"first\", \"created_at\": \"" + CREATED_AT + "\", \"lang\": null},"
+                + "{\"text\": \"second\", \"user.screen_name\": \"bbitdiddle\", \"id\": 2,"
+                + " \"created_at\": \"" + CREATED_AT + "\"}"
+                + "]";
+
+        final List<Tweet> tweets;
+        try (TweetStreamReader reader = new TweetStreamReader(new StringReader(json))) {
+            tweets = reader.stream().collect(Collectors.toList());
+        }
+
+        assertEquals(2, tweets.size());
+        assertEquals(1, tweets.get(0).getId());
+        assertEquals("Alyssa", tweets.get(0).getAuthor());
+        assertEquals("first", tweets.get(0).getText());
+        assertEquals(2, tweets.get(1).getId());
+        assertEquals("bbitdiddle", tweets.get(1).getAuthor());
+    }
+
+    //covers 5.1
+    @Test(expected=JsonException.class)
+    public void testNotAnArray() {
+        new TweetStreamReader(new StringReader("{\"id\": 1}")).hasNext();
+    }
+
+    //covers 5.2
+    @Test(expected=JsonException.class)
+    public void testMissingField() {
+        new TweetStreamReader(new StringReader("[{\"id\": 1, \"text\": \"no author\"}]")).next();
+    }
+
+    //covers 1.1, 6.1
+    @Test(expected=NoSuchElementException.class)
+    public void testNextPastEnd() {
+        new TweetStreamReader(new StringReader("[]")).next();
+    }
+}
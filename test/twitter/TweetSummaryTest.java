@@ -0,0 +1,106 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class TweetSummaryTest {
+
+    /*
+     * Testing strategy
+     *
+     * one tweet (1.1), several tweets (1.2);
+     * tweets without mentions (2.1), with repeated mentions in another case (2.2), with
+     * self-mentions (2.3);
+     * random corpora compared against Extract and SocialNetwork (3.1);
+     * results are unmodifiable (4.1);
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+    private static final Instant d2 = Instant.parse("2016-02-17T11:00:00Z");
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    //covers 1.1, 2.1
+    @Test
+    public void testOneTweet() {
+        final TweetSummary summary = new TweetSummary(Arrays.asList(new Tweet(1, "alyssa", "no mentions", d1)));
+
+        assertEquals(1, summary.getTweetCount());
+        assertEquals(d1, summary.getTimespan().getStart());
+        assertEquals(d1, summary.getTimespan().getEnd());
+        assertTrue(summary.getMentionedUsers().isEmpty());
+        assertEquals(1, summary.getFollowsGraph().size());
+        assertTrue(summary.getFollowsGraph().get("ALYSSA").isEmpty());
+        assertEquals(Arrays.asList("alyssa"), summary.getInfluencers());
+    }
+
+    //covers 1.2, 2.2, 2.3
+    @Test
+    public void testMentions() {
+        final List<Tweet> tweets = Arrays.asList(
+                new Tweet(1, "Alyssa", "@bbitdiddle @BBitDiddle @alyssa", d2),
+                new Tweet(2, "bbitdiddle", "@ALYSSA @ben", d1),
+                new Tweet(3, "alyssa", "@ben", d1));
+        final TweetSummary summary = new TweetSummary(tweets);
+
+        assertEquals(d1, summary.getTimespan().getStart());
+        assertEquals(d2, summary.getTimespan().getEnd());
+        assertEquals(new HashSet<String>(Arrays.asList("alyssa", "bbitdiddle", "ben")), summary.getMentionedUsers());
+        assertEquals(SocialNetwork.guessFollowsGraph(tweets), summary.getFollowsGraph());
+        assertEquals(2, summary.getFollowerCount("BEN"));
+        assertEquals(1, summary.getFollowerCount("alyssa"));
+        assertEquals(Arrays.asList("ben"), summary.getTopInfluencers(1));
+    }
+
+    //covers 3.1
+    @Test
+    public void testRandomAgainstExtractAndSocialNetwork() {
+        final Random random = new Random(17);
+        for(int trial = 0; trial < 20; trial++){
+            final List<Tweet> tweets = new ArrayList<Tweet>();
+            for(int i = 1 + random.nextInt(200); i > 0; i--){
+                final StringBuilder text = new StringBuilder();
+                for(int j = random.nextInt(4); j > 0; j--){
+                    text.append(random.nextBoolean() ? "@User" : "@user").append(random.nextInt(30)).append(' ');
+                }
+                tweets.add(new Tweet(i, (random.nextBoolean() ? "USER" : "user") + random.nextInt(30),
+                        text.toString(), d1.plusSeconds(random.nextInt(10000))));
+            }
+            final TweetSummary summary = new TweetSummary(tweets);
+            final Map<String, Set<String>> followsGraph = SocialNetwork.guessFollowsGraph(tweets);
+
+            assertEquals(Extract.getTimespan(tweets).getStart(), summary.getTimespan().getStart());
+            assertEquals(Extract.getTimespan(tweets).getEnd(), summary.getTimespan().getEnd());
+            assertEquals(Extract.getMentionedUsers(tweets), summary.getMentionedUsers());
+            assertEquals(followsGraph, summary.getFollowsGraph());
+            assertEquals(TwitterUtility.toLower(new HashSet<String>(SocialNetwork.influencers(followsGraph))),
+                    TwitterUtility.toLower(new HashSet<String>(summary.getInfluencers())));
+
+            final List<String> influencers = summary.getInfluencers();
+            for(int i = 1; i < influencers.size(); i++){
+                assertTrue(summary.getFollowerCount(influencers.get(i - 1)) >= summary.getFollowerCount(influencers.get(i)));
+            }
+        }
+    }
+
+    //covers 4.1
+    @Test(expected=UnsupportedOperationException.class)
+    public void testUnmodifiable() {
+        final TweetSummary summary = new TweetSummary(Arrays.asList(new Tweet(1, "alyssa", "@ben", d1)));
+
+        summary.getFollowsGraph().get("alyssa").add("carl");
+    }
+}
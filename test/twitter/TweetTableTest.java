@@ -0,0 +1,168 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TweetTableTest {
+
+    /*
+     * Testing strategy
+     *
+     * add(), get(), asList():
+     *  table empty (1.1), has one tweet (1.2), has many tweets, spanning arena pages (1.3);
+     *  text empty (2.1), non-ASCII (2.2), longer than an arena page (2.3);
+     *  authors repeated with the same spelling (3.1), with different spellings (3.2);
+     *  timestamp with sub-millisecond part (4.1), out of range (4.2);
+     *  asList() used by Extract, Filter and SocialNetwork (5.1);
+     *
+     * writtenBy(): no match (6.1), matches with different case (6.2);
+     *
+     * inTimespan():
+     *  bounds on whole milliseconds (7.1), bounds inside a millisecond (7.2),
+     *  bounds beyond the range of epoch milliseconds (7.3);
+     *
+     * getId(): index out of range (8.1)
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+    private static final Instant d2 = Instant.parse("2016-02-17T11:00:00Z");
+    private static final Instant d3 = Instant.parse("2016-02-17T12:00:00Z");
+
+    private static final Tweet tweet1 = new Tweet(1, "alyssa", "is it reasonable to talk about rivest so much?", d1);
+    private static final Tweet tweet2 = new Tweet(2, "bbitdiddle", "rivest talk in 30 minutes @Alyssa #hype", d2);
+    private static final Tweet tweet3 = new Tweet(3, "Alyssa", "@bbitdiddle see you there", d3);
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    //covers 1.1
+    @Test
+    public void testEmpty() {
+        final TweetTable table = new TweetTable();
+
+        assertEquals(0, table.size());
+        assertTrue(table.asList().isEmpty());
+        assertTrue(table.writtenBy("alyssa").isEmpty());
+    }
+
+    //covers 1.2, 3.1
+    @Test
+    public void testOneTweet() {
+        final TweetTable table = new TweetTable(Arrays.asList(tweet1));
+
+        assertEquals(1, table.size());
+        assertTweetEquals(tweet1, table.get(0));
+        assertEquals(d1.toEpochMilli(), table.getEpochMillis(0));
+    }
+
+    //covers 2.1, 2.2, 2.3, 3.2, 4.1
+    @Test
+    public void testUnusualTweets() {
+        final StringBuilder longText = new StringBuilder();
+        while(longText.length() < (1 << 23)){
+            longText.append("\u00e9\u2615\ud83d\ude00");
+        }
+        final TweetTable table = new TweetTable();
+        table.add(new Tweet(1, "alyssa", "", d1));
+        table.add(new Tweet(2, "Alyssa", "caf\u00e9 \ud83d\ude00", d1.plusNanos(1_500_000)));
+        table.add(new Tweet(3, "alyssa", longText.toString(), d2));
+        table.add(new Tweet(4, "alyssa", "after", d3));
+
+        assertEquals("", table.getText(0));
+        assertEquals("Alyssa", table.getAuthor(1));
+        assertEquals("caf\u00e9 \ud83d\ude00", table.getText(1));
+        assertEquals(d1.plusMillis(1), table.get(1).getTimestamp());
+        assertEquals(longText.toString(), table.getText(2));
+        assertEquals("after", table.getText(3));
+        assertSame(table.getAuthor(0), table.getAuthor(3));
+    }
+
+    //covers 4.2
+    @Test(expected=IllegalArgumentException.class)
+    public void testTimestampOutOfRange() {
+        new TweetTable().add(new Tweet(1, "alyssa", "far future", Instant.MAX));
+    }
+
+    //covers 1.3, 5.1
+    @Test
+    public void testManyTweetsAsList() {
+        final Random random = new Random(14);
+        final List<Tweet> tweets = new ArrayList<Tweet>();
+        for(int i = 0; i < 50_000; i++){
+            final StringBuilder text = new StringBuilder();
+            for(int j = random.nextInt(20); j > 0; j--){
+                text.append(random.nextInt(4) == 0 ? "@user" + random.nextInt(50) + " " : "word" + j + " ");
+            }
+            tweets.add(new Tweet(i, "user" + random.nextInt(50), text.toString(), d1.plusSeconds(i)));
+        }
+        final TweetTable table = new TweetTable(tweets);
+        final List<Tweet> view = table.asList();
+
+        assertEquals(tweets.size(), view.size());
+        for(int i = 0; i < tweets.size(); i += 997){
+            assertTweetEquals(tweets.get(i), view.get(i));
+        }
+        assertEquals(Extract.getTimespan(tweets).getStart(), Extract.getTimespan(view).getStart());
+        assertEquals(Extract.getMentionedUsers(tweets), Extract.getMentionedUsers(view));
+        assertEquals(Filter.containing(tweets, Arrays.asList("word3")), Filter.containing(view, Arrays.asList("word3")));
+        assertEquals(SocialNetwork.guessFollowsGraph(tweets), SocialNetwork.guessFollowsGraph(view));
+    }
+
+    //covers 6.1, 6.2
+    @Test
+    public void testWrittenBy() {
+        final TweetTable table = new TweetTable(Arrays.asList(tweet1, tweet2, tweet3));
+
+        assertEquals(Arrays.asList(tweet1, tweet3), table.writtenBy("ALYSSA"));
+        assertTrue(table.writtenBy("ben").isEmpty());
+    }
+
+    //covers 7.1, 7.2
+    @Test
+    public void testInTimespan() {
+        final TweetTable table = new TweetTable(Arrays.asList(tweet1, tweet2, tweet3));
+
+        assertEquals(Arrays.asList(tweet1, tweet2), table.inTimespan(new Timespan(d1, d2)));
+        assertEquals(Arrays.asList(tweet2), table.inTimespan(new Timespan(d1.plusNanos(1), d3.minusNanos(1))));
+        assertEquals(Filter.inTimespan(table.asList(), new Timespan(d2, d3)), table.inTimespan(new Timespan(d2, d3)));
+    }
+
+    //covers 7.3
+    @Test
+    public void testInTimespanAtExtremes() {
+        final TweetTable table = new TweetTable(Arrays.asList(tweet1, tweet2, tweet3));
+        final Timespan end = new Timespan(Instant.MAX, Instant.MAX);
+        final Timespan start = new Timespan(Instant.MIN, Instant.MIN);
+        final Timespan all = new Timespan(Instant.MIN, Instant.MAX);
+
+        assertEquals(Filter.inTimespan(table.asList(), end), table.inTimespan(end));
+        assertEquals(Filter.inTimespan(table.asList(), start), table.inTimespan(start));
+        assertEquals(Filter.inTimespan(table.asList(), all), table.inTimespan(all));
+        assertTrue(table.inTimespan(end).isEmpty());
+    }
+
+    //covers 8.1
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void testIndexOutOfRange() {
+        new TweetTable(Arrays.asList(tweet1)).getId(1);
+    }
+
+    /*
+     * Tweet.equals() compares ids only, so compare field by field.
+     */
+    private static void assertTweetEquals(Tweet expected, Tweet actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getAuthor(), actual.getAuthor());
+        assertEquals(expected.getText(), actual.getText());
+        assertEquals(expected.getTimestamp(), actual.getTimestamp());
+    }
+}
@@ -0,0 +1,135 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TweetTimelineTest {
+
+    /*
+     * Testing strategy
+     *
+     * inTimespan():
+     *  timeline empty (1.1), has one tweet (1.2), has several tweets (1.3);
+     *  timespan of length 0 (2.1), > 0 (2.2), max length (2.3);
+     *  tweets on the bounds (3.1), just outside the bounds within the same millisecond (3.2),
+     *  well outside the bounds (3.3);
+     *  tweets with equal timestamps (4.1);
+     *  random timelines and timespans compared against Filter.inTimespan (5.1);
+     *  many tweets within one millisecond, compared against Filter.inTimespan (5.2);
+     *
+     * add():
+     *  in timestamp order (6.1), out of order (6.2), equal to an existing timestamp (6.3);
+     *
+     * removeBefore():
+     *  cutoff before every tweet (7.1), between tweets (7.2), after every tweet (7.3);
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+    private static final Instant d2 = Instant.parse("2016-02-17T11:00:00Z");
+    private static final Instant d3 = Instant.parse("2016-02-17T12:00:00Z");
+
+    private static final Tweet tweet1 = new Tweet(1, "alyssa", "first", d1);
+    private static final Tweet tweet2 = new Tweet(2, "bbitdiddle", "second", d2);
+    private static final Tweet tweet3 = new Tweet(3, "alyssa", "third", d3);
+    private static final Tweet tweet4 = new Tweet(4, "bbitdiddle", "same time as second", d2);
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    //covers 1.1, 2.3
+    @Test
+    public void testInTimespanEmpty() {
+        final TweetTimeline timeline = new TweetTimeline();
+
+        assertTrue(timeline.inTimespan(new Timespan(Instant.MIN, Instant.MAX)).isEmpty());
+    }
+
+    //covers 1.2, 2.1, 3.1
+    @Test
+    public void testInTimespanSingleTweetOnBounds() {
+        final TweetTimeline timeline = new TweetTimeline(Arrays.asList(tweet1));
+
+        assertEquals(Arrays.asList(tweet1), timeline.inTimespan(new Timespan(d1, d1)));
+    }
+
+    //covers 1.3, 2.2, 3.2, 3.3, 4.1, 6.1, 6.2, 6.3
+    @Test
+    public void testInTimespanAfterAdds() {
+        final Tweet justBefore = new Tweet(5, "alyssa", "just before", d2.minusNanos(1));
+        final Tweet justAfter = new Tweet(6, "alyssa", "just after", d2.plusNanos(1));
+        final TweetTimeline timeline = new TweetTimeline();
+        timeline.addAll(Arrays.asList(tweet3, tweet1, tweet2, justAfter, justBefore, tweet4));
+
+        assertEquals(Arrays.asList(tweet1, justBefore, tweet2, tweet4, justAfter, tweet3), timeline.getTweets());
+        assertEquals(Arrays.asList(tweet2, tweet4), timeline.inTimespan(new Timespan(d2, d2)));
+        assertEquals(Arrays.asList(tweet2, tweet4, justAfter), timeline.inTimespan(new Timespan(d2, d3.minusNanos(1))));
+    }
+
+    //covers 7.1, 7.2, 7.3
+    @Test
+    public void testRemoveBefore() {
+        final TweetTimeline timeline = new TweetTimeline(Arrays.asList(tweet1, tweet2, tweet3));
+
+        timeline.removeBefore(d1);
+        assertEquals(3, timeline.size());
+        timeline.removeBefore(d2);
+        assertEquals(Arrays.asList(tweet2, tweet3), timeline.getTweets());
+        assertEquals(Arrays.asList(tweet3), timeline.inTimespan(new Timespan(d2.plusNanos(1), Instant.MAX)));
+        timeline.removeBefore(Instant.MAX);
+        assertEquals(0, timeline.size());
+    }
+
+    //covers 5.2, 6.2, 6.3
+    @Test
+    public void testBurstWithinOneMillisecond() {
+        final Random random = new Random(5);
+        final List<Tweet> tweets = new ArrayList<Tweet>();
+        for(int i = 0; i < 2000; i++){
+            tweets.add(new Tweet(i, "author", "text", d1.plusNanos(random.nextInt(1000) * 1000)));
+        }
+        final TweetTimeline timeline = new TweetTimeline();
+        timeline.addAll(tweets);
+
+        final List<Tweet> sorted = new ArrayList<Tweet>(tweets);
+        sorted.sort((t1, t2) -> t1.getTimestamp().compareTo(t2.getTimestamp()));
+        assertEquals(sorted, timeline.getTweets());
+        for(int n = 0; n < 200; n++){
+            final Instant a = d1.plusNanos(random.nextInt(1_000_000));
+            final Instant b = d1.plusNanos(random.nextInt(1_000_000));
+            final Timespan timespan = a.isAfter(b) ? new Timespan(b, a) : new Timespan(a, b);
+            assertEquals(Filter.inTimespan(sorted, timespan), timeline.inTimespan(timespan));
+        }
+    }
+
+    //covers 5.1
+    @Test
+    public void testInTimespanMatchesFilter() {
+        final Instant[] instants = {Instant.MIN, Instant.EPOCH.minusNanos(1), Instant.EPOCH, d1, d1.plusNanos(1),
+                d1.plusMillis(1), d2, Instant.MAX};
+        final Random random = new Random(6005);
+
+        for(int n = 0; n < 500; n++){
+            final List<Tweet> tweets = new ArrayList<Tweet>();
+            final int count = random.nextInt(8);
+            for(int i = 0; i < count; i++){
+                tweets.add(new Tweet(i, "author", "text", instants[random.nextInt(instants.length)]));
+            }
+
+            final TweetTimeline timeline = new TweetTimeline(tweets);
+            final Instant a = instants[random.nextInt(instants.length)];
+            final Instant b = instants[random.nextInt(instants.length)];
+            final Timespan timespan = a.isAfter(b) ? new Timespan(b, a) : new Timespan(a, b);
+
+            assertEquals(Filter.inTimespan(timeline.getTweets(), timespan), timeline.inTimespan(timespan));
+        }
+    }
+}
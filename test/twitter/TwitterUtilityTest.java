@@ -0,0 +1,104 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class TwitterUtilityTest {
+
+    /*
+     * Testing strategy
+     *
+     * kind of collection:
+     *  plain hash-based (1.1), sorted by String.CASE_INSENSITIVE_ORDER (1.2),
+     *  UsernameMap or UsernameSet (1.3);
+     *
+     * username present spelled as queried (2.1), present in another case (2.2), absent (2.3);
+     *
+     * containsAllUsernames():
+     *  second set empty (3.1), contained up to case (3.2), not contained (3.3);
+     *
+     * UsernameSet, UsernameMap:
+     *  add or put of a key equal up to case keeps the first spelling (4.1);
+     *  remove in another case (4.2);
+     */
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    //covers 1.1, 1.2, 1.3, 2.1, 2.2, 2.3
+    @Test
+    public void testGet() {
+        final Set<String> followed = new HashSet<String>(Arrays.asList("b"));
+        final Map<String, Set<String>> hashMap = new HashMap<String, Set<String>>();
+        final Map<String, Set<String>> treeMap = new TreeMap<String, Set<String>>(String.CASE_INSENSITIVE_ORDER);
+        final Map<String, Set<String>> usernameMap = new UsernameMap<Set<String>>();
+
+        for(Map<String, Set<String>> map : Arrays.asList(hashMap, treeMap, usernameMap)){
+            map.put("Alyssa", followed);
+
+            assertSame(followed, TwitterUtility.get(map, "Alyssa"));
+            assertSame(followed, TwitterUtility.get(map, "aLYSSA"));
+            assertEquals(Collections.emptySet(), TwitterUtility.get(map, "ben"));
+        }
+    }
+
+    //covers 1.1, 1.2, 1.3, 2.1, 2.2, 2.3
+    @Test
+    public void testContainsUsername() {
+        final Set<String> hashSet = new HashSet<String>(Arrays.asList("Alyssa", "ben"));
+        final Set<String> treeSet = new TreeSet<String>(String.CASE_INSENSITIVE_ORDER);
+        treeSet.addAll(hashSet);
+        final Set<String> usernameSet = new UsernameSet(hashSet);
+
+        for(Set<String> set : Arrays.asList(hashSet, treeSet, usernameSet)){
+            assertTrue(TwitterUtility.containsUsername(set, "Alyssa"));
+            assertTrue(TwitterUtility.containsUsername(set, "BEN"));
+            assertFalse(TwitterUtility.containsUsername(set, "cy"));
+        }
+    }
+
+    //covers 1.1, 1.3, 3.1, 3.2, 3.3
+    @Test
+    public void testContainsAllUsernames() {
+        final Set<String> hashSet = new HashSet<String>(Arrays.asList("Alyssa", "ben"));
+        final Set<String> usernameSet = new UsernameSet(hashSet);
+
+        for(Set<String> set : Arrays.asList(hashSet, usernameSet)){
+            assertTrue(TwitterUtility.containsAllUsernames(set, Collections.<String>emptySet()));
+            assertTrue(TwitterUtility.containsAllUsernames(set, new HashSet<String>(Arrays.asList("ALYSSA", "Ben"))));
+            assertFalse(TwitterUtility.containsAllUsernames(set, new HashSet<String>(Arrays.asList("alyssa", "cy"))));
+        }
+    }
+
+    //covers 4.1, 4.2
+    @Test
+    public void testUsernameCollectionsKeepFirstSpelling() {
+        final UsernameSet set = new UsernameSet();
+        assertTrue(set.add("Alyssa"));
+        assertFalse(set.add("alyssa"));
+        assertEquals(Collections.singletonList("Alyssa"), Arrays.asList(set.toArray()));
+        assertTrue(set.remove("ALYSSA"));
+        assertTrue(set.isEmpty());
+
+        final UsernameMap<Integer> map = new UsernameMap<Integer>();
+        assertNull(map.put("Alyssa", 1));
+        assertEquals(Integer.valueOf(1), map.put("alyssa", 2));
+        assertEquals(Collections.singleton("Alyssa"), map.keySet());
+        assertEquals(Integer.valueOf(2), map.get("ALYSSA"));
+        assertTrue(map.containsKey("aLyssa"));
+        assertEquals(Integer.valueOf(2), map.remove("alyssa"));
+        assertTrue(map.isEmpty());
+    }
+}
@@ -0,0 +1,127 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class UsernameCounterTest {
+
+    /*
+     * Testing strategy
+     *
+     * add(), get():
+     *  username new (1.1), already added in the same case (1.2), in another case (1.3);
+     *  enough usernames to grow the table (1.4);
+     *
+     * sortedByCount(), top(k):
+     *  counter empty (2.1), one username (2.2), several (2.3);
+     *  k = 0 (3.1), 0 < k < size (3.2), k >= size (3.3);
+     *  equal counts, ordered by first appearance (4.1);
+     *  random counters, top(k) compared against a prefix of sortedByCount() (5.1);
+     *
+     * SocialNetwork.topInfluencers() compared against a prefix of influencers() (6.1);
+     */
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    //covers 1.1, 1.2, 1.3, 2.2
+    @Test
+    public void testAddCaseInsensitive() {
+        final UsernameCounter counter = new UsernameCounter();
+
+        assertEquals(0, counter.add("Alyssa", 1));
+        assertEquals(0, counter.add("alyssa", 2));
+        assertEquals(0, counter.add("ALYSSA", 0));
+
+        assertEquals(1, counter.size());
+        assertEquals(3, counter.get("aLySsA"));
+        assertEquals(0, counter.get("ben"));
+        assertEquals("Alyssa", counter.name(0));
+        assertEquals(Arrays.asList("Alyssa"), counter.sortedByCount());
+    }
+
+    //covers 1.4
+    @Test
+    public void testAddGrows() {
+        final UsernameCounter counter = new UsernameCounter();
+        for(int i = 0; i < 1000; i++){
+            counter.add("user" + i, i);
+        }
+
+        assertEquals(1000, counter.size());
+        for(int i = 0; i < 1000; i++){
+            assertEquals(i, counter.get("USER" + i));
+        }
+    }
+
+    //covers 2.1, 3.1, 3.3
+    @Test
+    public void testEmpty() {
+        final UsernameCounter counter = new UsernameCounter();
+
+        assertTrue(counter.sortedByCount().isEmpty());
+        assertTrue(counter.top(0).isEmpty());
+        assertTrue(counter.top(10).isEmpty());
+    }
+
+    //covers 2.3, 3.2, 3.3, 4.1
+    @Test
+    public void testTopTies() {
+        final UsernameCounter counter = new UsernameCounter();
+        counter.add("a", 1);
+        counter.add("b", 3);
+        counter.add("c", 1);
+        counter.add("d", 3);
+
+        assertEquals(Arrays.asList("b", "d", "a", "c"), counter.sortedByCount());
+        assertEquals(Arrays.asList("b", "d", "a"), counter.top(3));
+        assertEquals(Arrays.asList("b", "d", "a", "c"), counter.top(5));
+    }
+
+    //covers 5.1
+    @Test
+    public void testTopMatchesSort() {
+        final Random random = new Random(6005);
+
+        for(int n = 0; n < 100; n++){
+            final UsernameCounter counter = new UsernameCounter();
+            final int users = random.nextInt(50);
+            for(int i = 0; i < users; i++){
+                counter.add("user" + random.nextInt(users), random.nextInt(5));
+            }
+
+            final List<String> sorted = counter.sortedByCount();
+            final int k = random.nextInt(users + 2);
+            assertEquals(sorted.subList(0, Math.min(k, sorted.size())), counter.top(k));
+        }
+    }
+
+    //covers 6.1
+    @Test
+    public void testTopInfluencersIsPrefixOfInfluencers() {
+        final Random random = new Random(6005);
+        final Map<String, Set<String>> followsGraph = new HashMap<String, Set<String>>();
+        for(int i = 0; i < 40; i++){
+            final Set<String> followed = new HashSet<String>();
+            for(int j = random.nextInt(5); j > 0; j--){
+                followed.add("user" + random.nextInt(60));
+            }
+            followsGraph.put("user" + i, followed);
+        }
+
+        final List<String> influencers = SocialNetwork.influencers(followsGraph);
+        assertEquals(new ArrayList<String>(influencers.subList(0, 10)), SocialNetwork.topInfluencers(followsGraph, 10));
+    }
+}
@@ -0,0 +1,59 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class UsernameDictionaryTest {
+
+    /*
+     * Testing strategy
+     *
+     * intern(), idOf(), name():
+     *  username new (1.1), already interned in the same case (1.2), in another case (1.3);
+     *  username never interned (1.4);
+     *  enough usernames to grow the table (2.1);
+     *  id out of range (3.1);
+     */
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    //covers 1.1, 1.2, 1.3, 1.4
+    @Test
+    public void testInternCaseInsensitive() {
+        final UsernameDictionary users = new UsernameDictionary();
+
+        assertEquals(0, users.intern("Alyssa"));
+        assertEquals(1, users.intern("bbitdiddle"));
+        assertEquals(0, users.intern("alyssa"));
+        assertEquals(0, users.idOf("ALYSSA"));
+        assertEquals(UsernameDictionary.ABSENT, users.idOf("ben"));
+
+        assertEquals(2, users.size());
+        assertEquals("Alyssa", users.name(0));
+        assertEquals("bbitdiddle", users.name(1));
+    }
+
+    //covers 2.1
+    @Test
+    public void testInternGrows() {
+        final UsernameDictionary users = new UsernameDictionary();
+        for(int i = 0; i < 1000; i++){
+            assertEquals(i, users.intern("user" + i));
+        }
+
+        assertEquals(1000, users.size());
+        for(int i = 0; i < 1000; i++){
+            assertEquals(i, users.idOf("USER" + i));
+        }
+    }
+
+    //covers 3.1
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void testNameOutOfRange() {
+        new UsernameDictionary().name(0);
+    }
+}
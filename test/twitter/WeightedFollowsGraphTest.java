@@ -0,0 +1,166 @@
+package twitter;
+
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class WeightedFollowsGraphTest {
+
+    /*
+     * Testing strategy
+     *
+     * add(), getMentionCount(), getLastSeen():
+     *  no tweets (1.1); edge mentioned once (1.2), several times in one tweet (1.3), in
+     *  several tweets (1.4), in another case (1.5); self-mention (1.6);
+     *  tweets out of timestamp order (1.7); edge absent, users absent (1.8);
+     *  enough edges to grow the table (1.9);
+     *
+     * toMap(): every edge kept, random corpora compared against
+     *  SocialNetwork.guessFollowsGraph (2.1); thresholds on count and time (2.2);
+     *
+     * prune(): removing none (3.1), some (3.2), all (3.3); adding after pruning (3.4);
+     *
+     * topInfluencers(k, minMentions, since), topByMentions(k):
+     *  k = 0 (4.1), 0 < k < users (4.2), k >= users (4.3);
+     *  thresholds changing the ranking (4.4), equal counts in order of first appearance (4.5)
+     */
+
+    private static final Instant d1 = Instant.parse("2016-02-17T10:00:00Z");
+    private static final Instant d2 = Instant.parse("2016-02-17T11:00:00Z");
+    private static final Instant d3 = Instant.parse("2016-02-17T12:00:00Z");
+
+    @Test(expected=AssertionError.class)
+    public void testAssertionsEnabled() {
+        assert false; // make sure assertions are enabled with VM argument: -ea
+    }
+
+    //covers 1.1, 1.8
+    @Test
+    public void testEmpty() {
+        final WeightedFollowsGraph graph = new WeightedFollowsGraph();
+        assertEquals(0, graph.userCount());
+        assertEquals(0, graph.edgeCount());
+        assertEquals(0, graph.getMentionCount("alyssa", "bbitdiddle"));
+        assertTrue(graph.toMap(1, Instant.MIN).isEmpty());
+        assertEquals(Arrays.asList(), graph.topByMentions(3));
+    }
+
+    //covers 1.2, 1.3, 1.4, 1.5, 1.6, 1.7, 1.8
+    @Test
+    public void testWeights() {
+        final WeightedFollowsGraph graph = new WeightedFollowsGraph();
+        graph.add(new Tweet(1, "alyssa", "@bbitdiddle @BBitDiddle @alyssa", d2));
+        graph.add(new Tweet(2, "Alyssa", "@bbitdiddle again", d3));
+        graph.add(new Tweet(3, "alyssa", "late @bbitdiddle and @rivest", d1));
+
+        assertEquals(3, graph.userCount());
+        assertEquals(2, graph.edgeCount());
+        assertEquals(4, graph.getMentionCount("ALYSSA", "bbitdiddle"));
+        assertEquals(d3, graph.getLastSeen("alyssa", "BBITDIDDLE"));
+        assertEquals(1, graph.getMentionCount("alyssa", "rivest"));
+        assertEquals(d1, graph.getLastSeen("alyssa", "rivest"));
+        assertEquals(0, graph.getMentionCount("alyssa", "alyssa"));
+        assertEquals(0, graph.getMentionCount("bbitdiddle", "alyssa"));
+        assertEquals(0, graph.getMentionCount("nobody", "alyssa"));
+        try {
+            graph.getLastSeen("bbitdiddle", "alyssa");
+            fail("expected NoSuchElementException");
+        } catch (NoSuchElementException nsee) {
+            //expected
+        }
+    }
+
+    //covers 1.9, 2.1
+    @Test
+    public void testRandomAgainstSocialNetwork() {
+        final Random random = new Random(25);
+        for(int trial = 0; trial < 10; trial++){
+            final List<Tweet> tweets = new ArrayList<Tweet>();
+            final Map<String, Integer> expectedCounts = new HashMap<String, Integer>();
+            for(int i = random.nextInt(2000); i > 0; i--){
+                final String author = (random.nextBoolean() ? "USER" : "user") + random.nextInt(100);
+                final StringBuilder text = new StringBuilder();
+                for(int j = random.nextInt(4); j > 0; j--){
+                    final int mentioned = random.nextInt(100);
+                    text.append(random.nextBoolean() ? "@User" : "@user").append(mentioned).append(' ');
+                    if(!author.equalsIgnoreCase("user" + mentioned)){
+                        expectedCounts.merge(author.toLowerCase() + " user" + mentioned, 1, Integer::sum);
+                    }
+                }
+                tweets.add(new Tweet(i, author, text.toString(), d1));
+            }
+
+            final WeightedFollowsGraph graph = new WeightedFollowsGraph();
+            graph.addAll(tweets);
+            assertEquals(SocialNetwork.guessFollowsGraph(tweets), graph.toMap(1, Instant.MIN));
+            assertEquals(expectedCounts.size(), graph.edgeCount());
+            for(Map.Entry<String, Integer> entry : expectedCounts.entrySet()){
+                final String[] pair = entry.getKey().split(" ");
+                assertEquals(entry.getValue().intValue(), graph.getMentionCount(pair[0], pair[1]));
+            }
+        }
+    }
+
+    //covers 2.2, 3.1, 3.2, 3.3, 3.4
+    @Test
+    public void testThresholdsAndPrune() {
+        final WeightedFollowsGraph graph = new WeightedFollowsGraph();
+        graph.add(new Tweet(1, "alyssa", "@bbitdiddle @bbitdiddle @rivest", d1));
+        graph.add(new Tweet(2, "ernie", "@bert", d3));
+        graph.add(new Tweet(3, "bert", "@ernie @ernie", d2));
+
+        final Map<String, Set<String>> frequent = graph.toMap(2, Instant.MIN);
+        assertEquals(3, frequent.size());
+        assertEquals(set("bbitdiddle"), frequent.get("alyssa"));
+        assertEquals(set(), frequent.get("ernie"));
+        assertEquals(set("ernie"), frequent.get("bert"));
+        final Map<String, Set<String>> recent = graph.toMap(1, d2);
+        assertEquals(set(), recent.get("alyssa"));
+        assertEquals(set("bert"), recent.get("ernie"));
+
+        assertEquals(0, graph.prune(1, Instant.MIN));
+        assertEquals(4, graph.edgeCount());
+        assertEquals(2, graph.prune(2, Instant.MIN));
+        assertEquals(2, graph.getMentionCount("alyssa", "bbitdiddle"));
+        assertEquals(0, graph.getMentionCount("alyssa", "rivest"));
+        assertEquals(2, graph.prune(1, Instant.MAX));
+        assertEquals(0, graph.edgeCount());
+        assertEquals(5, graph.userCount());
+
+        graph.add(new Tweet(4, "alyssa", "@rivest", d3));
+        assertEquals(1, graph.getMentionCount("alyssa", "rivest"));
+        assertEquals(d3, graph.getLastSeen("alyssa", "rivest"));
+    }
+
+    //covers 4.1, 4.2, 4.3, 4.4, 4.5
+    @Test
+    public void testRankings() {
+        final WeightedFollowsGraph graph = new WeightedFollowsGraph();
+        graph.add(new Tweet(1, "bot", "@spam @spam @spam @spam @spam", d3));
+        graph.add(new Tweet(2, "alyssa", "@rivest @rivest @spam", d1));
+        graph.add(new Tweet(3, "ben", "@rivest @rivest", d2));
+
+        assertEquals(Arrays.asList(), graph.topByMentions(0));
+        assertEquals(Arrays.asList("spam", "rivest"), graph.topByMentions(2));
+        assertEquals(Arrays.asList("spam", "rivest", "bot", "alyssa", "ben"), graph.topByMentions(10));
+
+        assertEquals(Arrays.asList("spam", "rivest"), graph.topInfluencers(2, 1, Instant.MIN));
+        assertEquals(Arrays.asList("rivest", "spam"), graph.topInfluencers(2, 2, Instant.MIN));
+        assertEquals(Arrays.asList("spam", "bot"), graph.topInfluencers(2, 2, d3));
+    }
+
+    private static Set<String> set(String... usernames) {
+        return new HashSet<String>(Arrays.asList(usernames));
+    }
+}